@@ -0,0 +1,78 @@
+package com.sippulse.pet.benchmark;
+
+import com.sippulse.pet.entity.Agendamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inclusão e remoção de um agendamento em um {@code HashSet} com {@code tamanho} agendamentos, como o antigo
+ * {@code Cliente.agendamentos}.
+ *
+ * <p>{@code hash} compara o {@code hashCode} atual, pelo id, com o anterior, que retornava a constante {@code 31}
+ * e colocava todas as entidades no mesmo bucket.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntidadeHashBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int tamanho;
+
+    @Param({"constante", "id"})
+    private String hash;
+
+    private Set<Agendamento> agendamentos;
+
+    private Agendamento novo;
+
+    @Setup
+    public void setup() {
+        agendamentos = new HashSet<>();
+        for (long i = 1; i <= tamanho; i++) {
+            agendamentos.add(agendamento(i));
+        }
+        novo = agendamento(tamanho + 1L);
+    }
+
+    private Agendamento agendamento(long id) {
+        Agendamento agendamento = "constante".equals(hash) ? new HashConstante() : new Agendamento();
+        agendamento.setId(id);
+        return agendamento;
+    }
+
+    @Benchmark
+    public boolean addRemove() {
+        agendamentos.add(novo);
+        return agendamentos.remove(novo);
+    }
+
+    /**
+     * O {@code hashCode} anterior das entidades.
+     */
+    private static class HashConstante extends Agendamento {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int hashCode() {
+            return 31;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.sippulse.pet.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sippulse.pet.controller.SmileHttpMessageConverter;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação e decodificação das listas da API em JSON e em Smile.
+ *
+ * <p>{@code tamanho} é o número de itens da lista. O tamanho de cada payload em bytes é impresso no setup.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoBinarioBenchmark {
+
+    private static final TypeReference<List<AgendamentoDTO>> AGENDAMENTOS = new TypeReference<List<AgendamentoDTO>>() {
+    };
+
+    private static final TypeReference<List<ClienteDTO>> CLIENTES = new TypeReference<List<ClienteDTO>>() {
+    };
+
+    @Param({"json", "smile"})
+    private String formato;
+
+    @Param({"100", "1000"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+
+    private List<AgendamentoDTO> agendamentos;
+
+    private List<ClienteDTO> clientes;
+
+    private byte[] agendamentosCodificados;
+
+    private byte[] clientesCodificados;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = "smile".equals(formato)
+            ? SmileHttpMessageConverter.objectMapper(Jackson2ObjectMapperBuilder.json())
+            : Jackson2ObjectMapperBuilder.json().build();
+        agendamentos = new ArrayList<>(tamanho);
+        clientes = new ArrayList<>(tamanho);
+        long agora = System.currentTimeMillis();
+        for (long i = 1; i <= tamanho; i++) {
+            // poucos veterinários e pets com nomes repetidos, como numa agenda real
+            agendamentos.add(new AgendamentoDTO(i, 0L, new Date(agora + i * 1_800_000L), i, "Cliente " + i, i,
+                "Pet " + (i % 20), i % 5 + 1, "Veterinario " + (i % 5 + 1)));
+            clientes.add(new ClienteDTO(i, 0L, "Cliente " + i, "cliente" + i + "@example.com", "Rua " + i,
+                "4899999" + i, String.format("%011d", i)));
+        }
+        agendamentosCodificados = objectMapper.writeValueAsBytes(agendamentos);
+        clientesCodificados = objectMapper.writeValueAsBytes(clientes);
+        System.out.printf("%n%s, %d itens: agendamentos %d bytes, clientes %d bytes%n", formato, tamanho,
+            agendamentosCodificados.length, clientesCodificados.length);
+    }
+
+    @Benchmark
+    public byte[] codificarAgendamentos() throws Exception {
+        return objectMapper.writeValueAsBytes(agendamentos);
+    }
+
+    @Benchmark
+    public List<AgendamentoDTO> decodificarAgendamentos() throws Exception {
+        return objectMapper.readValue(agendamentosCodificados, AGENDAMENTOS);
+    }
+
+    @Benchmark
+    public byte[] codificarClientes() throws Exception {
+        return objectMapper.writeValueAsBytes(clientes);
+    }
+
+    @Benchmark
+    public List<ClienteDTO> decodificarClientes() throws Exception {
+        return objectMapper.readValue(clientesCodificados, CLIENTES);
+    }
+}
@@ -0,0 +1,63 @@
+package com.sippulse.pet.benchmark;
+
+import com.sippulse.pet.HeaderUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem dos headers de alerta das respostas de escrita.
+ *
+ * <p>{@code tamanho} é o número de dígitos do identificador.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderUtilBenchmark {
+
+    @Param({"1", "10", "19"})
+    private int tamanho;
+
+    @Param({"false", "true"})
+    private boolean enableTranslation;
+
+    private String id;
+
+    @Setup
+    public void setup() {
+        StringBuilder digitos = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            digitos.append((char) ('1' + i % 9));
+        }
+        id = digitos.toString();
+    }
+
+    @Benchmark
+    public HttpHeaders creationAlert() {
+        return HeaderUtil.createEntityCreationAlert("Pet", enableTranslation, "agendamento", id);
+    }
+
+    @Benchmark
+    public HttpHeaders updateAlert() {
+        return HeaderUtil.createEntityUpdateAlert("Pet", enableTranslation, "agendamento", id);
+    }
+
+    @Benchmark
+    public HttpHeaders deletionAlert() {
+        return HeaderUtil.createEntityDeletionAlert("Pet", enableTranslation, "agendamento", id);
+    }
+}
@@ -0,0 +1,147 @@
+package com.sippulse.pet.benchmark;
+
+import com.sippulse.pet.PetSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de subida da aplicação até a primeira resposta {@code 200} de {@code GET /api/usuarios}, com e sem o
+ * profile {@code inicio-rapido}.
+ *
+ * <p>Cada medição sobe a aplicação em uma JVM nova, com o classpath do benchmark, contra um H2 em arquivo
+ * migrado uma única vez no setup. O tempo inclui a subida da JVM; o log de cada subida fica em
+ * {@code inicio.log}, no diretório temporário do banco.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InicioBenchmark {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    @Param({"padrao", "inicio-rapido"})
+    private String perfil;
+
+    private Path diretorio;
+
+    private File log;
+
+    @Setup
+    public void setup() throws Exception {
+        diretorio = Files.createTempDirectory("inicio-benchmark");
+        log = diretorio.resolve("inicio.log").toFile();
+        // o profile inicio-rapido não aplica as migrações: uma subida com o profile padrão cria o esquema
+        subir("padrao");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (File arquivo : diretorio.toFile().listFiles()) {
+            Files.delete(arquivo.toPath());
+        }
+        Files.delete(diretorio);
+    }
+
+    @Benchmark
+    public int primeiraResposta() throws Exception {
+        return subir(perfil);
+    }
+
+    /**
+     * Sobe a aplicação, espera a primeira resposta {@code 200} e derruba a JVM.
+     */
+    private int subir(String profile) throws Exception {
+        int porta = portaLivre();
+        List<String> comando = new ArrayList<>();
+        comando.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(PetSchedule.class.getName());
+        comando.add("--server.port=" + porta);
+        comando.add("--spring.datasource.url=jdbc:h2:" + diretorio.resolve("pet") + ";MODE=MySQL");
+        comando.add("--spring.datasource.driverClassName=org.h2.Driver");
+        comando.add("--spring.datasource.username=sa");
+        comando.add("--spring.datasource.password=benchmark");
+        comando.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        if (!"padrao".equals(profile)) {
+            comando.add("--spring.profiles.active=" + profile);
+        }
+        Process processo = new ProcessBuilder(comando)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.to(log))
+            .start();
+        try {
+            return esperar(processo, porta);
+        } finally {
+            processo.destroy();
+            // o próximo processo só pode abrir o banco depois que este o liberar
+            processo.waitFor();
+        }
+    }
+
+    private int esperar(Process processo, int porta) throws Exception {
+        URL url = new URL("http", "localhost", porta, "/api/usuarios");
+        long limite = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException("Application exited with " + processo.exitValue() + ", see " + log);
+            }
+            try {
+                HttpURLConnection conexao = (HttpURLConnection) url.openConnection();
+                int status = conexao.getResponseCode();
+                try (InputStream corpo = status < 400 ? conexao.getInputStream() : conexao.getErrorStream()) {
+                    // a subida termina com a primeira resposta lida inteira
+                    descartar(corpo);
+                }
+                if (status == 200) {
+                    return status;
+                }
+            } catch (IOException e) {
+                // o container ainda não está aceitando conexões
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No response from " + url + " after " + TIMEOUT_MILLIS + " ms, see " + log);
+    }
+
+    private static void descartar(InputStream corpo) throws IOException {
+        if (corpo == null) {
+            return;
+        }
+        byte[] buffer = new byte[8192];
+        while (corpo.read(buffer) != -1) {
+            // só o fim do corpo interessa
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sippulse.pet.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sippulse.pet.entity.Agendamento;
+import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.entity.Usuario;
+import com.sippulse.pet.entity.UsuarioTipo;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import com.sippulse.pet.service.dto.ClienteResumoDTO;
+import com.sippulse.pet.service.dto.PetDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das entidades e das projeções retornadas pela API.
+ *
+ * <p>{@code tamanho} é o número de agendamentos da lista e de pets do resumo do cliente. Use {@code -prof gc}
+ * para medir a taxa de alocação.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+
+    private List<Agendamento> agendamentos;
+
+    private List<AgendamentoDTO> agendamentoDTOs;
+
+    private ClienteResumoDTO clienteResumo;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        agendamentos = new ArrayList<>(tamanho);
+        agendamentoDTOs = new ArrayList<>(tamanho);
+        Cliente cliente = cliente(1L);
+        List<PetDTO> petDTOs = new ArrayList<>(tamanho);
+        Usuario usuario = new Usuario().nome("Veterinario").usuarioTipo(UsuarioTipo.VETERINARIO).dataCadastro(new Date());
+        usuario.setId(1L);
+        for (long i = 1; i <= tamanho; i++) {
+            Pet pet = new Pet().nome("Pet " + i).especieAnimal("Cachorro").raca("Vira-lata");
+            pet.setId(i);
+            petDTOs.add(new PetDTO(i, 0L, pet.getNome(), pet.getEspecieAnimal(), pet.getRaca(), cliente.getId(),
+                cliente.getNome()));
+            Agendamento agendamento = new Agendamento().data(new Date()).cliente(cliente(i)).pet(pet).usuario(usuario);
+            agendamento.setId(i);
+            agendamentos.add(agendamento);
+            agendamentoDTOs.add(new AgendamentoDTO(i, 0L, agendamento.getData(), i, "Cliente " + i, i, pet.getNome(),
+                usuario.getId(), usuario.getNome()));
+        }
+        clienteResumo = new ClienteResumoDTO(new ClienteDTO(cliente.getId(), 0L, cliente.getNome(), cliente.getEmail(),
+            cliente.getEndereco(), cliente.getTelefone(), cliente.getCpf()), petDTOs, Collections.emptyList());
+    }
+
+    private static Cliente cliente(long id) {
+        Cliente cliente = new Cliente().nome("Cliente " + id).email("cliente" + id + "@example.com")
+            .endereco("Rua " + id).telefone("4899999" + id);
+        cliente.setId(id);
+        cliente.setCpf(String.format("%011d", id));
+        return cliente;
+    }
+
+    @Benchmark
+    public byte[] agendamentos() throws Exception {
+        return objectMapper.writeValueAsBytes(agendamentos);
+    }
+
+    @Benchmark
+    public byte[] agendamentoDTOs() throws Exception {
+        return objectMapper.writeValueAsBytes(agendamentoDTOs);
+    }
+
+    @Benchmark
+    public byte[] clienteResumo() throws Exception {
+        return objectMapper.writeValueAsBytes(clienteResumo);
+    }
+}
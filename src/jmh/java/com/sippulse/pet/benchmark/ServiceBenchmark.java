@@ -0,0 +1,170 @@
+package com.sippulse.pet.benchmark;
+
+import com.sippulse.pet.PetSchedule;
+import com.sippulse.pet.entity.Agendamento;
+import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.entity.Usuario;
+import com.sippulse.pet.entity.UsuarioTipo;
+import com.sippulse.pet.service.AgendamentoService;
+import com.sippulse.pet.service.ClienteService;
+import com.sippulse.pet.service.ImportacaoService;
+import com.sippulse.pet.service.Periodo;
+import com.sippulse.pet.service.PetService;
+import com.sippulse.pet.service.UsuarioService;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import com.sippulse.pet.service.dto.Pagina;
+import com.sippulse.pet.service.dto.PetDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Caminhos de leitura e escrita dos services contra um H2 em memória.
+ *
+ * <p>{@code tamanho} é o número de clientes, pets e agendamentos carregados antes da medição.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int VETERINARIOS = 10;
+
+    private static final int DURACAO_SLOT = 30;
+
+    @Param({"100", "10000"})
+    private int tamanho;
+
+    private ConfigurableApplicationContext context;
+
+    private ClienteService clienteService;
+
+    private PetService petService;
+
+    private AgendamentoService agendamentoService;
+
+    private List<Long> veterinarios;
+
+    private LocalDateTime inicio;
+
+    private final AtomicLong proximoSlot = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(PetSchedule.class)
+            .web(false)
+            .showBanner(false)
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=benchmark",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--pet.agenda.duracao-slot=" + DURACAO_SLOT,
+                "--logging.level.root=WARN");
+        clienteService = context.getBean(ClienteService.class);
+        petService = context.getBean(PetService.class);
+        agendamentoService = context.getBean(AgendamentoService.class);
+        UsuarioService usuarioService = context.getBean(UsuarioService.class);
+        ImportacaoService importacaoService = context.getBean(ImportacaoService.class);
+
+        veterinarios = LongStream.range(0, VETERINARIOS)
+            .mapToObj(i -> usuarioService.save(new Usuario().nome("Veterinario " + i)
+                .usuarioTipo(UsuarioTipo.VETERINARIO).dataCadastro(new Date())).getId())
+            .collect(Collectors.toList());
+        importacaoService.importClientes(LongStream.rangeClosed(1, tamanho).mapToObj(i -> {
+            Cliente cliente = new Cliente().nome("Cliente " + i).email("cliente" + i + "@example.com");
+            cliente.setCpf(String.format("%011d", i));
+            return cliente;
+        }).iterator());
+        importacaoService.importPets(LongStream.rangeClosed(1, tamanho).mapToObj(i -> {
+            Cliente cliente = new Cliente();
+            cliente.setId(i);
+            return new Pet().nome("Pet " + i).especieAnimal("Gato").cliente(cliente);
+        }).iterator());
+
+        inicio = LocalDate.now().atTime(8, 0);
+        for (long i = 0; i < tamanho; i++) {
+            agendamentoService.save(novoAgendamento(i));
+        }
+        proximoSlot.set(tamanho);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Cada agendamento ocupa um horário diferente para não violar as restrições únicas.
+     */
+    private Agendamento novoAgendamento(long sequencia) {
+        Usuario usuario = new Usuario();
+        usuario.setId(veterinarios.get((int) (sequencia % VETERINARIOS)));
+        LocalDateTime data = inicio.plusMinutes(sequencia / VETERINARIOS * DURACAO_SLOT);
+        return new Agendamento().data(Date.from(data.atZone(ZoneId.systemDefault()).toInstant())).usuario(usuario);
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, tamanho + 1);
+    }
+
+    @Benchmark
+    public ClienteDTO clienteFindDTOById() {
+        return clienteService.findDTOById(idAleatorio());
+    }
+
+    @Benchmark
+    public Pagina<ClienteDTO> clienteFindPage() {
+        return clienteService.findPage(null, 50);
+    }
+
+    @Benchmark
+    public PetDTO petFindDTOById() {
+        return petService.findDTOById(idAleatorio());
+    }
+
+    @Benchmark
+    public List<AgendamentoDTO> agendamentoFindByUsuarioAndPeriodo() {
+        Long usuarioId = veterinarios.get(ThreadLocalRandom.current().nextInt(VETERINARIOS));
+        LocalDate de = LocalDate.now();
+        return agendamentoService.findByUsuarioAndPeriodo(usuarioId, new Periodo(de, de.plusDays(6)));
+    }
+
+    @Benchmark
+    public Cliente clienteSave() {
+        return clienteService.save(new Cliente().nome("Novo cliente").email("novo@example.com"));
+    }
+
+    @Benchmark
+    public Agendamento agendamentoSave() {
+        return agendamentoService.save(novoAgendamento(proximoSlot.getAndIncrement()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.sippulse.pet;
+
+import com.sippulse.pet.datasource.LeituraDasEscritas;
+import com.sippulse.pet.datasource.PrazoDasConsultas;
+import com.sippulse.pet.metricas.Medicao;
+import com.sippulse.pet.service.Bulkhead;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Utility class para executar o trabalho de um endpoint em um {@link Bulkhead}, liberando a thread do Tomcat.
+ */
+public final class AsyncUtil {
+
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private AsyncUtil() {
+    }
+
+    /**
+     * Executa a tarefa no bulkhead e entrega a resposta quando ela terminar.
+     *
+     * <p>Se a fila do bulkhead estiver cheia, ou se a tarefa não terminar no tempo do bulkhead, a resposta é
+     * {@code 503 (Service Unavailable)} com {@code Retry-After}; no tempo esgotado a tarefa é cancelada, e os seus
+     * comandos SQL têm um timeout que termina antes dele. Exceções da tarefa seguem o tratamento normal
+     * do Spring MVC.</p>
+     *
+     * @param bulkhead o bulkhead do endpoint.
+     * @param applicationName o nome da aplicação, para os headers de alerta.
+     * @param entityName o nome da entidade, para os headers de alerta.
+     * @param tarefa a tarefa que monta a resposta.
+     * @param <T> o tipo do corpo da resposta.
+     * @return o {@link DeferredResult} a ser retornado pelo controller.
+     */
+    public static <T> DeferredResult<ResponseEntity<T>> executar(Bulkhead bulkhead, String applicationName, String entityName,
+                                                                 Supplier<ResponseEntity<T>> tarefa) {
+        DeferredResult<ResponseEntity<T>> resultado = new DeferredResult<>(bulkhead.getTimeoutMillis());
+        CompletableFuture<ResponseEntity<T>> execucao = bulkhead.submit(
+            PrazoDasConsultas.limitar(LeituraDasEscritas.propagar(Medicao.propagar(tarefa)), bulkhead.getTimeoutMillis()));
+        resultado.onTimeout(() -> {
+            resultado.setResult(sobrecarga(applicationName, entityName));
+            // ninguém espera mais a resposta: a tarefa sai da fila ou a thread é interrompida
+            execucao.cancel(true);
+        });
+        execucao.whenComplete((resposta, erro) -> {
+            if (erro == null) {
+                resultado.setResult(resposta);
+                return;
+            }
+            Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+            if (causa instanceof RejectedExecutionException) {
+                resultado.setResult(sobrecarga(applicationName, entityName));
+            } else {
+                resultado.setErrorResult(causa);
+            }
+        });
+        return resultado;
+    }
+
+    private static <T> ResponseEntity<T> sobrecarga(String applicationName, String entityName) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, entityName, "sobrecarga",
+                "Too many concurrent requests, retry later"))
+            .header(RETRY_AFTER, "1")
+            .body(null);
+    }
+}
@@ -0,0 +1,245 @@
+package com.sippulse.pet;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.sippulse.pet.controller.SmileHttpMessageConverter;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Utility class para GET condicional ({@code ETag}, {@code Last-Modified}) e escrita condicional ({@code If-Match}).
+ *
+ * <p>As ETags são fortes e derivadas das versões das linhas que compõem a representação, de forma que uma
+ * requisição condicional pode ser respondida sem carregar nem serializar a entidade.</p>
+ *
+ * <p>Cada {@code fields} e o Smile são outras representações da mesma revisão e têm a sua ETag; a representação
+ * completa em JSON mantém a ETag da revisão, que é a comparada com o {@code If-Match} das escritas.</p>
+ */
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Gera uma ETag forte a partir das partes que identificam a revisão de uma representação.
+     *
+     * @param partes as partes, em ordem; {@code null} é aceito.
+     * @return a ETag, entre aspas.
+     */
+    public static String etag(Object... partes) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Object parte : partes) {
+            hasher.putString(String.valueOf(parte), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        return "\"" + hasher.hash() + "\"";
+    }
+
+    /**
+     * Gera a ETag de uma lista a partir da revisão de cada item.
+     *
+     * @param itens os itens, na ordem da resposta.
+     * @param revisaoDe função que retorna a revisão de um item, por exemplo id e versão.
+     * @param <T> o tipo dos itens.
+     * @return a ETag, entre aspas.
+     */
+    public static <T> String etag(List<T> itens, Function<T, ?> revisaoDe) {
+        Object[] partes = new Object[itens.size()];
+        for (int i = 0; i < partes.length; i++) {
+            partes[i] = revisaoDe.apply(itens.get(i));
+        }
+        return etag(partes);
+    }
+
+    /**
+     * Gera a ETag de uma página; o próximo cursor entra na ETag porque uma linha nova depois da
+     * última página muda apenas o cursor.
+     *
+     * @param pagina a página.
+     * @param revisaoDe função que retorna a revisão de um item, por exemplo id e versão.
+     * @param <T> o tipo dos itens.
+     * @return a ETag, entre aspas.
+     */
+    public static <T> String etag(Pagina<T> pagina, Function<T, ?> revisaoDe) {
+        return etag(etag(pagina.getItens(), revisaoDe), pagina.getProximoCursor());
+    }
+
+    /**
+     * Gera a ETag da representação com os campos pedidos a partir da ETag da representação completa.
+     *
+     * @param etag a ETag da representação completa.
+     * @param campos os campos pedidos.
+     * @return a própria ETag se todos os campos foram pedidos; caso contrário uma ETag por conjunto de campos.
+     */
+    public static String etag(String etag, Campos campos) {
+        return campos.isTodos() ? etag : etag(etag, campos.normalizado());
+    }
+
+    /**
+     * Decide o formato da resposta pelo {@code Accept}, na ordem dos conversores: o JSON vem antes do Smile e é
+     * escolhido para {@code *}{@code /*}, para {@code application/*} e sem {@code Accept}.
+     *
+     * @param request a requisição.
+     * @return {@code true} se a resposta vai em Smile.
+     */
+    static boolean isSmile(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> aceitos;
+        try {
+            aceitos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(aceitos);
+        for (MediaType aceito : aceitos) {
+            if (aceito.getQualityValue() == 0) {
+                continue;
+            }
+            if (aceito.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (aceito.isCompatibleWith(SmileHttpMessageConverter.SMILE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica {@code If-None-Match} ou, na sua ausência, {@code If-Modified-Since}.
+     *
+     * @param request a requisição.
+     * @param etag a ETag atual.
+     * @param ultimaAlteracao a data da última alteração, ou {@code null} se desconhecida.
+     * @return {@code true} se o cliente já tem a representação atual e a resposta deve ser {@code 304 (Not Modified)}.
+     */
+    public static boolean isNotModified(HttpServletRequest request, String etag, Date ultimaAlteracao) {
+        Enumeration<String> ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            for (String valor : Collections.list(ifNoneMatch)) {
+                if (matches(valor, etag, true)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ultimaAlteracao == null) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // as datas HTTP têm precisão de segundos
+        return ifModifiedSince >= 0 && ultimaAlteracao.getTime() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Verifica o header {@code If-Match} com comparação forte.
+     *
+     * @param ifMatch o valor do header.
+     * @param etag a ETag atual.
+     * @return {@code true} se o header contém a ETag atual ou {@code *}.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        return matches(ifMatch, etag, false);
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        for (String candidata : header.split(",")) {
+            String valor = candidata.trim();
+            if ("*".equals(valor)) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param etag a ETag atual.
+     * @param ultimaAlteracao a data da última alteração, ou {@code null} se desconhecida.
+     * @return os headers {@code ETag}, {@code Last-Modified} e {@code Cache-Control} da resposta.
+     */
+    public static HttpHeaders createValidatorHeaders(String etag, Date ultimaAlteracao) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        if (ultimaAlteracao != null) {
+            headers.setLastModified(ultimaAlteracao.getTime());
+        }
+        // o cliente pode guardar a resposta, mas deve revalidá-la a cada uso
+        headers.setCacheControl("no-cache");
+        return headers;
+    }
+
+    /**
+     * Responde {@code 304 (Not Modified)} se o cliente já tem a representação atual; caso contrário carrega o corpo
+     * e responde {@code 200 (OK)}, ou {@code 404 (Not Found)} se o corpo for {@code null}.
+     *
+     * @param request a requisição.
+     * @param etag a ETag atual.
+     * @param ultimaAlteracao a data da última alteração, ou {@code null} se desconhecida.
+     * @param corpo carrega o corpo da resposta, chamado apenas quando a representação precisa ser enviada.
+     * @param <T> o tipo do corpo.
+     * @return a resposta com os headers de validação.
+     */
+    public static <T> ResponseEntity<T> conditionalResponse(HttpServletRequest request, String etag,
+                                                            Date ultimaAlteracao, Supplier<T> corpo) {
+        return conditionalResponse(request, etag, Campos.TODOS, ultimaAlteracao, corpo);
+    }
+
+    /**
+     * Como {@link #conditionalResponse(HttpServletRequest, String, Date, Supplier)}, para uma representação com
+     * apenas os campos pedidos. A ETag enviada também depende do formato negociado pelo {@code Accept}.
+     *
+     * @param request a requisição.
+     * @param etag a ETag da representação completa.
+     * @param campos os campos pedidos.
+     * @param ultimaAlteracao a data da última alteração, ou {@code null} se desconhecida.
+     * @param corpo carrega o corpo da resposta, chamado apenas quando a representação precisa ser enviada.
+     * @param <T> o tipo do corpo.
+     * @return a resposta com os headers de validação.
+     */
+    public static <T> ResponseEntity<T> conditionalResponse(HttpServletRequest request, String etag, Campos campos,
+                                                            Date ultimaAlteracao, Supplier<T> corpo) {
+        String representacao = etag(etag, campos);
+        if (isSmile(request)) {
+            representacao = etag(representacao, SmileHttpMessageConverter.SMILE_VALUE);
+        }
+        HttpHeaders headers = createValidatorHeaders(representacao, ultimaAlteracao);
+        if (isNotModified(request, representacao, ultimaAlteracao)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        T body = corpo.get();
+        if (body == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
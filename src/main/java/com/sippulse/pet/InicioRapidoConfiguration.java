@@ -0,0 +1,31 @@
+package com.sippulse.pet;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuração do profile {@code inicio-rapido}, para subir os nós mais depressa em um rolling restart.
+ *
+ * <p>Os beans passam a ser criados no primeiro uso, e não na subida. Continuam sendo criados na subida os que o
+ * próprio Spring busca nela, como os post processors, os filtros e os listeners de eventos, e as suas
+ * dependências. As propriedades do profile, em {@code application-inicio-rapido.properties}, desligam a leitura e
+ * a validação do esquema.</p>
+ */
+@Configuration
+@Profile("inicio-rapido")
+public class InicioRapidoConfiguration {
+
+    /**
+     * Marca todos os beans como lazy; é estático para rodar antes que qualquer bean seja criado.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor inicializacaoTardia() {
+        return beanFactory -> {
+            for (String nome : beanFactory.getBeanDefinitionNames()) {
+                beanFactory.getBeanDefinition(nome).setLazyInit(true);
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.sippulse.pet;
+
+import com.sippulse.pet.service.dto.Pagina;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class para paginação keyset com cursores opacos.
+ *
+ * <p>O cursor codifica a chave de ordenação do último item retornado
+ * ({@code data} e {@code id}, ou apenas {@code id}) de forma que a próxima
+ * página seja lida a partir do índice, sem OFFSET.</p>
+ */
+public final class PaginationUtil {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SEM_DATA = "n";
+
+    private PaginationUtil() {
+    }
+
+    /**
+     * Limita o tamanho de página pedido ao intervalo {@code [1, MAX_PAGE_SIZE]}.
+     *
+     * @param size o tamanho pedido, ou {@code null}.
+     * @return o tamanho efetivo da página.
+     */
+    public static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Pede um item além do tamanho da página para saber se existe próxima página.
+     *
+     * @param size o tamanho efetivo da página.
+     * @return o {@link Pageable} a ser passado ao repository.
+     */
+    public static Pageable limit(int size) {
+        return new PageRequest(0, size + 1);
+    }
+
+    /**
+     * Monta a {@link Pagina} a partir das linhas lidas com {@link #limit(int)}.
+     *
+     * @param rows as linhas lidas, no máximo {@code size + 1}.
+     * @param size o tamanho efetivo da página.
+     * @param cursorOf função que gera o cursor de um item.
+     * @param <T> o tipo dos itens.
+     * @return a página, com o próximo cursor quando houver mais itens.
+     */
+    public static <T> Pagina<T> page(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new Pagina<>(rows, null);
+        }
+        List<T> itens = new ArrayList<>(rows.subList(0, size));
+        return new Pagina<>(itens, cursorOf.apply(itens.get(size - 1)));
+    }
+
+    /**
+     * <p>encodeCursor.</p>
+     *
+     * @param id o id do último item.
+     * @return o cursor opaco.
+     */
+    public static String encodeCursor(Long id) {
+        return encode(SEM_DATA + ":" + id);
+    }
+
+    /**
+     * <p>encodeCursor.</p>
+     *
+     * @param data a data do último item, pode ser {@code null}.
+     * @param id o id do último item.
+     * @return o cursor opaco.
+     */
+    public static String encodeCursor(Date data, Long id) {
+        return encode((data == null ? SEM_DATA : Long.toString(data.getTime())) + ":" + id);
+    }
+
+    /**
+     * Decodifica um cursor gerado por {@code encodeCursor}.
+     *
+     * @param cursor o cursor opaco, ou {@code null} para a primeira página.
+     * @return a posição decodificada, ou {@code null} para a primeira página.
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    public static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separador = valor.indexOf(':');
+        if (separador < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            String data = valor.substring(0, separador);
+            Long id = Long.valueOf(valor.substring(separador + 1));
+            return new Cursor(SEM_DATA.equals(data) ? null : new Date(Long.parseLong(data)), id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static String encode(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Posição decodificada de um cursor.
+     */
+    public static final class Cursor {
+
+        private final Date data;
+
+        private final Long id;
+
+        public Cursor(Date data, Long id) {
+            this.data = data;
+            this.id = id;
+        }
+
+        public Date getData() {
+            return data;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -1,9 +1,27 @@
 package com.sippulse.pet;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.orm.jpa.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+/**
+ * Aplicação Pet Schedule.
+ *
+ * <p>O scan de componentes, de entidades e de repositórios percorre só os pacotes que os contêm, e não todo o
+ * {@code com.sippulse.pet}, que também tem as classes utilitárias e, no classpath dos benchmarks, as classes
+ * geradas pelo JMH.</p>
+ */
+@Configuration
+@EnableAutoConfiguration
+@ComponentScan(basePackages = {"com.sippulse.pet.controller", "com.sippulse.pet.datasource",
+    "com.sippulse.pet.metricas", "com.sippulse.pet.service"})
+@EntityScan(basePackages = "com.sippulse.pet.entity")
+@EnableJpaRepositories(basePackages = "com.sippulse.pet.repository")
+@Import(InicioRapidoConfiguration.class)
 public class PetSchedule {
     public static void main(String[] args) {
         SpringApplication.run(PetSchedule.class, args);
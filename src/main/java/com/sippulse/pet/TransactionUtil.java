@@ -0,0 +1,34 @@
+package com.sippulse.pet;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class para ações que dependem do resultado da transação corrente.
+ */
+public final class TransactionUtil {
+
+    private TransactionUtil() {
+    }
+
+    /**
+     * Executa a ação depois do commit da transação corrente, ou imediatamente se não houver transação.
+     *
+     * <p>Usado para invalidar caches e índices em memória somente quando a escrita já está
+     * visível para outras transações; em caso de rollback a ação não é executada.</p>
+     *
+     * @param action a ação a executar.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
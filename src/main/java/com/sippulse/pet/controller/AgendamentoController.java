@@ -1,17 +1,50 @@
 package com.sippulse.pet.controller;
 
 import com.sippulse.pet.entity.Agendamento;
+import com.sippulse.pet.service.AgendamentoExportService;
 import com.sippulse.pet.service.AgendamentoService;
+import com.sippulse.pet.service.Bulkhead;
+import com.sippulse.pet.service.BulkheadRegistry;
+import com.sippulse.pet.service.HorarioIndisponivelException;
+import com.sippulse.pet.service.OcupacaoAgendaService;
+import com.sippulse.pet.service.Periodo;
+import com.sippulse.pet.service.Revisao;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Lote;
+import com.sippulse.pet.service.dto.OcupacaoDTO;
+import com.sippulse.pet.service.dto.OperacaoAgendaDTO;
+import com.sippulse.pet.service.dto.Pagina;
+import com.sippulse.pet.service.dto.ResultadoOperacaoDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.sippulse.pet.AsyncUtil;
+import com.sippulse.pet.ETagUtil;
 import com.sippulse.pet.HeaderUtil;
+import com.sippulse.pet.PaginationUtil;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller para cadastrar, pesquisar e atualizar agendamentos de
@@ -27,12 +60,45 @@ public class AgendamentoController {
 
     private static final String ENTITY_NAME = "agendamento";
 
+    private static final int MAX_PERIODO_DIAS = 366;
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Value("${pet.bulkhead.agendamentos.threads:10}")
+    private int bulkheadThreads;
+
+    @Value("${pet.bulkhead.agendamentos.fila:50}")
+    private int bulkheadFila;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    private Bulkhead bulkhead;
+
+    /**
+     * Uma reconstrução da ocupação executando e, no máximo, outra esperando por ela.
+     */
+    private Bulkhead reconstrucaoOcupacao;
+
     @Autowired
     private final AgendamentoService agendamentoService;
     
+    private final AgendamentoExportService agendamentoExportService;
+
+    private final OcupacaoAgendaService ocupacaoAgendaService;
+
     @Autowired
-    public AgendamentoController(AgendamentoService agendamentoService) {
+    public AgendamentoController(AgendamentoService agendamentoService, AgendamentoExportService agendamentoExportService,
+                                 OcupacaoAgendaService ocupacaoAgendaService) {
         this.agendamentoService = agendamentoService;
+        this.agendamentoExportService = agendamentoExportService;
+        this.ocupacaoAgendaService = ocupacaoAgendaService;
+    }
+
+    @PostConstruct
+    public void init() {
+        bulkhead = bulkheadRegistry.criar("agendamentos", bulkheadThreads, bulkheadFila);
+        reconstrucaoOcupacao = bulkheadRegistry.criar("ocupacao-reconstrucao", 1, 1);
     }
 
 
@@ -41,13 +107,19 @@ public class AgendamentoController {
      *
      * @param agendamento para criar agendamento.
      * @return the {@link ResponseEntity} com status {@code 201 (Created)} e com os dados do novo agendamento,
-     * ou status {@code 400 (Bad Request)} se agendamento com este ID já existir.
+     * ou status {@code 400 (Bad Request)} se agendamento com este ID já existir,
+     * ou status {@code 409 (Conflict)} se o veterinário ou o pet já tiver agendamento no mesmo horário.
      * @throws URISyntaxException se URI syntax estiver incorreta.
      */
     @RequestMapping(value ="/agendamentos", method = RequestMethod.POST)
     public ResponseEntity<Agendamento> createAgendamento(@RequestBody Agendamento agendamento) throws URISyntaxException {
         log.debug("REST request to save Agendamento : {}", agendamento);
-        Agendamento result = agendamentoService.save(agendamento);
+        Agendamento result;
+        try {
+            result = agendamentoService.save(agendamento);
+        } catch (HorarioIndisponivelException e) {
+            return horarioIndisponivel(e);
+        }
         return ResponseEntity.created(new URI("/api/agendamentos/" + result.getId()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, agendamento.getId().toString()))
                 .body(result);
@@ -57,42 +129,359 @@ public class AgendamentoController {
      * {@code PUT  /agendamentos} : Atualiza um agendamento existente.
      *
      * @param agendamento para atualizar agendamento.
+     * @param ifMatch a ETag do agendamento lida pelo cliente; se presente, a atualização só é feita sobre essa versão.
      * @return {@link ResponseEntity} com status {@code 200 (OK)} e com os dados do novo agendamento,
      * ou status {@code 400 (Bad Request)} se o agendamento não for válido,
+     * ou status {@code 409 (Conflict)} se o veterinário ou o pet já tiver agendamento no mesmo horário,
+     * ou status {@code 412 (Precondition Failed)} se o agendamento tiver sido alterado desde a versão do {@code If-Match},
      * ou status {@code 500 (Internal Server Error)} se a atualização do agendamento não for possível.
      * @throws URISyntaxException se URI syntax estiver incorreta.
      */
     @RequestMapping(value="/agendamentos", method = RequestMethod.PUT)
-    public ResponseEntity<Agendamento> updateAgendamento(@RequestBody Agendamento agendamento) throws URISyntaxException {
+    public ResponseEntity<Agendamento> updateAgendamento(@RequestBody Agendamento agendamento,
+                                                         @RequestHeader(value = "If-Match", required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Agendamento : {}", agendamento);
-        Agendamento result = agendamentoService.save(agendamento);
+        if (ifMatch != null) {
+            Revisao revisao = agendamentoService.findRevisao(agendamento.getId());
+            if (revisao == null || !ETagUtil.matches(ifMatch, revisao.getEtag())) {
+                return versaoDesatualizada();
+            }
+            agendamento.setVersao(revisao.getVersao());
+        }
+        Agendamento result;
+        try {
+            result = agendamentoService.save(agendamento);
+        } catch (HorarioIndisponivelException e) {
+            return horarioIndisponivel(e);
+        } catch (OptimisticLockingFailureException e) {
+            return versaoDesatualizada();
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, agendamento.getId().toString()))
             .body(result);
     }
 
     /**
-     * {@code GET  /agendamentos} : retorna todos agendamentos.
+     * {@code POST  /agendamentos/lote} : desloca, reatribui ou cancela, em uma única transação, todos os agendamentos
+     * de um veterinário entre duas datas ({@code yyyy-MM-dd}, inclusivas), como quando o veterinário falta.
+     *
+     * <p>{@code DESLOCAR} move os agendamentos {@code minutos} para frente, ou para trás se negativo, em múltiplos da
+     * duração do horário; {@code REATRIBUIR} passa os agendamentos para o veterinário {@code novoUsuarioId};
+     * {@code CANCELAR} remove os agendamentos. Se algum agendamento não couber no novo horário, nenhum é alterado.</p>
+     *
+     * @param operacao a operação, o veterinário e o período.
+     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e o número e os ids dos agendamentos afetados no corpo da resposta,
+     * ou status {@code 400 (Bad Request)} se o período for inválido ou maior que {@value #MAX_PERIODO_DIAS} dias,
+     * ou se a operação ou os seus parâmetros forem inválidos,
+     * ou status {@code 409 (Conflict)} se o veterinário ou algum pet já tiver agendamento em um dos novos horários.
+     */
+    @RequestMapping(value = "/agendamentos/lote", method = RequestMethod.POST)
+    public ResponseEntity<ResultadoOperacaoDTO> executarOperacao(@RequestBody OperacaoAgendaDTO operacao) {
+        log.debug("REST request to run an operation on Agendamentos : {}", operacao);
+        Periodo periodo = periodo(operacao.getDe(), operacao.getAte());
+        if (periodo == null) {
+            return ResponseEntity.badRequest()
+                .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "periodoinvalido", "Invalid period"))
+                .body(null);
+        }
+        if (operacao.getOperacao() == null || operacao.getUsuarioId() == null) {
+            return operacaoInvalida("operacao and usuarioId are required");
+        }
+        List<Long> ids;
+        try {
+            switch (operacao.getOperacao()) {
+                case DESLOCAR:
+                    ids = agendamentoService.deslocar(operacao.getUsuarioId(), periodo,
+                        operacao.getMinutos() == null ? 0 : operacao.getMinutos());
+                    break;
+                case REATRIBUIR:
+                    ids = agendamentoService.reatribuir(operacao.getUsuarioId(), periodo, operacao.getNovoUsuarioId());
+                    break;
+                default:
+                    ids = agendamentoService.cancelar(operacao.getUsuarioId(), periodo);
+            }
+        } catch (IllegalArgumentException e) {
+            return operacaoInvalida(e.getMessage());
+        } catch (HorarioIndisponivelException e) {
+            return horarioIndisponivel(e);
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createAlert(applicationName,
+                operacao.getOperacao() + " applied to " + ids.size() + " " + ENTITY_NAME + "s", operacao.getOperacao().name()))
+            .body(new ResultadoOperacaoDTO(operacao.getOperacao(), ids));
+    }
+
+    // o período inclusivo entre as datas, ou null se alguma faltar ou não for válida
+    private static Periodo periodo(String de, String ate) {
+        if (de == null || ate == null) {
+            return null;
+        }
+        try {
+            Periodo periodo = new Periodo(LocalDate.parse(de), LocalDate.parse(ate));
+            return periodo.getDias() > MAX_PERIODO_DIAS ? null : periodo;
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private <T> ResponseEntity<T> operacaoInvalida(String message) {
+        return ResponseEntity.badRequest()
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "operacaoinvalida", message))
+            .body(null);
+    }
+
+    private <T> ResponseEntity<T> horarioIndisponivel(HorarioIndisponivelException e) {
+        log.debug("Slot already booked for {}", e.getRecurso());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "horarioindisponivel",
+                "Slot already booked for " + e.getRecurso()))
+            .body(null);
+    }
+
+    private ResponseEntity<Agendamento> versaoDesatualizada() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "versaodesatualizada",
+                "Entity was modified by another request"))
+            .body(null);
+    }
+
+    private <T> ResponseEntity<T> camposInvalidos(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "camposinvalidos", e.getMessage()))
+            .body(null);
+    }
+
+    private static String revisaoDe(OcupacaoDTO ocupacao) {
+        return ocupacao.getUsuarioId() + ":" + ocupacao.getDia() + ":" + ocupacao.getAgendamentos() + ":"
+            + ocupacao.getHorarios() + ":" + ocupacao.getUsuarioNome();
+    }
+
+    /**
+     * {@code GET  /agendamentos} : retorna uma página de agendamentos, ordenada por data e id.
+     *
+     * @param cursor o cursor opaco retornado na página anterior, ou vazio para a primeira página.
+     * @param size o tamanho da página, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada agendamento, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a página de agendamentos no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o cursor for inválido ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/agendamentos", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<Pagina<AgendamentoDTO>>> getAllAgendamentos(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                                     @RequestParam(value = "size", required = false) Integer size,
+                                                                                     @RequestParam(value = "fields", required = false) String fields,
+                                                                                     HttpServletRequest request) {
+        log.debug("REST request to get a page of Agendamentos after : {}", cursor);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            PaginationUtil.Cursor posicao;
+            try {
+                posicao = PaginationUtil.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "cursorinvalido", "Invalid cursor"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, AgendamentoDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Pagina<AgendamentoDTO> pagina = agendamentoService.findPage(posicao, PaginationUtil.pageSize(size), campos);
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(pagina, AgendamentoDTO::revisaoDe), campos, null,
+                () -> pagina);
+        });
+    }
+
+    /**
+     * {@code GET  /agendamentos?ids=:ids} : retorna os agendamentos dos ids pedidos, separados por vírgula, lidos em uma única
+     * consulta. Os ids têm precedência sobre a agenda do veterinário: com os dois, {@code usuarioId}, {@code de} e
+     * {@code ate} são ignorados.
+     *
+     * @param ids os ids dos agendamentos, no máximo {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada agendamento, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e o lote no corpo da resposta,
+     * na ordem dos ids pedidos, com {@code null} na posição e o id em {@code naoEncontrados} para cada id que não existir,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se houver ids demais ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/agendamentos", method = RequestMethod.GET, params = "ids")
+    public DeferredResult<ResponseEntity<Lote<AgendamentoDTO>>> getAgendamentosByIds(@RequestParam("ids") List<Long> ids,
+                                                                                     @RequestParam(value = "fields", required = false) String fields,
+                                                                                     HttpServletRequest request) {
+        log.debug("REST request to get Agendamentos : {}", ids);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ids.size() > PaginationUtil.MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "idsdemais", "Too many ids"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, AgendamentoDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            // um único IN, sem repetir os ids repetidos no pedido
+            Lote<AgendamentoDTO> lote = Lote.of(ids, ids.isEmpty()
+                ? Collections.emptyMap() : agendamentoService.findDTOsByIds(new LinkedHashSet<>(ids), campos));
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(lote.getItens(),
+                agendamento -> agendamento == null ? null : AgendamentoDTO.revisaoDe(agendamento)), campos, null,
+                () -> lote);
+        });
+    }
+
+    /**
+     * {@code GET  /agendamentos?usuarioId=:usuarioId&de=:de&ate=:ate} : retorna a agenda de um veterinário
+     * entre duas datas ({@code yyyy-MM-dd}, inclusivas), ordenada por data.
+     *
+     * @param usuarioId o id do veterinário.
+     * @param de o primeiro dia da consulta.
+     * @param ate o último dia da consulta.
+     * @param fields os campos de cada agendamento, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a lista de agendamentos no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o período for inválido ou maior que {@value #MAX_PERIODO_DIAS} dias,
+     * ou se algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/agendamentos", method = RequestMethod.GET, params = {"usuarioId", "!ids"})
+    public DeferredResult<ResponseEntity<List<AgendamentoDTO>>> getAgendamentosByUsuario(@RequestParam("usuarioId") Long usuarioId,
+                                                                                         @RequestParam("de") @DateTimeFormat(iso = ISO.DATE) LocalDate de,
+                                                                                         @RequestParam("ate") @DateTimeFormat(iso = ISO.DATE) LocalDate ate,
+                                                                                         @RequestParam(value = "fields", required = false) String fields,
+                                                                                         HttpServletRequest request) {
+        log.debug("REST request to get Agendamentos of Usuario {} from {} to {}", usuarioId, de, ate);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ate.isBefore(de) || ChronoUnit.DAYS.between(de, ate) >= MAX_PERIODO_DIAS) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "periodoinvalido", "Invalid period"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, AgendamentoDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            List<AgendamentoDTO> agenda = agendamentoService.findByUsuarioAndPeriodo(usuarioId, new Periodo(de, ate), campos);
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(agenda, AgendamentoDTO::revisaoDe), campos, null,
+                () -> agenda);
+        });
+    }
+
+    /**
+     * {@code GET  /agendamentos/ocupacao?de=:de&ate=:ate} : retorna, para cada veterinário e dia entre duas datas
+     * ({@code yyyy-MM-dd}, inclusivas) que tenha agendamentos, o número de agendamentos e a ocupação do expediente,
+     * ordenados por dia e veterinário.
+     *
+     * @param usuarioId o id do veterinário, ou vazio para todos.
+     * @param de o primeiro dia da consulta.
+     * @param ate o último dia da consulta.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a ocupação no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o período for inválido ou maior que {@value #MAX_PERIODO_DIAS} dias,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/agendamentos/ocupacao", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<List<OcupacaoDTO>>> getOcupacao(@RequestParam(value = "usuarioId", required = false) Long usuarioId,
+                                                                         @RequestParam("de") @DateTimeFormat(iso = ISO.DATE) LocalDate de,
+                                                                         @RequestParam("ate") @DateTimeFormat(iso = ISO.DATE) LocalDate ate,
+                                                                         HttpServletRequest request) {
+        log.debug("REST request to get the agenda occupancy of Usuario {} from {} to {}", usuarioId, de, ate);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ate.isBefore(de) || ChronoUnit.DAYS.between(de, ate) >= MAX_PERIODO_DIAS) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "periodoinvalido", "Invalid period"))
+                    .body(null);
+            }
+            List<OcupacaoDTO> ocupacao = ocupacaoAgendaService.findByPeriodo(usuarioId, new Periodo(de, ate));
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(ocupacao, AgendamentoController::revisaoDe), null,
+                () -> ocupacao);
+        });
+    }
+
+    /**
+     * {@code POST  /agendamentos/ocupacao/reconstrucao} : recalcula a ocupação da agenda a partir dos agendamentos,
+     * para reparar o resumo se ele divergir.
+     *
+     * <p>A reconstrução roda em segundo plano, uma por vez, porque lê todos os agendamentos e segura as escritas
+     * deles até terminar; o resultado vai para o log.</p>
+     *
+     * @return o {@link ResponseEntity} com status {@code 202 (Accepted)},
+     * ou com status {@code 409 (Conflict)} se já houver uma reconstrução em andamento e outra esperando por ela.
+     */
+    @RequestMapping(value = "/agendamentos/ocupacao/reconstrucao", method = RequestMethod.POST)
+    public ResponseEntity<Void> reconstruirOcupacao() {
+        log.debug("REST request to rebuild the agenda occupancy");
+        CompletableFuture<Integer> reconstrucao = reconstrucaoOcupacao.submit(ocupacaoAgendaService::reconstruir);
+        if (reconstrucao.isCompletedExceptionally()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "reconstrucaoemandamento",
+                    "An agenda occupancy rebuild is already running"))
+                .build();
+        }
+        reconstrucao.whenComplete((linhas, erro) -> {
+            if (erro != null) {
+                log.error("Could not rebuild the agenda occupancy summary", erro);
+            }
+        });
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+
+    /**
+     * {@code GET  /agendamentos/export} : exporta todos os agendamentos em JSON delimitado por linha
+     * ({@code application/x-ndjson}), um agendamento por linha, ordenados por id.
+     *
+     * <p>A resposta é escrita à medida que as linhas são lidas do banco.</p>
      *
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} com a listade agendamentos no corpo da resposta.
+     * @param response a resposta onde os agendamentos são escritos.
+     * @throws IOException se a escrita da resposta falhar.
      */
-    @RequestMapping(value="/agendamentos", method = RequestMethod.GET)
-    public List<Agendamento> getAllAgendamentos() {
-        log.debug("REST request to get all Agendamentos");
-        return agendamentoService.findAll();
+    @RequestMapping(value = "/agendamentos/export", method = RequestMethod.GET)
+    public void exportAgendamentos(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Agendamentos");
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        agendamentoExportService.export(response.getOutputStream());
     }
 
     /**
      * {@code GET  /agendamentos/:id} : retorna um agendamento pelo id.
      *
      * @param id o id do agendamento requerido.
-     * @return  {@link ResponseEntity} com status {@code 200 (OK)} com os dados do agendamento, ou status {@code 404 (Not Found)}.
+     * @param fields os campos do agendamento, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com os headers {@code If-None-Match} ou {@code If-Modified-Since}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} com os dados do agendamento,
+     * ou status {@code 304 (Not Modified)} se a representação do cliente ainda for atual, ou status {@code 404 (Not Found)},
+     * ou com status {@code 400 (Bad Request)} se algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping(value="/agendamentos/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Agendamento> getAgendamento(@PathVariable Long id) {
+    public DeferredResult<ResponseEntity<AgendamentoDTO>> getAgendamento(@PathVariable Long id,
+                                                                        @RequestParam(value = "fields", required = false) String fields,
+                                                                        HttpServletRequest request) {
         log.debug("REST request to get Agendamento : {}", id);
-        Agendamento agendamento = agendamentoService.findOneById(id);
-        return ResponseEntity.ok(agendamento);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, AgendamentoDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Revisao revisao = agendamentoService.findRevisao(id);
+            if (revisao == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ETagUtil.conditionalResponse(request, revisao.getEtag(), campos, revisao.getUltimaAlteracao(),
+                () -> agendamentoService.findDTOById(id, campos));
+        });
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.sippulse.pet.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Aquecimento da instância: quando o container sobe, faz {@code pet.aquecimento.requisicoes} requisições
+ * {@code GET} a cada caminho de {@code pet.aquecimento.caminhos} e só então marca a instância como pronta.
+ *
+ * <p>As requisições passam por toda a pilha, do Tomcat ao banco: carregam as classes, os beans criados no
+ * primeiro uso, as conexões do pool e os caches antes que o balanceador, que consulta {@code GET /api/pronto},
+ * envie tráfego à instância. Com {@code 0}, o padrão, a instância fica pronta assim que o container sobe.</p>
+ */
+@Component
+public class Aquecimento implements ApplicationListener<EmbeddedServletContainerInitializedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(Aquecimento.class);
+
+    private static final int TIMEOUT_MILLIS = 10000;
+
+    @Value("${pet.aquecimento.requisicoes:0}")
+    private int requisicoes;
+
+    @Value("${pet.aquecimento.caminhos:/api/usuarios,/api/pets,/api/clientes,/api/agendamentos}")
+    private String[] caminhos;
+
+    private volatile boolean pronto;
+
+    @Override
+    public void onApplicationEvent(EmbeddedServletContainerInitializedEvent event) {
+        if (requisicoes > 0) {
+            aquecer(event.getEmbeddedServletContainer().getPort());
+        }
+        pronto = true;
+    }
+
+    /**
+     * @return {@code true} depois do aquecimento, mesmo que alguma requisição dele tenha falhado.
+     */
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    private void aquecer(int porta) {
+        long inicio = System.currentTimeMillis();
+        int falhas = 0;
+        for (int i = 0; i < requisicoes; i++) {
+            for (String caminho : caminhos) {
+                if (!get(porta, caminho.trim())) {
+                    falhas++;
+                }
+            }
+        }
+        if (falhas > 0) {
+            log.warn("{} of {} warm-up requests failed", falhas, requisicoes * caminhos.length);
+        }
+        log.info("Warmed up with {} requests in {} ms", requisicoes * caminhos.length,
+            System.currentTimeMillis() - inicio);
+    }
+
+    private boolean get(int porta, String caminho) {
+        try {
+            HttpURLConnection conexao = (HttpURLConnection) new URL("http", "localhost", porta, caminho).openConnection();
+            conexao.setConnectTimeout(TIMEOUT_MILLIS);
+            conexao.setReadTimeout(TIMEOUT_MILLIS);
+            int status = conexao.getResponseCode();
+            // o corpo é lido até o fim para que a conexão volte ao keep-alive
+            try (InputStream corpo = status < 400 ? conexao.getInputStream() : conexao.getErrorStream()) {
+                if (corpo != null) {
+                    byte[] buffer = new byte[8192];
+                    while (corpo.read(buffer) >= 0) {
+                        // descarta
+                    }
+                }
+            }
+            return status < 400;
+        } catch (IOException e) {
+            log.debug("Warm-up request to {} failed: {}", caminho, e.getMessage());
+            return false;
+        }
+    }
+}
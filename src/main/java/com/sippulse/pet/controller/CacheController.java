@@ -0,0 +1,41 @@
+package com.sippulse.pet.controller;
+
+import com.sippulse.pet.service.CacheRegistry;
+import com.sippulse.pet.service.dto.CacheEstatisticasDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller para consultar as estatísticas dos caches em memória.
+ */
+@RestController
+@RequestMapping("/api")
+public class CacheController {
+
+    private final Logger log = LoggerFactory.getLogger(CacheController.class);
+
+    private final CacheRegistry cacheRegistry;
+
+    @Autowired
+    public CacheController(CacheRegistry cacheRegistry) {
+        this.cacheRegistry = cacheRegistry;
+    }
+
+    /**
+     * {@code GET  /caches} : retorna tamanho, hits, misses e evictions de cada cache.
+     *
+     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e as estatísticas pelo nome do cache no corpo da resposta.
+     */
+    @RequestMapping(value = "/caches", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, CacheEstatisticasDTO>> getCaches() {
+        log.debug("REST request to get cache statistics");
+        return ResponseEntity.ok(cacheRegistry.estatisticas());
+    }
+}
@@ -0,0 +1,60 @@
+package com.sippulse.pet.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Parcial;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Módulo do Jackson que escreve apenas os campos pedidos dos read models {@link Parcial}.
+ *
+ * <p>É registrado no {@link com.fasterxml.jackson.databind.ObjectMapper} da aplicação, e com ele no conversor
+ * Smile; um read model com {@link Campos#TODOS} é serializado como antes.</p>
+ */
+@Component
+public class CamposModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public CamposModule() {
+        super("CamposModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                if (!Parcial.class.isAssignableFrom(beanDesc.getBeanClass())) {
+                    return beanProperties;
+                }
+                List<BeanPropertyWriter> writers = new ArrayList<>(beanProperties.size());
+                for (BeanPropertyWriter writer : beanProperties) {
+                    writers.add(new CampoWriter(writer));
+                }
+                return writers;
+            }
+        });
+    }
+
+    private static final class CampoWriter extends BeanPropertyWriter {
+
+        private CampoWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            Campos campos = ((Parcial) bean).getCampos();
+            if (campos == null || campos.contem(getName())) {
+                super.serializeAsField(bean, gen, prov);
+            }
+        }
+    }
+}
@@ -1,17 +1,44 @@
 package com.sippulse.pet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sippulse.pet.AsyncUtil;
+import com.sippulse.pet.ETagUtil;
 import com.sippulse.pet.HeaderUtil;
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.service.Bulkhead;
+import com.sippulse.pet.service.BulkheadRegistry;
+import com.sippulse.pet.service.AgendamentoService;
 import com.sippulse.pet.service.ClienteService;
+import com.sippulse.pet.service.ImportacaoService;
+import com.sippulse.pet.service.PetService;
+import com.sippulse.pet.service.Revisao;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Lote;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import com.sippulse.pet.service.dto.ClienteResumoDTO;
+import com.sippulse.pet.service.dto.ImportacaoDTO;
+import com.sippulse.pet.service.dto.Pagina;
+import com.sippulse.pet.service.dto.PetDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -25,9 +52,34 @@ public class ClienteController {
 
     private static final String ENTITY_NAME = "cliente";
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Value("Pet")
     private String applicationName;
 
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private PetService petService;
+
+    @Value("${pet.bulkhead.clientes.threads:10}")
+    private int bulkheadThreads;
+
+    @Value("${pet.bulkhead.clientes.fila:50}")
+    private int bulkheadFila;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    private Bulkhead bulkhead;
+
     @Autowired
     private final ClienteService clienteService;
 
@@ -36,6 +88,11 @@ public class ClienteController {
         this.clienteService = clienteService;
     }
 
+    @PostConstruct
+    public void init() {
+        bulkhead = bulkheadRegistry.criar("clientes", bulkheadThreads, bulkheadFila);
+    }
+
     /**
      * {@code POST  /clientes} : Cria novo cliente.
      *
@@ -56,50 +113,372 @@ public class ClienteController {
             .body(result);
     }
 
+    /**
+     * {@code POST  /clientes/bulk} : Importa clientes em lote.
+     * <p>
+     * O corpo pode ser um array JSON ou um stream NDJSON (um cliente por linha) e é lido sob demanda, sem
+     * carregar a carga inteira em memória. Linhas inválidas não interrompem a importação: os erros são
+     * retornados por linha no resumo.
+     *
+     * @param request a requisição com clientes no corpo.
+     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e o resumo da importação no corpo da resposta.
+     * @throws IOException se o corpo da requisição não puder ser lido.
+     */
+    @RequestMapping(value = "/clientes/bulk", method = RequestMethod.POST,
+        consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<ImportacaoDTO> importClientes(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import Clientes");
+        ImportacaoDTO result = importacaoService.importClientes(
+            objectMapper.reader(Cliente.class).<Cliente>readValues(request.getInputStream()));
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * {@code PUT  /clientes} : Atualiza um cliente existente.
      *
      * @param cliente o cliente que será atualizado.
+     * @param ifMatch a ETag do cliente lida pelo cliente; se presente, a atualização só é feita sobre essa versão.
      * @return the {@link ResponseEntity} com status {@code 200 (OK)} e com os dados atualizados do cliente,
      * ou status {@code 400 (Bad Request)} se o cliente for inválido,
+     * ou status {@code 412 (Precondition Failed)} se o cliente tiver sido alterado desde a versão do {@code If-Match},
      * ou status {@code 500 (Internal Server Error)} se o cliente não puder ser atualizado.
      * @throws URISyntaxException se a syntax URI estiver incorreta.
      */
     @RequestMapping(value = "/clientes", method = RequestMethod.PUT)
-    public ResponseEntity<Cliente> updateCliente(@RequestBody Cliente cliente) throws URISyntaxException {
+    public ResponseEntity<Cliente> updateCliente(@RequestBody Cliente cliente,
+                                                 @RequestHeader(value = "If-Match", required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Cliente : {}", cliente);
         if (cliente.getId() == null) {
             ResponseEntity.badRequest().build();
         }
-        Cliente result = clienteService.save(cliente);
+        if (ifMatch != null) {
+            Revisao revisao = clienteService.findRevisao(cliente.getId());
+            if (revisao == null || !ETagUtil.matches(ifMatch, revisao.getEtag())) {
+                return versaoDesatualizada();
+            }
+            cliente.setVersao(revisao.getVersao());
+        }
+        Cliente result;
+        try {
+            result = clienteService.save(cliente);
+        } catch (OptimisticLockingFailureException e) {
+            return versaoDesatualizada();
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, cliente.getId().toString()))
             .body(result);
     }
 
+    private ResponseEntity<Cliente> versaoDesatualizada() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "versaodesatualizada",
+                "Entity was modified by another request"))
+            .body(null);
+    }
+
+    private <T> ResponseEntity<T> cursorInvalido() {
+        return ResponseEntity.badRequest()
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "cursorinvalido", "Invalid cursor"))
+            .body(null);
+    }
+
+    private <T> ResponseEntity<T> camposInvalidos(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "camposinvalidos", e.getMessage()))
+            .body(null);
+    }
+
     /**
-     * {@code GET  /clientes} : retorna todos os clientes.
+     * {@code GET  /clientes} : retorna uma página de clientes, ordenada por id.
      *
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e alista dos clientes no corpo do retorno.
+     * @param cursor o cursor opaco retornado na página anterior, ou vazio para a primeira página.
+     * @param size o tamanho da página, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada cliente, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a página de clientes no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o cursor for inválido ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping(value = "/clientes", method = RequestMethod.GET)
-    public List<Cliente> getAllClientes() {
-        log.debug("REST request to get all Clientes");
-        return clienteService.findAll();
+    public DeferredResult<ResponseEntity<Pagina<ClienteDTO>>> getAllClientes(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                             @RequestParam(value = "size", required = false) Integer size,
+                                                                             @RequestParam(value = "fields", required = false) String fields,
+                                                                             HttpServletRequest request) {
+        log.debug("REST request to get a page of Clientes after : {}", cursor);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            PaginationUtil.Cursor posicao;
+            try {
+                posicao = PaginationUtil.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return cursorInvalido();
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, ClienteDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Pagina<ClienteDTO> pagina = clienteService.findPage(posicao, PaginationUtil.pageSize(size), campos);
+            return ETagUtil.conditionalResponse(request,
+                ETagUtil.etag(pagina, cliente -> cliente.getId() + ":" + cliente.getVersao()), campos, null,
+                () -> pagina);
+        });
+    }
+
+    /**
+     * {@code GET  /clientes?ids=:ids} : retorna os clientes dos ids pedidos, separados por vírgula, lidos em uma única
+     * consulta.
+     *
+     * @param ids os ids dos clientes, no máximo {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada cliente, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e o lote no corpo da resposta,
+     * na ordem dos ids pedidos, com {@code null} na posição e o id em {@code naoEncontrados} para cada id que não existir,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se houver ids demais ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/clientes", method = RequestMethod.GET, params = "ids")
+    public DeferredResult<ResponseEntity<Lote<ClienteDTO>>> getClientesByIds(@RequestParam("ids") List<Long> ids,
+                                                                             @RequestParam(value = "fields", required = false) String fields,
+                                                                             HttpServletRequest request) {
+        log.debug("REST request to get Clientes : {}", ids);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ids.size() > PaginationUtil.MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "idsdemais", "Too many ids"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, ClienteDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            // um único IN, sem repetir os ids repetidos no pedido
+            Lote<ClienteDTO> lote = Lote.of(ids, ids.isEmpty()
+                ? Collections.emptyMap() : clienteService.findDTOsByIds(new LinkedHashSet<>(ids), campos));
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(lote.getItens(),
+                cliente -> cliente == null ? null : cliente.getId() + ":" + cliente.getVersao()), campos, null,
+                () -> lote);
+        });
+    }
+
+    /**
+     * {@code GET  /clientes/busca?q=} : busca clientes por parte do nome, do e-mail, do telefone ou do cpf,
+     * sem diferenciar acentos nem maiúsculas.
+     *
+     * @param q os termos da busca; todos precisam aparecer no cliente.
+     * @param size o número máximo de clientes, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada cliente, separados por vírgula, ou vazio para todos.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e os clientes no corpo da resposta,
+     * do mais relevante para o menos relevante,
+     * ou com status {@code 400 (Bad Request)} se nenhum termo tiver ao menos três letras ou dígitos seguidos
+     * ou se algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/clientes/busca", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<List<ClienteDTO>>> searchClientes(@RequestParam(value = "q", required = false) String q,
+                                                                          @RequestParam(value = "size", required = false) Integer size,
+                                                                          @RequestParam(value = "fields", required = false) String fields) {
+        log.debug("REST request to search Clientes : {}", q);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, ClienteDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            try {
+                return ResponseEntity.ok(clienteService.search(q, PaginationUtil.pageSize(size), campos));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "buscacurta", e.getMessage()))
+                    .body(null);
+            }
+        });
     }
 
     /**
      * {@code GET  /clientes/:id} : retorna cliente pelo id.
      *
      * @param id o id do cliente requisitado.
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} com os dados do cliente no corpo da resposta,
-     * ou com status {@code 404 (Not Found)}.
+     * @param fields os campos do cliente, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com os headers {@code If-None-Match} ou {@code If-Modified-Since}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} com os dados do cliente no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se algum campo não existir,
+     * ou com status {@code 404 (Not Found)},
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping (value = "/clientes/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Cliente> getCliente(@PathVariable Long id) {
+    public DeferredResult<ResponseEntity<ClienteDTO>> getCliente(@PathVariable Long id,
+                                                                @RequestParam(value = "fields", required = false) String fields,
+                                                                HttpServletRequest request) {
         log.debug("REST request to get Cliente : {}", id);
-        Cliente cliente = clienteService.findOne(id);
-        return ResponseEntity.ok(cliente);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, ClienteDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Revisao revisao = clienteService.findRevisao(id);
+            if (revisao == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ETagUtil.conditionalResponse(request, revisao.getEtag(), campos, revisao.getUltimaAlteracao(),
+                () -> clienteService.findDTOById(id, campos));
+        });
+    }
+
+    /**
+     * {@code GET  /clientes/:id/resumo} : retorna o cliente com os seus pets e os seus próximos agendamentos,
+     * lidos em um número fixo de consultas.
+     *
+     * @param id o id do cliente requisitado.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e o resumo no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do resumo ainda for atual,
+     * ou com status {@code 404 (Not Found)},
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/clientes/{id}/resumo", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<ClienteResumoDTO>> getClienteResumo(@PathVariable Long id,
+                                                                            HttpServletRequest request) {
+        log.debug("REST request to get the summary of Cliente : {}", id);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            ClienteResumoDTO resumo = clienteService.findResumo(id);
+            if (resumo == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            // os agendamentos saem da janela com o tempo, então a ETag vem do corpo, e não de uma revisão do cliente
+            String etag = ETagUtil.etag(resumo.getCliente().getVersao(),
+                ETagUtil.etag(resumo.getPets(), pet -> pet.getId() + ":" + pet.getVersao()),
+                ETagUtil.etag(resumo.getProximosAgendamentos(), AgendamentoDTO::revisaoDe));
+            return ETagUtil.conditionalResponse(request, etag, null, () -> resumo);
+        });
+    }
+
+    /**
+     * {@code GET  /clientes/:id/agendamentos} : retorna uma página dos agendamentos do cliente, ordenada por data.
+     *
+     * @param id o id do cliente.
+     * @param cursor o cursor opaco retornado na página anterior, ou vazio para a primeira página.
+     * @param size o tamanho da página, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada agendamento, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a página de agendamentos no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação da página ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o cursor for inválido ou algum campo não existir,
+     * ou com status {@code 404 (Not Found)} se o cliente não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/clientes/{id}/agendamentos", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<Pagina<AgendamentoDTO>>> getAgendamentosByCliente(@PathVariable Long id,
+                                                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                          @RequestParam(value = "size", required = false) Integer size,
+                                                                                          @RequestParam(value = "fields", required = false) String fields,
+                                                                                          HttpServletRequest request) {
+        log.debug("REST request to get a page of Agendamentos of Cliente {} after : {}", id, cursor);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            PaginationUtil.Cursor posicao;
+            try {
+                posicao = PaginationUtil.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return cursorInvalido();
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, AgendamentoDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Pagina<AgendamentoDTO> pagina = agendamentoService.findPageByCliente(id, posicao,
+                PaginationUtil.pageSize(size), campos);
+            if (clienteInexistente(id, posicao, pagina)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ETagUtil.conditionalResponse(request,
+                ETagUtil.etag(pagina, AgendamentoDTO::revisaoDe), campos, null, () -> pagina);
+        });
+    }
+
+    /**
+     * {@code GET  /clientes/:id/pets} : retorna uma página dos pets do cliente, ordenada por id.
+     *
+     * @param id o id do cliente.
+     * @param cursor o cursor opaco retornado na página anterior, ou vazio para a primeira página.
+     * @param size o tamanho da página, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada pet, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a página de pets no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação da página ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o cursor for inválido ou algum campo não existir,
+     * ou com status {@code 404 (Not Found)} se o cliente não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/clientes/{id}/pets", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<Pagina<PetDTO>>> getPetsByCliente(@PathVariable Long id,
+                                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                                          @RequestParam(value = "size", required = false) Integer size,
+                                                                          @RequestParam(value = "fields", required = false) String fields,
+                                                                          HttpServletRequest request) {
+        log.debug("REST request to get a page of Pets of Cliente {} after : {}", id, cursor);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            PaginationUtil.Cursor posicao;
+            try {
+                posicao = PaginationUtil.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return cursorInvalido();
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, PetDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Pagina<PetDTO> pagina = petService.findPageByCliente(id, posicao, PaginationUtil.pageSize(size), campos);
+            if (clienteInexistente(id, posicao, pagina)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ETagUtil.conditionalResponse(request,
+                ETagUtil.etag(pagina, PetDTO::revisaoDe), campos, null, () -> pagina);
+        });
+    }
+
+    /**
+     * Só uma primeira página vazia pode ser de um cliente que não existe; nas outras o cliente não é consultado.
+     */
+    private boolean clienteInexistente(Long id, PaginationUtil.Cursor posicao, Pagina<?> pagina) {
+        return posicao == null && pagina.getItens().isEmpty() && clienteService.findRevisao(id) == null;
+    }
+
+    /**
+     * {@code GET  /clientes/cpf/:cpf/agendamentos}: retorna os agendamentos do cliente pelo cpf.
+     * Consulta pública, sem necessidade de login.
+     *
+     * @param cpf o cpf do cliente.
+     * @param fields os campos de cada agendamento, separados por vírgula, ou vazio para todos.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a lista de agendamentos no corpo da resposta,
+     * vazia se o cpf não estiver cadastrado,
+     * ou com status {@code 400 (Bad Request)} se algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/clientes/cpf/{cpf}/agendamentos", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<List<AgendamentoDTO>>> getAgendamentosByCpf(@PathVariable String cpf,
+                                                                                     @RequestParam(value = "fields", required = false) String fields) {
+        log.debug("REST request to get Agendamentos by CPF");
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, AgendamentoDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            return ResponseEntity.ok(clienteService.findAgendamentosByCpf(cpf, campos));
+        });
     }
 
     /**
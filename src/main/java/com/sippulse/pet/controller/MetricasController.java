@@ -0,0 +1,57 @@
+package com.sippulse.pet.controller;
+
+import com.sippulse.pet.metricas.BulkheadMetricas;
+import com.sippulse.pet.metricas.EscritorMetricas;
+import com.sippulse.pet.metricas.HibernateMetricas;
+import com.sippulse.pet.metricas.MetricasRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller que expõe as métricas da aplicação no formato texto do Prometheus.
+ */
+@RestController
+@RequestMapping("/api")
+public class MetricasController {
+
+    private final Logger log = LoggerFactory.getLogger(MetricasController.class);
+
+    private final MetricasRegistry metricasRegistry;
+
+    private final HibernateMetricas hibernateMetricas;
+
+    private final BulkheadMetricas bulkheadMetricas;
+
+    @Autowired
+    public MetricasController(MetricasRegistry metricasRegistry, HibernateMetricas hibernateMetricas,
+                              BulkheadMetricas bulkheadMetricas) {
+        this.metricasRegistry = metricasRegistry;
+        this.hibernateMetricas = hibernateMetricas;
+        this.bulkheadMetricas = bulkheadMetricas;
+    }
+
+    /**
+     * {@code GET  /metricas} : retorna, por endpoint, a contagem e os histogramas de latência das requisições,
+     * os comandos SQL e o tempo nos repositories; as conexões e a espera de cada pool; a ocupação de cada bulkhead;
+     * e as estatísticas do Hibernate.
+     *
+     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e as métricas no corpo da resposta.
+     */
+    @RequestMapping(value = "/metricas", method = RequestMethod.GET)
+    public ResponseEntity<String> getMetricas() {
+        log.debug("REST request to get metrics");
+        EscritorMetricas escritor = new EscritorMetricas();
+        metricasRegistry.escrever(escritor);
+        bulkheadMetricas.escrever(escritor);
+        hibernateMetricas.escrever(escritor);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, EscritorMetricas.CONTENT_TYPE);
+        return ResponseEntity.ok().headers(headers).body(escritor.toString());
+    }
+}
@@ -1,18 +1,40 @@
 package com.sippulse.pet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sippulse.pet.AsyncUtil;
+import com.sippulse.pet.ETagUtil;
 import com.sippulse.pet.HeaderUtil;
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.service.Bulkhead;
+import com.sippulse.pet.service.BulkheadRegistry;
 import com.sippulse.pet.service.ClienteService;
+import com.sippulse.pet.service.ImportacaoService;
 import com.sippulse.pet.service.PetService;
+import com.sippulse.pet.service.Revisao;
+import com.sippulse.pet.service.dto.ImportacaoDTO;
+import com.sippulse.pet.service.dto.PetDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Lote;
+import com.sippulse.pet.service.dto.Pagina;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -26,12 +48,31 @@ public class PetController {
 
     private static final String ENTITY_NAME = "pet";
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Value("Pet")
     private String applicationName;
 
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${pet.bulkhead.pets.threads:10}")
+    private int bulkheadThreads;
+
+    @Value("${pet.bulkhead.pets.fila:50}")
+    private int bulkheadFila;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    private Bulkhead bulkhead;
+
     @Autowired
     private final PetService petService;
 
@@ -40,6 +81,11 @@ public class PetController {
         this.petService = petService;
     }
 
+    @PostConstruct
+    public void init() {
+        bulkhead = bulkheadRegistry.criar("pets", bulkheadThreads, bulkheadFila);
+    }
+
     /**
      * {@code POST  /pets} : Cria um novo pet.
      *
@@ -60,50 +106,183 @@ public class PetController {
             .body(result);
     }
 
+    /**
+     * {@code POST  /pets/bulk} : Importa pets em lote.
+     * <p>
+     * O corpo pode ser um array JSON ou um stream NDJSON (um pet por linha) e é lido sob demanda, sem
+     * carregar a carga inteira em memória. Linhas inválidas não interrompem a importação: os erros são
+     * retornados por linha no resumo.
+     *
+     * @param request a requisição com pets no corpo.
+     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e o resumo da importação no corpo da resposta.
+     * @throws IOException se o corpo da requisição não puder ser lido.
+     */
+    @RequestMapping(value = "/pets/bulk", method = RequestMethod.POST,
+        consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<ImportacaoDTO> importPets(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import Pets");
+        ImportacaoDTO result = importacaoService.importPets(
+            objectMapper.reader(Pet.class).<Pet>readValues(request.getInputStream()));
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * {@code PUT  /pets} : Atualiza um pet existente.
      *
      * @param pet o pet que será atualizado.
+     * @param ifMatch a ETag do pet lida pelo cliente; se presente, a atualização só é feita sobre essa versão.
      * @return o {@link ResponseEntity} com status {@code 200 (OK)} e com os dados do pet atualizado,
      * ou com status {@code 400 (Bad Request)} se o pet for inválido,
+     * ou com status {@code 412 (Precondition Failed)} se o pet tiver sido alterado desde a versão do {@code If-Match},
      * ou com status {@code 500 (Internal Server Error)} se o pet não puder ser atualizado.
      * @throws URISyntaxException se a syntax URI estiver incorreta.
      */
     @RequestMapping(value = "/pets", method = RequestMethod.PUT)
-    public ResponseEntity<Pet> updatePet(@RequestBody Pet pet) throws URISyntaxException {
+    public ResponseEntity<Pet> updatePet(@RequestBody Pet pet,
+                                         @RequestHeader(value = "If-Match", required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Pet : {}" + pet);
         if (pet.getId() == null) {
             ResponseEntity.badRequest().build();
         }
-        Pet result = petService.save(pet);
+        if (ifMatch != null) {
+            Revisao revisao = petService.findRevisao(pet.getId());
+            if (revisao == null || !ETagUtil.matches(ifMatch, revisao.getEtag())) {
+                return versaoDesatualizada();
+            }
+            pet.setVersao(revisao.getVersao());
+        }
+        Pet result;
+        try {
+            result = petService.save(pet);
+        } catch (OptimisticLockingFailureException e) {
+            return versaoDesatualizada();
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, pet.getId().toString()))
             .body(result);
     }
 
+    private ResponseEntity<Pet> versaoDesatualizada() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "versaodesatualizada",
+                "Entity was modified by another request"))
+            .body(null);
+    }
+
+    private <T> ResponseEntity<T> camposInvalidos(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "camposinvalidos", e.getMessage()))
+            .body(null);
+    }
+
     /**
-     * {@code GET  /pets} : retorna todos os pets.
+     * {@code GET  /pets} : retorna uma página de pets, ordenada por id.
      *
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e com a lista dos pets no corpo da resposta.
+     * @param cursor o cursor opaco retornado na página anterior, ou vazio para a primeira página.
+     * @param size o tamanho da página, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada pet, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a página de pets no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o cursor for inválido ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping(value = "/pets", method = RequestMethod.GET)
-    public List<Pet> getAllPets() {
-        log.debug("REST request to get all Pets");
-        return petService.findAll();
+    public DeferredResult<ResponseEntity<Pagina<PetDTO>>> getAllPets(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                     @RequestParam(value = "size", required = false) Integer size,
+                                                                     @RequestParam(value = "fields", required = false) String fields,
+                                                                     HttpServletRequest request) {
+        log.debug("REST request to get a page of Pets after : {}", cursor);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            PaginationUtil.Cursor posicao;
+            try {
+                posicao = PaginationUtil.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "cursorinvalido", "Invalid cursor"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, PetDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Pagina<PetDTO> pagina = petService.findPage(posicao, PaginationUtil.pageSize(size), campos);
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(pagina, PetDTO::revisaoDe), campos, null,
+                () -> pagina);
+        });
+    }
+
+    /**
+     * {@code GET  /pets?ids=:ids} : retorna os pets dos ids pedidos, separados por vírgula, lidos em uma única
+     * consulta.
+     *
+     * @param ids os ids dos pets, no máximo {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada pet, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e o lote no corpo da resposta,
+     * na ordem dos ids pedidos, com {@code null} na posição e o id em {@code naoEncontrados} para cada id que não existir,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se houver ids demais ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/pets", method = RequestMethod.GET, params = "ids")
+    public DeferredResult<ResponseEntity<Lote<PetDTO>>> getPetsByIds(@RequestParam("ids") List<Long> ids,
+                                                                     @RequestParam(value = "fields", required = false) String fields,
+                                                                     HttpServletRequest request) {
+        log.debug("REST request to get Pets : {}", ids);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ids.size() > PaginationUtil.MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "idsdemais", "Too many ids"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, PetDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            // um único IN, sem repetir os ids repetidos no pedido
+            Lote<PetDTO> lote = Lote.of(ids, ids.isEmpty()
+                ? Collections.emptyMap() : petService.findDTOsByIds(new LinkedHashSet<>(ids), campos));
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(lote.getItens(),
+                pet -> pet == null ? null : PetDTO.revisaoDe(pet)), campos, null, () -> lote);
+        });
     }
 
     /**
      * {@code GET  /pets/:id} : retorna um pet pelo id.
      *
      * @param id o id do pet requisitado.
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e com os dados do pet no corpo da resposta,
-     * ou com status {@code 404 (Not Found)}.
+     * @param fields os campos do pet, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com os headers {@code If-None-Match} ou {@code If-Modified-Since}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e com os dados do pet no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se algum campo não existir,
+     * ou com status {@code 404 (Not Found)},
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping(value = "/pets/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Pet> getPet(@PathVariable Long id) {
+    public DeferredResult<ResponseEntity<PetDTO>> getPet(@PathVariable Long id,
+                                                         @RequestParam(value = "fields", required = false) String fields,
+                                                         HttpServletRequest request) {
         log.debug("REST request to get Pet : {}", id);
-        Pet pet = petService.findOne(id);
-        return ResponseEntity.ok(pet);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, PetDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Revisao revisao = petService.findRevisao(id);
+            if (revisao == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ETagUtil.conditionalResponse(request, revisao.getEtag(), campos, revisao.getUltimaAlteracao(),
+                () -> petService.findDTOById(id, campos));
+        });
     }
 
     /**
@@ -0,0 +1,34 @@
+package com.sippulse.pet.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller para o balanceador saber se a instância já pode receber tráfego.
+ */
+@RestController
+@RequestMapping("/api")
+public class ProntidaoController {
+
+    private final Aquecimento aquecimento;
+
+    @Autowired
+    public ProntidaoController(Aquecimento aquecimento) {
+        this.aquecimento = aquecimento;
+    }
+
+    /**
+     * {@code GET  /pronto} : indica se a instância terminou de subir e de se aquecer.
+     *
+     * @return o {@link ResponseEntity} com status {@code 200 (OK)} se a instância estiver pronta,
+     * ou com status {@code 503 (Service Unavailable)} durante o aquecimento.
+     */
+    @RequestMapping(value = "/pronto", method = RequestMethod.GET)
+    public ResponseEntity<Void> getPronto() {
+        return new ResponseEntity<>(aquecimento.isPronto() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.sippulse.pet.controller;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Lê e escreve requisições e respostas em Smile, o formato binário do Jackson, quando o {@code Accept} ou o
+ * {@code Content-Type} é {@value #SMILE_VALUE}.
+ *
+ * <p>Os objetos são os mesmos do JSON, com as mesmas configurações do {@link ObjectMapper} da aplicação, mas os nomes
+ * dos campos e os textos curtos repetidos em uma lista são enviados uma vez só e referenciados depois, e as datas vão
+ * como milissegundos desde 1970-01-01 UTC em vez do texto {@code yyyy-MM-dd HH:mm:ss}.</p>
+ */
+public class SmileHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType SMILE = MediaType.valueOf(SMILE_VALUE);
+
+    public SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(objectMapper(builder), SMILE);
+    }
+
+    /**
+     * Cria o {@link ObjectMapper} Smile com as configurações do builder da aplicação.
+     *
+     * @param builder o builder do {@link ObjectMapper} JSON da aplicação.
+     * @return o {@link ObjectMapper} Smile.
+     */
+    public static ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = new SmileFactory();
+        factory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        builder.configure(objectMapper);
+        objectMapper.setAnnotationIntrospector(new DatasComoNumero());
+        objectMapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+
+    /**
+     * Ignora o {@code pattern} de {@link JsonFormat}, que transformaria as datas em texto.
+     */
+    private static final class DatasComoNumero extends JacksonAnnotationIntrospector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public JsonFormat.Value findFormat(Annotated annotated) {
+            JsonFormat.Value formato = super.findFormat(annotated);
+            return formato == null || formato.getPattern().isEmpty() ? formato : null;
+        }
+    }
+}
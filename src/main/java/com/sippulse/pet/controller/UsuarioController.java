@@ -1,17 +1,40 @@
 package com.sippulse.pet.controller;
 
+import com.sippulse.pet.AsyncUtil;
+import com.sippulse.pet.ETagUtil;
 import com.sippulse.pet.HeaderUtil;
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Usuario;
+import com.sippulse.pet.service.Bulkhead;
+import com.sippulse.pet.service.BulkheadRegistry;
+import com.sippulse.pet.service.Periodo;
+import com.sippulse.pet.service.Revisao;
 import com.sippulse.pet.service.UsuarioService;
+import com.sippulse.pet.service.dto.DisponibilidadeDTO;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Lote;
+import com.sippulse.pet.service.dto.Pagina;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 
@@ -26,9 +49,22 @@ public class UsuarioController {
 
     private static final String ENTITY_NAME = "usuario";
 
+    private static final int MAX_PERIODO_DIAS = 366;
+
     @Value("Pet")
     private String applicationName;
 
+    @Value("${pet.bulkhead.usuarios.threads:10}")
+    private int bulkheadThreads;
+
+    @Value("${pet.bulkhead.usuarios.fila:50}")
+    private int bulkheadFila;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    private Bulkhead bulkhead;
+
     @Autowired
     private final UsuarioService usuarioService;
 
@@ -37,6 +73,11 @@ public class UsuarioController {
         this.usuarioService = usuarioService;
     }
 
+    @PostConstruct
+    public void init() {
+        bulkhead = bulkheadRegistry.criar("usuarios", bulkheadThreads, bulkheadFila);
+    }
+
     /**
      * {@code POST  /usuarios} : Cria um novo usuario.
      *
@@ -61,46 +102,187 @@ public class UsuarioController {
      * {@code PUT  /usuarios} : Atualiza um usuário existente.
      *
      * @param usuario o usuario que será atualizado.
+     * @param ifMatch a ETag do usuario lida pelo cliente; se presente, a atualização só é feita sobre essa versão.
      * @return o {@link ResponseEntity} com status {@code 200 (OK)} e com os dados do usuario no corpo da reposta,
      * ou com status {@code 400 (Bad Request)} se o usuario for unválido,
+     * ou com status {@code 412 (Precondition Failed)} se o usuario tiver sido alterado desde a versão do {@code If-Match},
      * ou com status {@code 500 (Internal Server Error)} se o usuario não puder ser atualizado.
      * @throws URISyntaxException se a syntax URI estiver incorreta.
      */
     @RequestMapping(value = "/usuarios", method = RequestMethod.PUT)
-    public ResponseEntity<Usuario> updateUsuario(@RequestBody Usuario usuario) throws URISyntaxException {
+    public ResponseEntity<Usuario> updateUsuario(@RequestBody Usuario usuario,
+                                                 @RequestHeader(value = "If-Match", required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Usuario : {}", usuario);
         if (usuario.getId() == null) {
             ResponseEntity.badRequest().build();
         }
-        Usuario result = usuarioService.save(usuario);
+        if (ifMatch != null) {
+            Revisao revisao = usuarioService.findRevisao(usuario.getId());
+            if (revisao == null || !ETagUtil.matches(ifMatch, revisao.getEtag())) {
+                return versaoDesatualizada();
+            }
+            usuario.setVersao(revisao.getVersao());
+        }
+        Usuario result;
+        try {
+            result = usuarioService.save(usuario);
+        } catch (OptimisticLockingFailureException e) {
+            return versaoDesatualizada();
+        }
         return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, usuario.getId().toString()))
                 .body(result);
     }
 
+    private ResponseEntity<Usuario> versaoDesatualizada() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "versaodesatualizada",
+                "Entity was modified by another request"))
+            .body(null);
+    }
+
+    private <T> ResponseEntity<T> camposInvalidos(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+            .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "camposinvalidos", e.getMessage()))
+            .body(null);
+    }
+
     /**
-     * {@code GET  /usuarios} : retorna todos os usuarios.
+     * {@code GET  /usuarios} : retorna uma página de usuarios, ordenada por id.
      *
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} e a lista dos usuarios no corpo da resposta.
+     * @param cursor o cursor opaco retornado na página anterior, ou vazio para a primeira página.
+     * @param size o tamanho da página, limitado a {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada usuario, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e a página de usuarios no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se o cursor for inválido ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping(value = "/usuarios", method = RequestMethod.GET)
-    public List<Usuario> getAllUsuarios() {
-        log.debug("REST request to get all Usuarios");
-        return usuarioService.findAll();
+    public DeferredResult<ResponseEntity<Pagina<UsuarioDTO>>> getAllUsuarios(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                             @RequestParam(value = "size", required = false) Integer size,
+                                                                             @RequestParam(value = "fields", required = false) String fields,
+                                                                             HttpServletRequest request) {
+        log.debug("REST request to get a page of Usuarios after : {}", cursor);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            PaginationUtil.Cursor posicao;
+            try {
+                posicao = PaginationUtil.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "cursorinvalido", "Invalid cursor"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, UsuarioDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Pagina<UsuarioDTO> pagina = usuarioService.findPage(posicao, PaginationUtil.pageSize(size), campos);
+            return ETagUtil.conditionalResponse(request,
+                ETagUtil.etag(pagina, usuario -> usuario.getId() + ":" + usuario.getVersao()), campos, null,
+                () -> pagina);
+        });
+    }
+
+    /**
+     * {@code GET  /usuarios?ids=:ids} : retorna os usuarios dos ids pedidos, separados por vírgula, lidos em uma única
+     * consulta.
+     *
+     * @param ids os ids dos usuarios, no máximo {@value PaginationUtil#MAX_PAGE_SIZE}.
+     * @param fields os campos de cada usuario, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com o header {@code If-None-Match}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e o lote no corpo da resposta,
+     * na ordem dos ids pedidos, com {@code null} na posição e o id em {@code naoEncontrados} para cada id que não existir,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se houver ids demais ou algum campo não existir,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/usuarios", method = RequestMethod.GET, params = "ids")
+    public DeferredResult<ResponseEntity<Lote<UsuarioDTO>>> getUsuariosByIds(@RequestParam("ids") List<Long> ids,
+                                                                             @RequestParam(value = "fields", required = false) String fields,
+                                                                             HttpServletRequest request) {
+        log.debug("REST request to get Usuarios : {}", ids);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ids.size() > PaginationUtil.MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "idsdemais", "Too many ids"))
+                    .body(null);
+            }
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, UsuarioDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            // um único IN, sem repetir os ids repetidos no pedido
+            Lote<UsuarioDTO> lote = Lote.of(ids, ids.isEmpty()
+                ? Collections.emptyMap() : usuarioService.findDTOsByIds(new LinkedHashSet<>(ids), campos));
+            return ETagUtil.conditionalResponse(request, ETagUtil.etag(lote.getItens(),
+                usuario -> usuario == null ? null : usuario.getId() + ":" + usuario.getVersao()), campos, null,
+                () -> lote);
+        });
     }
 
     /**
      * {@code GET  /usuarios/:id} : retorna um usuario pelo id.
      *
      * @param id o id do usuario requisitado.
-     * @return o {@link ResponseEntity} com status {@code 200 (OK)} com os dados do usuario no corpo da resposta,
-     * ou com status {@code 404 (Not Found)}.
+     * @param fields os campos do usuario, separados por vírgula, ou vazio para todos.
+     * @param request a requisição, com os headers {@code If-None-Match} ou {@code If-Modified-Since}.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} com os dados do usuario no corpo da resposta,
+     * ou com status {@code 304 (Not Modified)} se a representação do cliente ainda for atual,
+     * ou com status {@code 400 (Bad Request)} se algum campo não existir,
+     * ou com status {@code 404 (Not Found)},
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
      */
     @RequestMapping(value = "/usuarios/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Usuario> getUsuario(@PathVariable Long id) {
+    public DeferredResult<ResponseEntity<UsuarioDTO>> getUsuario(@PathVariable Long id,
+                                                                 @RequestParam(value = "fields", required = false) String fields,
+                                                                 HttpServletRequest request) {
         log.debug("REST request to get Usuario : {}", id);
-        Usuario usuario = usuarioService.findOne(id);
-        return ResponseEntity.ok(usuario);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            Campos campos;
+            try {
+                campos = Campos.parse(fields, UsuarioDTO.class);
+            } catch (IllegalArgumentException e) {
+                return camposInvalidos(e);
+            }
+            Revisao revisao = usuarioService.findRevisao(id);
+            if (revisao == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ETagUtil.conditionalResponse(request, revisao.getEtag(), campos, revisao.getUltimaAlteracao(),
+                () -> usuarioService.findDTOById(id, campos));
+        });
+    }
+
+    /**
+     * {@code GET  /usuarios/:id/disponibilidade?de=:de&ate=:ate} : retorna os horários livres de um veterinário
+     * em cada dia entre duas datas ({@code yyyy-MM-dd}, inclusivas).
+     *
+     * @param id o id do veterinário.
+     * @param de o primeiro dia da consulta.
+     * @param ate o último dia da consulta.
+     * @return o {@link DeferredResult} com o {@link ResponseEntity} com status {@code 200 (OK)} e os horários livres de cada dia no corpo da resposta,
+     * ou com status {@code 400 (Bad Request)} se o período for inválido ou maior que {@value #MAX_PERIODO_DIAS} dias,
+     * ou com status {@code 503 (Service Unavailable)} se houver requisições demais em andamento.
+     */
+    @RequestMapping(value = "/usuarios/{id}/disponibilidade", method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<List<DisponibilidadeDTO>>> getDisponibilidade(@PathVariable Long id,
+                                                                                       @RequestParam("de") @DateTimeFormat(iso = ISO.DATE) LocalDate de,
+                                                                                       @RequestParam("ate") @DateTimeFormat(iso = ISO.DATE) LocalDate ate) {
+        log.debug("REST request to get the availability of Usuario {} from {} to {}", id, de, ate);
+        return AsyncUtil.executar(bulkhead, applicationName, ENTITY_NAME, () -> {
+            if (ate.isBefore(de) || ChronoUnit.DAYS.between(de, ate) >= MAX_PERIODO_DIAS) {
+                return ResponseEntity.badRequest()
+                    .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "periodoinvalido", "Invalid period"))
+                    .body(null);
+            }
+            return ResponseEntity.ok(usuarioService.findDisponibilidade(id, new Periodo(de, ate)));
+        });
     }
 
     /**
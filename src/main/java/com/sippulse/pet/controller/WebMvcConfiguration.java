@@ -0,0 +1,47 @@
+package com.sippulse.pet.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/**
+ * Negociação do formato das respostas da API: JSON por padrão e Smile para {@code Accept: application/x-jackson-smile}.
+ *
+ * <p>O conversor Smile entra depois do JSON, para que requisições sem {@code Accept}, ou que aceitem qualquer
+ * formato, continuem recebendo JSON. Os GETs respondem com {@code Vary: Accept}, porque a mesma URL tem uma
+ * representação em cada formato, cada uma com a sua ETag.</p>
+ */
+@Configuration
+public class WebMvcConfiguration extends WebMvcConfigurerAdapter {
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new SmileHttpMessageConverter(jackson2ObjectMapperBuilder));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptorAdapter() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if ("GET".equals(request.getMethod())) {
+                    // set e não add: a cadeia roda de novo quando o resultado assíncrono é despachado
+                    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,81 @@
+package com.sippulse.pet.datasource;
+
+import com.sippulse.pet.metricas.DataSourceMetricasPostProcessor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.bind.PropertiesConfigurationFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.validation.BindException;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cria o {@link DataSource} da aplicação: o primário de {@code spring.datasource.url} e uma réplica para cada URL
+ * de {@code pet.datasource.replicas}, separadas por vírgula.
+ *
+ * <p>As réplicas usam o mesmo driver, usuário, senha e configurações de pool do primário. As transações somente
+ * leitura vão às réplicas, exceto quando {@link LeituraDasEscritas} está ativa; sem réplicas, tudo vai ao primário.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfiguration implements DisposableBean {
+
+    private final List<org.apache.tomcat.jdbc.pool.DataSource> pools = new ArrayList<>();
+
+    @Autowired
+    private DataSourceProperties properties;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private DataSourceMetricasPostProcessor dataSourceMetricas;
+
+    @Value("${pet.datasource.replicas:}")
+    private String[] replicas;
+
+    @Bean
+    public DataSource dataSource() throws BindException {
+        DataSource primario = pool("primario", properties.getUrl());
+        List<DataSource> replicasRoteadas = new ArrayList<>();
+        for (int i = 0; i < replicas.length; i++) {
+            replicasRoteadas.add(pool("replica-" + i, replicas[i].trim()));
+        }
+        // a conexão só é aberta no primeiro comando, quando o readOnly da transação já foi marcado
+        return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, replicasRoteadas));
+    }
+
+    private DataSource pool(String nome, String url) throws BindException {
+        org.apache.tomcat.jdbc.pool.DataSource pool = (org.apache.tomcat.jdbc.pool.DataSource) DataSourceBuilder
+            .create(properties.getClassLoader())
+            .type(org.apache.tomcat.jdbc.pool.DataSource.class)
+            .driverClassName(properties.getDriverClassName())
+            .url(url)
+            .username(properties.getUsername())
+            .password(properties.getPassword())
+            .build();
+        // o mesmo binding que o Spring Boot faz no DataSource dele: max-active, jdbc-interceptors...
+        PropertiesConfigurationFactory<Object> binder = new PropertiesConfigurationFactory<Object>(pool);
+        binder.setTargetName(DataSourceProperties.PREFIX);
+        binder.setPropertySources(environment.getPropertySources());
+        binder.bindPropertiesToTarget();
+        pool.setUrl(url);
+        pool.setName(nome);
+        pools.add(pool);
+        return dataSourceMetricas.medir(nome, pool);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(org.apache.tomcat.jdbc.pool.DataSource::close);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sippulse.pet.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca, na thread da requisição, que as leituras devem ir ao primário mesmo em transações somente leitura.
+ *
+ * <p>O {@link LeituraDasEscritasFilter} a ativa nas requisições que escrevem e nas que chegam logo depois de uma
+ * escrita do mesmo cliente, para que ele não leia de uma réplica atrasada o que acabou de gravar. Tarefas
+ * executadas em outras threads levam a marca com {@link #propagar(Supplier)}.</p>
+ */
+public final class LeituraDasEscritas {
+
+    private static final ThreadLocal<Boolean> ATIVA = new ThreadLocal<>();
+
+    private LeituraDasEscritas() {
+    }
+
+    static void iniciar() {
+        ATIVA.set(Boolean.TRUE);
+    }
+
+    static void encerrar() {
+        ATIVA.remove();
+    }
+
+    /**
+     * @return se as leituras da thread atual devem ir ao primário.
+     */
+    static boolean ativa() {
+        return ATIVA.get() != null;
+    }
+
+    /**
+     * Faz uma tarefa executada em outra thread ler do primário se a thread atual lê.
+     *
+     * @param tarefa a tarefa.
+     * @param <T> o tipo do resultado.
+     * @return a tarefa que, ao executar, usa a marca da thread que a criou.
+     */
+    public static <T> Supplier<T> propagar(Supplier<T> tarefa) {
+        if (!ativa()) {
+            return tarefa;
+        }
+        return () -> {
+            iniciar();
+            try {
+                return tarefa.get();
+            } finally {
+                encerrar();
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.sippulse.pet.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Faz as requisições que escrevem, e as do mesmo cliente logo depois delas, lerem do primário.
+ *
+ * <p>Uma requisição que escreve grava o cookie {@value #COOKIE}, que vale por {@code pet.datasource.leitura-das-escritas-ms};
+ * enquanto ele existir, as leituras do cliente não vão às réplicas, que podem ainda não ter recebido a escrita.
+ * Com {@code 0}, só a própria requisição de escrita lê do primário.</p>
+ */
+@Component
+public class LeituraDasEscritasFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "pet-primario";
+
+    private static final List<String> METODOS_SEGUROS = Arrays.asList("GET", "HEAD", "OPTIONS", "TRACE");
+
+    @Value("${pet.datasource.replicas:}")
+    private String[] replicas;
+
+    @Value("${pet.datasource.leitura-das-escritas-ms:5000}")
+    private long janelaMillis;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (replicas.length == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean escrita = !METODOS_SEGUROS.contains(request.getMethod());
+        if (escrita && janelaMillis > 0) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge((int) Math.max(1, (janelaMillis + 999) / 1000));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (!escrita && WebUtils.getCookie(request, COOKIE) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        LeituraDasEscritas.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LeituraDasEscritas.encerrar();
+        }
+    }
+}
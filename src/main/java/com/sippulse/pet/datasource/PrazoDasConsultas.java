@@ -0,0 +1,50 @@
+package com.sippulse.pet.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Guarda, na thread de uma tarefa assíncrona, o instante em que a requisição deixa de esperar pela resposta.
+ *
+ * <p>O {@link PrazoDasConsultasInterceptor} usa o prazo como timeout de cada comando SQL da tarefa, para que uma
+ * consulta lenta seja cancelada no banco antes de a requisição responder por tempo esgotado, em vez de continuar
+ * segurando a conexão. Comandos fora dessas tarefas, como a exportação e a importação, não têm prazo.</p>
+ */
+public final class PrazoDasConsultas {
+
+    private static final ThreadLocal<Long> PRAZO = new ThreadLocal<>();
+
+    private PrazoDasConsultas() {
+    }
+
+    /**
+     * Limita os comandos SQL de uma tarefa ao tempo que a requisição ainda espera, contado a partir de agora.
+     *
+     * @param tarefa a tarefa.
+     * @param timeoutMillis o tempo que a requisição espera pela resposta.
+     * @param <T> o tipo do resultado.
+     * @return a tarefa que, ao executar, usa o prazo.
+     */
+    public static <T> Supplier<T> limitar(Supplier<T> tarefa, long timeoutMillis) {
+        long prazo = System.currentTimeMillis() + timeoutMillis;
+        return () -> {
+            PRAZO.set(prazo);
+            try {
+                return tarefa.get();
+            } finally {
+                PRAZO.remove();
+            }
+        };
+    }
+
+    /**
+     * @return o timeout, em segundos inteiros e arredondado para baixo, dos comandos SQL da thread atual; no mínimo
+     * {@code 1}, porque {@code 0} é sem limite; ou {@code 0} se a thread não tiver prazo.
+     */
+    static int timeoutSegundos() {
+        Long prazo = PRAZO.get();
+        if (prazo == null) {
+            return 0;
+        }
+        return (int) Math.max(1, (prazo - System.currentTimeMillis()) / 1000);
+    }
+}
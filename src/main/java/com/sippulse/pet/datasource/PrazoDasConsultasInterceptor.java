@@ -0,0 +1,32 @@
+package com.sippulse.pet.datasource;
+
+import org.apache.tomcat.jdbc.pool.interceptor.AbstractCreateStatementInterceptor;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Interceptor do pool de conexões que aplica o {@link PrazoDasConsultas} da thread atual como
+ * {@code queryTimeout} dos statements criados, ou nenhum timeout fora das tarefas com prazo.
+ *
+ * <p>Configurado em {@code spring.datasource.jdbc-interceptors}, vale para o primário e para as réplicas.</p>
+ */
+public class PrazoDasConsultasInterceptor extends AbstractCreateStatementInterceptor {
+
+    @Override
+    public Object createStatement(Object proxy, Method method, Object[] args, Object statement, long time) {
+        // sem prazo também: alguns drivers, como o H2, guardam o timeout na conexão, que volta para o pool
+        try {
+            ((Statement) statement).setQueryTimeout(PrazoDasConsultas.timeoutSegundos());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not set the query timeout", e);
+        }
+        return statement;
+    }
+
+    @Override
+    public void closeInvoked() {
+        // nada a liberar, o timeout é aplicado statement a statement
+    }
+}
@@ -0,0 +1,87 @@
+package com.sippulse.pet.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * No profile {@code replicas-locais}, copia o banco H2 primário para as réplicas H2 na subida da aplicação.
+ *
+ * <p>A cópia é feita quando o bean é inicializado, depois das migrações do Liquibase e antes do
+ * {@code EntityManagerFactory}, que depende deste bean: nenhuma leitura, nem a dos listeners de
+ * {@code ContextRefreshedEvent}, encontra uma réplica vazia.</p>
+ *
+ * <p>Não há replicação depois disso: o que for gravado só aparece no primário, o que deixa visível no teste local
+ * de qual banco cada leitura veio.</p>
+ */
+@Component
+@Profile("replicas-locais")
+public class ReplicasLocais implements InitializingBean {
+
+    @Autowired
+    private DataSourceProperties properties;
+
+    /**
+     * Só para que a cópia espere as migrações; ausente quando o Liquibase está desligado.
+     */
+    @Autowired(required = false)
+    private SpringLiquibase liquibase;
+
+    @Value("${pet.datasource.replicas:}")
+    private String[] replicas;
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> script = new ArrayList<>();
+        try {
+            try (Connection primario = conectar(properties.getUrl());
+                 Statement statement = primario.createStatement();
+                 ResultSet comandos = statement.executeQuery("SCRIPT")) {
+                while (comandos.next()) {
+                    script.add(comandos.getString(1));
+                }
+            }
+            for (String replica : replicas) {
+                try (Connection conexao = conectar(replica.trim());
+                     Statement statement = conexao.createStatement()) {
+                    statement.execute("DROP ALL OBJECTS");
+                    for (String comando : script) {
+                        statement.execute(comando);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not copy the primary database to the local replicas", e);
+        }
+    }
+
+    private Connection conectar(String url) throws SQLException {
+        return DriverManager.getConnection(url, properties.getUsername(), properties.getPassword());
+    }
+
+    /**
+     * Faz o {@code EntityManagerFactory} depender da cópia, como o Spring Boot faz com o Liquibase.
+     */
+    @Configuration
+    @Profile("replicas-locais")
+    static class DependenciaJpa extends EntityManagerFactoryDependsOnPostProcessor {
+
+        DependenciaJpa() {
+            super("replicasLocais");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sippulse.pet.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia as conexões das transações somente leitura às réplicas, em rodízio, e as demais ao primário.
+ *
+ * <p>Uma réplica que não entrega a conexão é pulada; se nenhuma entregar, a leitura vai ao primário. A decisão
+ * depende do {@code readOnly} da transação, que o Spring só marca depois de abrir a conexão; por isso este
+ * DataSource deve ficar atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.</p>
+ */
+class RoteamentoDataSource extends AbstractDataSource {
+
+    private final Logger log = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+    private final DataSource primario;
+
+    private final List<DataSource> replicas;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    RoteamentoDataSource(DataSource primario, List<DataSource> replicas) {
+        this.primario = primario;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection conectar(Conexao conexao) throws SQLException {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            || LeituraDasEscritas.ativa()) {
+            return conexao.abrir(primario);
+        }
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int indice = (inicio + i) % replicas.size();
+            try {
+                return conexao.abrir(replicas.get(indice));
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, trying the next one: {}", indice, e.getMessage());
+            }
+        }
+        return conexao.abrir(primario);
+    }
+
+    @FunctionalInterface
+    private interface Conexao {
+
+        Connection abrir(DataSource dataSource) throws SQLException;
+    }
+}
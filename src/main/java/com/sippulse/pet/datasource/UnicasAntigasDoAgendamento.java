@@ -0,0 +1,162 @@
+package com.sippulse.pet.datasource;
+
+import liquibase.change.custom.CustomSqlChange;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.CustomPreconditionErrorException;
+import liquibase.exception.CustomPreconditionFailedException;
+import liquibase.exception.ValidationErrors;
+import liquibase.precondition.CustomPrecondition;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawSqlStatement;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remove as restrições únicas de uma coluna em {@code agendamento.pet_id} e {@code agendamento.usuario_id}, que o
+ * {@code ddl-auto=update} criou para o antigo {@code @OneToOne @JoinColumn(unique = true)} e que limitavam cada pet
+ * e cada veterinário a um agendamento.
+ *
+ * <p>O nome delas foi gerado pelo Hibernate, então são procuradas pela coluna no {@code information_schema}. É a
+ * precondição e a mudança do changeSet {@code 004}: sem nenhuma delas, como em um banco criado pelo changelog, o
+ * changeSet é só marcado. No MySQL as chaves estrangeiras continuam atendidas pelos índices
+ * {@code ux_agendamento_*_slot}, que começam pela mesma coluna; no H2 a chave estrangeira da coluna fica com o índice
+ * único da restrição removida, então é removida antes e recriada depois, sobre um índice próprio.</p>
+ */
+public class UnicasAntigasDoAgendamento implements CustomSqlChange, CustomPrecondition {
+
+    // uma única coluna: as restrições (pet_id, slot) e (usuario_id, slot) ficam
+    private static final String MYSQL = "select index_name from information_schema.statistics " +
+        "where table_schema = database() and table_name = 'agendamento' and non_unique = 0 " +
+        "group by index_name having count(*) = 1 and max(column_name) in ('pet_id', 'usuario_id')";
+
+    // no modo MySQL o H2 guarda os nomes em minúsculas, fora do padrão dele
+    private static final String H2 = "select constraint_name from information_schema.constraints " +
+        "where lower(table_schema) = lower(schema()) and lower(table_name) = 'agendamento' " +
+        "and constraint_type = 'UNIQUE' and lower(column_list) in ('pet_id', 'usuario_id')";
+
+    private static final String H2_ESTRANGEIRAS = "select r.fk_name, r.fk_name || ' foreign key (' || " +
+        "r.fkcolumn_name || ') references ' || r.pktable_name || ' (' || r.pkcolumn_name || ')' from information_schema.cross_references r join information_schema.constraints c " +
+        "on lower(c.constraint_schema) = lower(r.fktable_schema) and lower(c.table_name) = lower(r.fktable_name) " +
+        "and lower(c.column_list) = lower(r.fkcolumn_name) " +
+        "where lower(r.fktable_schema) = lower(schema()) and lower(r.fktable_name) = 'agendamento' " +
+        "and c.constraint_name in (%s)";
+
+    @Override
+    public void check(Database database) throws CustomPreconditionFailedException, CustomPreconditionErrorException {
+        try {
+            if (restricoes(database).isEmpty()) {
+                throw new CustomPreconditionFailedException(
+                    "No single-column unique key on agendamento.pet_id or usuario_id");
+            }
+        } catch (SQLException e) {
+            throw new CustomPreconditionErrorException("Could not read the unique keys of agendamento", e);
+        }
+    }
+
+    @Override
+    public SqlStatement[] generateStatements(Database database) throws CustomChangeException {
+        List<String> comandos = new ArrayList<>();
+        try {
+            List<String> restricoes = restricoes(database);
+            if (database instanceof MySQLDatabase) {
+                // no MySQL a restrição é o próprio índice
+                for (String restricao : restricoes) {
+                    comandos.add("alter table agendamento drop index " + restricao);
+                }
+            } else {
+                Map<String, String> estrangeiras = estrangeirasH2(database, restricoes);
+                for (String estrangeira : estrangeiras.keySet()) {
+                    comandos.add("alter table agendamento drop constraint " + estrangeira);
+                }
+                for (String restricao : restricoes) {
+                    comandos.add("alter table agendamento drop constraint " + restricao);
+                }
+                for (String definicao : estrangeiras.values()) {
+                    comandos.add("alter table agendamento add constraint " + definicao);
+                }
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not read the unique keys of agendamento", e);
+        }
+        SqlStatement[] statements = new SqlStatement[comandos.size()];
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = new RawSqlStatement(comandos.get(i));
+        }
+        return statements;
+    }
+
+    private static List<String> restricoes(Database database) throws SQLException {
+        String consulta;
+        if (database instanceof MySQLDatabase) {
+            consulta = MYSQL;
+        } else if (database instanceof H2Database) {
+            consulta = H2;
+        } else {
+            throw new SQLException("Unsupported database: " + database.getShortName());
+        }
+        List<String> nomes = new ArrayList<>();
+        try (Statement statement = statement(database); ResultSet rs = statement.executeQuery(consulta)) {
+            while (rs.next()) {
+                nomes.add(rs.getString(1));
+            }
+        }
+        return nomes;
+    }
+
+    /**
+     * @return o nome e a definição de cada chave estrangeira do H2 que está sobre a coluna de uma das restrições.
+     */
+    private static Map<String, String> estrangeirasH2(Database database, List<String> restricoes)
+            throws SQLException {
+        Map<String, String> estrangeiras = new LinkedHashMap<>();
+        if (restricoes.isEmpty()) {
+            return estrangeiras;
+        }
+        StringBuilder nomes = new StringBuilder();
+        for (String restricao : restricoes) {
+            nomes.append(nomes.length() == 0 ? "'" : ", '").append(restricao).append('\'');
+        }
+        try (Statement statement = statement(database);
+             ResultSet rs = statement.executeQuery(String.format(H2_ESTRANGEIRAS, nomes))) {
+            while (rs.next()) {
+                estrangeiras.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return estrangeiras;
+    }
+
+    private static Statement statement(Database database) throws SQLException {
+        return ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement();
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Single-column unique keys on agendamento.pet_id and usuario_id dropped";
+    }
+
+    @Override
+    public void setUp() {
+        // nada a configurar
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // não lê arquivos
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -1,7 +1,7 @@
 package com.sippulse.pet.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -11,31 +11,61 @@ import java.util.Date;
  * Agendamento.
  */
 @Entity
-@Table(name = "agendamento")
+@Table(name = "agendamento", indexes = {
+    @Index(name = "idx_agendamento_data_id", columnList = "data,id"),
+    @Index(name = "idx_agendamento_usuario_data", columnList = "usuario_id,data"),
+    @Index(name = "idx_agendamento_cliente_data", columnList = "cliente_id,data")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Agendamento.UX_USUARIO_SLOT, columnNames = {"usuario_id", "slot"}),
+    @UniqueConstraint(name = Agendamento.UX_PET_SLOT, columnNames = {"pet_id", "slot"})
+})
 public class Agendamento implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Um veterinário tem no máximo um agendamento por horário.
+     */
+    public static final String UX_USUARIO_SLOT = "ux_agendamento_usuario_slot";
+
+    /**
+     * Um pet tem no máximo um agendamento por horário.
+     */
+    public static final String UX_PET_SLOT = "ux_agendamento_pet_slot";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "ultima_alteracao")
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    private Date ultimaAlteracao;
+
     @Column(name = "data")
     @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
     private Date data;
 
     @ManyToOne
-    @JsonIgnoreProperties("agendamentos")
     private Cliente cliente;
 
-    @OneToOne
-    @JoinColumn(unique = true)
+    @ManyToOne
     private Pet pet;
 
-    @OneToOne
-    @JoinColumn(unique = true)
+    @ManyToOne
     private Usuario usuario;
 
+    /**
+     * Início do horário da agenda que contém {@code data}, em minutos desde a epoch; preenchido pelo service.
+     */
+    @JsonIgnore
+    @Column(name = "slot")
+    private Long slot;
+
     public Long getId() {
         return id;
     }
@@ -44,6 +74,28 @@ public class Agendamento implements Serializable {
         this.id = id;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Date getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+
+    public void setUltimaAlteracao(Date ultimaAlteracao) {
+        this.ultimaAlteracao = ultimaAlteracao;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void tocar() {
+        ultimaAlteracao = new Date();
+    }
+
     public Date getData() {
         return data;
     }
@@ -96,6 +148,14 @@ public class Agendamento implements Serializable {
         this.usuario = usuario;
     }
 
+    public Long getSlot() {
+        return slot;
+    }
+
+    public void setSlot(Long slot) {
+        this.slot = slot;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -109,7 +169,7 @@ public class Agendamento implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id == null ? System.identityHashCode(this) : id.hashCode();
     }
 
     @Override
@@ -1,17 +1,18 @@
 package com.sippulse.pet.entity;
 
-
+import com.fasterxml.jackson.annotation.JsonFormat;
 
 import javax.persistence.*;
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Date;
 
 /**
  * Cliente
  */
 @Entity
-@Table(name = "cliente")
+@Table(name = "cliente", uniqueConstraints = {
+    @UniqueConstraint(name = "ux_cliente_cpf", columnNames = "cpf")
+})
 public class Cliente implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -20,6 +21,15 @@ public class Cliente implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "ultima_alteracao")
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    private Date ultimaAlteracao;
+
 
     @Column(name = "nome")
     private String nome;
@@ -36,12 +46,6 @@ public class Cliente implements Serializable {
     @Column(name = "cpf")
     private String cpf;
 
-    @OneToMany(mappedBy = "cliente")
-    private Set<Agendamento> agendamentos = new HashSet<>();
-
-    @OneToMany(mappedBy = "cliente")
-    private Set<Pet> pets = new HashSet<>();
-
     public Long getId() {
         return id;
     }
@@ -50,6 +54,28 @@ public class Cliente implements Serializable {
         this.id = id;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Date getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+
+    public void setUltimaAlteracao(Date ultimaAlteracao) {
+        this.ultimaAlteracao = ultimaAlteracao;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void tocar() {
+        ultimaAlteracao = new Date();
+    }
+
     public String getNome() {
         return nome;
     }
@@ -110,56 +136,6 @@ public class Cliente implements Serializable {
         this.cpf = cpf;
     }
 
-    public Set<Agendamento> getAgendamentos() {
-        return agendamentos;
-    }
-
-    public Cliente agendamentos(Set<Agendamento> agendamentos) {
-        this.agendamentos = agendamentos;
-        return this;
-    }
-
-    public Cliente addAgendamento(Agendamento agendamento) {
-        this.agendamentos.add(agendamento);
-        agendamento.setCliente(this);
-        return this;
-    }
-
-    public Cliente removeAgendamento(Agendamento agendamento) {
-        this.agendamentos.remove(agendamento);
-        agendamento.setCliente(null);
-        return this;
-    }
-
-    public void setAgendamentos(Set<Agendamento> agendamentos) {
-        this.agendamentos = agendamentos;
-    }
-
-    public Set<Pet> getPets() {
-        return pets;
-    }
-
-    public Cliente pets(Set<Pet> pets) {
-        this.pets = pets;
-        return this;
-    }
-
-    public Cliente addPet(Pet pet) {
-        this.pets.add(pet);
-        pet.setCliente(this);
-        return this;
-    }
-
-    public Cliente removePet(Pet pet) {
-        this.pets.remove(pet);
-        pet.setCliente(null);
-        return this;
-    }
-
-    public void setPets(Set<Pet> pets) {
-        this.pets = pets;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -173,7 +149,7 @@ public class Cliente implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id == null ? System.identityHashCode(this) : id.hashCode();
     }
 
     @Override
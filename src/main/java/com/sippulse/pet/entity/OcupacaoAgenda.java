@@ -0,0 +1,118 @@
+package com.sippulse.pet.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Número de agendamentos de um veterinário em um dia, mantido pelo service de agendamentos a cada escrita.
+ */
+@Entity
+@Table(name = "ocupacao_agenda", indexes = {
+    @Index(name = "idx_ocupacao_agenda_dia", columnList = "dia")
+})
+@IdClass(OcupacaoAgenda.Chave.class)
+public class OcupacaoAgenda implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Id
+    @Column(name = "dia")
+    @Temporal(TemporalType.DATE)
+    private Date dia;
+
+    @Column(name = "agendamentos", nullable = false)
+    private int agendamentos;
+
+    public OcupacaoAgenda() {
+    }
+
+    public OcupacaoAgenda(Long usuarioId, Date dia, int agendamentos) {
+        this.usuarioId = usuarioId;
+        this.dia = dia;
+        this.agendamentos = agendamentos;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Date getDia() {
+        return dia;
+    }
+
+    public void setDia(Date dia) {
+        this.dia = dia;
+    }
+
+    public int getAgendamentos() {
+        return agendamentos;
+    }
+
+    public void setAgendamentos(int agendamentos) {
+        this.agendamentos = agendamentos;
+    }
+
+    @Override
+    public String toString() {
+        return "OcupacaoAgenda{" +
+            "usuarioId=" + getUsuarioId() +
+            ", dia='" + getDia() + "'" +
+            ", agendamentos=" + getAgendamentos() +
+            "}";
+    }
+
+    /**
+     * Chave composta: veterinário e dia.
+     */
+    public static class Chave implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long usuarioId;
+
+        private Date dia;
+
+        public Chave() {
+        }
+
+        public Chave(Long usuarioId, Date dia) {
+            this.usuarioId = usuarioId;
+            this.dia = dia;
+        }
+
+        public Long getUsuarioId() {
+            return usuarioId;
+        }
+
+        public Date getDia() {
+            return dia;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Chave)) {
+                return false;
+            }
+            Chave chave = (Chave) o;
+            return Objects.equals(usuarioId, chave.usuarioId) && Objects.equals(dia, chave.dia);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(usuarioId, dia);
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.sippulse.pet.entity;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonFormat;
 
 import javax.persistence.*;
 import java.io.Serializable;
+import java.util.Date;
 
 /**
  * Pet.
@@ -18,6 +19,15 @@ public class Pet implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "ultima_alteracao")
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    private Date ultimaAlteracao;
+
     @Column(name = "nome")
     private String nome;
 
@@ -28,7 +38,6 @@ public class Pet implements Serializable {
     private String raca;
 
     @ManyToOne
-    @JsonIgnoreProperties("pets")
     private Cliente cliente;
 
     public Long getId() {
@@ -39,6 +48,28 @@ public class Pet implements Serializable {
         this.id = id;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Date getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+
+    public void setUltimaAlteracao(Date ultimaAlteracao) {
+        this.ultimaAlteracao = ultimaAlteracao;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void tocar() {
+        ultimaAlteracao = new Date();
+    }
+
     public String getNome() {
         return nome;
     }
@@ -104,7 +135,7 @@ public class Pet implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id == null ? System.identityHashCode(this) : id.hashCode();
     }
 
     @Override
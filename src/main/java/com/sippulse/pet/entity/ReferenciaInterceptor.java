@@ -0,0 +1,37 @@
+package com.sippulse.pet.entity;
+
+import org.hibernate.EmptyInterceptor;
+
+/**
+ * Decide se uma instância é nova pelo id, e não pela versão.
+ *
+ * <p>Os ids são gerados pelo banco, então uma instância com id sempre tem linha gravada. Sem este
+ * interceptor o Hibernate trataria como nova uma referência enviada só com o id, como
+ * {@code {"cliente": {"id": 1}}}, porque ela chega sem {@code versao}.</p>
+ */
+public class ReferenciaInterceptor extends EmptyInterceptor {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        Long id = id(entity);
+        return id == null ? null : Boolean.FALSE;
+    }
+
+    private static Long id(Object entity) {
+        if (entity instanceof Cliente) {
+            return ((Cliente) entity).getId();
+        }
+        if (entity instanceof Pet) {
+            return ((Pet) entity).getId();
+        }
+        if (entity instanceof Usuario) {
+            return ((Usuario) entity).getId();
+        }
+        if (entity instanceof Agendamento) {
+            return ((Agendamento) entity).getId();
+        }
+        return null;
+    }
+}
@@ -19,6 +19,15 @@ public class Usuario implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    @Column(name = "ultima_alteracao")
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    private Date ultimaAlteracao;
+
     @Column(name = "data_cadastro")
     @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
     private Date dataCadastro;
@@ -38,6 +47,28 @@ public class Usuario implements Serializable {
         this.id = id;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Date getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+
+    public void setUltimaAlteracao(Date ultimaAlteracao) {
+        this.ultimaAlteracao = ultimaAlteracao;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void tocar() {
+        ultimaAlteracao = new Date();
+    }
+
     public Date getDataCadastro() {
         return dataCadastro;
     }
@@ -90,7 +121,7 @@ public class Usuario implements Serializable {
 
     @Override
     public int hashCode() {
-        return 31;
+        return id == null ? System.identityHashCode(this) : id.hashCode();
     }
 
     @Override
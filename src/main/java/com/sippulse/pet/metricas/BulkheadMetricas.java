@@ -0,0 +1,44 @@
+package com.sippulse.pet.metricas;
+
+import com.sippulse.pet.service.Bulkhead;
+import com.sippulse.pet.service.BulkheadRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Expõe a ocupação e as rejeições de cada {@link Bulkhead}.
+ */
+@Component
+public class BulkheadMetricas {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    public BulkheadMetricas(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    /**
+     * @param escritor onde as métricas são escritas.
+     */
+    public void escrever(EscritorMetricas escritor) {
+        escrever(escritor, "bulkhead_threads", "gauge", "Threads of the bulkhead.", Bulkhead::getThreads);
+        escrever(escritor, "bulkhead_active", "gauge", "Tasks running in the bulkhead.", Bulkhead::getAtivas);
+        escrever(escritor, "bulkhead_queued", "gauge", "Tasks waiting for a bulkhead thread.", Bulkhead::getNaFila);
+        escrever(escritor, "bulkhead_queue_capacity", "gauge", "Maximum number of tasks waiting for a bulkhead thread.",
+            Bulkhead::getCapacidadeFila);
+        escrever(escritor, "bulkhead_completed_total", "counter", "Tasks completed by the bulkhead.",
+            Bulkhead::getConcluidas);
+        escrever(escritor, "bulkhead_rejected_total", "counter", "Tasks rejected because the bulkhead was full.",
+            Bulkhead::getRejeitadas);
+    }
+
+    private void escrever(EscritorMetricas escritor, String nome, String tipo, String ajuda, ToLongFunction<Bulkhead> valor) {
+        escritor.familia(nome, tipo, ajuda);
+        for (Bulkhead bulkhead : bulkheadRegistry.bulkheads()) {
+            escritor.amostra(nome, valor.applyAsLong(bulkhead), "bulkhead", bulkhead.getNome());
+        }
+    }
+}
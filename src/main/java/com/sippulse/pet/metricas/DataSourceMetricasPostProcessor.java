@@ -0,0 +1,78 @@
+package com.sippulse.pet.metricas;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Registra cada pool de conexões no {@link MetricasRegistry} e mede o tempo de espera por uma conexão.
+ */
+@Component
+public class DataSourceMetricasPostProcessor implements BeanPostProcessor {
+
+    private final MetricasRegistry metricasRegistry;
+
+    @Autowired
+    public DataSourceMetricasPostProcessor(MetricasRegistry metricasRegistry) {
+        this.metricasRegistry = metricasRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof org.apache.tomcat.jdbc.pool.DataSource)) {
+            return bean;
+        }
+        return medir(beanName, (org.apache.tomcat.jdbc.pool.DataSource) bean);
+    }
+
+    /**
+     * Registra um pool que não é um bean, como as réplicas.
+     *
+     * @param nome o nome do pool nas métricas.
+     * @param pool o pool.
+     * @return o DataSource que mede a espera por uma conexão, a ser usado no lugar do pool.
+     */
+    public DataSource medir(String nome, org.apache.tomcat.jdbc.pool.DataSource pool) {
+        return new MedidorDataSource(pool, metricasRegistry.registrarPool(nome, pool));
+    }
+
+    private static final class MedidorDataSource extends DelegatingDataSource {
+
+        private final Histograma espera;
+
+        private MedidorDataSource(DataSource dataSource, Histograma espera) {
+            super(dataSource);
+            this.espera = espera;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            long inicio = System.nanoTime();
+            try {
+                return super.getConnection();
+            } finally {
+                espera.registrar(System.nanoTime() - inicio);
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            long inicio = System.nanoTime();
+            try {
+                return super.getConnection(username, password);
+            } finally {
+                espera.registrar(System.nanoTime() - inicio);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.sippulse.pet.metricas;
+
+/**
+ * Escreve métricas no formato texto do Prometheus ({@code text/plain; version=0.0.4}).
+ */
+public class EscritorMetricas {
+
+    /**
+     * O content type do formato texto.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder texto = new StringBuilder();
+
+    /**
+     * Escreve o cabeçalho de uma família de métricas.
+     *
+     * @param nome o nome da métrica.
+     * @param tipo {@code counter}, {@code gauge} ou {@code histogram}.
+     * @param ajuda a descrição da métrica.
+     * @return este escritor.
+     */
+    public EscritorMetricas familia(String nome, String tipo, String ajuda) {
+        texto.append("# HELP ").append(nome).append(' ').append(ajuda).append('\n');
+        texto.append("# TYPE ").append(nome).append(' ').append(tipo).append('\n');
+        return this;
+    }
+
+    /**
+     * Escreve uma amostra.
+     *
+     * @param nome o nome da métrica, com o sufixo quando houver.
+     * @param valor o valor.
+     * @param labels pares de nome e valor dos labels.
+     * @return este escritor.
+     */
+    public EscritorMetricas amostra(String nome, double valor, String... labels) {
+        texto.append(nome);
+        if (labels.length > 0) {
+            texto.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    texto.append(',');
+                }
+                texto.append(labels[i]).append("=\"");
+                escapar(labels[i + 1]);
+                texto.append('"');
+            }
+            texto.append('}');
+        }
+        texto.append(' ').append(formatar(valor)).append('\n');
+        return this;
+    }
+
+    /**
+     * Escreve as amostras de um histograma: os intervalos cumulativos, a soma e a contagem.
+     *
+     * @param nome o nome da métrica, sem sufixo.
+     * @param histograma o histograma.
+     * @param labels pares de nome e valor dos labels.
+     * @return as contagens cumulativas escritas, para estimar percentis sobre a mesma leitura.
+     */
+    public long[] histograma(String nome, Histograma histograma, String... labels) {
+        long[] cumulativas = histograma.cumulativas();
+        String[] comLimite = new String[labels.length + 2];
+        System.arraycopy(labels, 0, comLimite, 0, labels.length);
+        comLimite[labels.length] = "le";
+        for (int i = 0; i < cumulativas.length; i++) {
+            comLimite[labels.length + 1] = i < Histograma.LIMITES.length ? formatar(Histograma.LIMITES[i]) : "+Inf";
+            amostra(nome + "_bucket", cumulativas[i], comLimite);
+        }
+        amostra(nome + "_sum", histograma.soma(), labels);
+        amostra(nome + "_count", cumulativas[cumulativas.length - 1], labels);
+        return cumulativas;
+    }
+
+    private void escapar(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' || c == '"') {
+                texto.append('\\').append(c);
+            } else if (c == '\n') {
+                texto.append("\\n");
+            } else {
+                texto.append(c);
+            }
+        }
+    }
+
+    private static String formatar(double valor) {
+        if (Double.isNaN(valor)) {
+            return "NaN";
+        }
+        if (valor == Math.rint(valor) && !Double.isInfinite(valor)) {
+            return Long.toString((long) valor);
+        }
+        return Double.toString(valor);
+    }
+
+    @Override
+    public String toString() {
+        return texto.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sippulse.pet.metricas;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Expõe as estatísticas do Hibernate, habilitadas por {@code hibernate.generate_statistics}.
+ */
+@Component
+public class HibernateMetricas {
+
+    private static final List<Contador> CONTADORES = Arrays.asList(
+        new Contador("hibernate_sessions_opened_total", "Sessions opened.", Statistics::getSessionOpenCount),
+        new Contador("hibernate_transactions_total", "Transactions completed.", Statistics::getTransactionCount),
+        new Contador("hibernate_connections_obtained_total", "JDBC connections obtained by sessions.", Statistics::getConnectCount),
+        new Contador("hibernate_statements_prepared_total", "JDBC statements prepared.", Statistics::getPrepareStatementCount),
+        new Contador("hibernate_flushes_total", "Session flushes.", Statistics::getFlushCount),
+        new Contador("hibernate_entity_loads_total", "Entities loaded from the database.", Statistics::getEntityLoadCount),
+        new Contador("hibernate_entity_fetches_total", "Entities fetched lazily or by a separate select.", Statistics::getEntityFetchCount),
+        new Contador("hibernate_entity_inserts_total", "Entities inserted.", Statistics::getEntityInsertCount),
+        new Contador("hibernate_entity_updates_total", "Entities updated.", Statistics::getEntityUpdateCount),
+        new Contador("hibernate_entity_deletes_total", "Entities deleted.", Statistics::getEntityDeleteCount),
+        new Contador("hibernate_collection_loads_total", "Collections loaded.", Statistics::getCollectionLoadCount),
+        new Contador("hibernate_collection_fetches_total", "Collections fetched lazily or by a separate select.", Statistics::getCollectionFetchCount),
+        new Contador("hibernate_query_executions_total", "HQL and native queries executed.", Statistics::getQueryExecutionCount),
+        new Contador("hibernate_second_level_cache_hits_total", "Second level cache hits.", Statistics::getSecondLevelCacheHitCount),
+        new Contador("hibernate_second_level_cache_misses_total", "Second level cache misses.", Statistics::getSecondLevelCacheMissCount),
+        new Contador("hibernate_second_level_cache_puts_total", "Second level cache puts.", Statistics::getSecondLevelCachePutCount),
+        new Contador("hibernate_query_cache_hits_total", "Query cache hits.", Statistics::getQueryCacheHitCount),
+        new Contador("hibernate_query_cache_misses_total", "Query cache misses.", Statistics::getQueryCacheMissCount),
+        new Contador("hibernate_optimistic_failures_total", "Optimistic lock failures.", Statistics::getOptimisticFailureCount)
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public HibernateMetricas(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * @param escritor onde as métricas são escritas; nada é escrito se as estatísticas estiverem desabilitadas.
+     */
+    public void escrever(EscritorMetricas escritor) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        for (Contador contador : CONTADORES) {
+            escritor.familia(contador.nome, "counter", contador.ajuda)
+                .amostra(contador.nome, contador.valor.applyAsLong(statistics));
+        }
+        escritor.familia("hibernate_query_execution_max_seconds", "gauge", "Slowest query execution since startup.")
+            .amostra("hibernate_query_execution_max_seconds", statistics.getQueryExecutionMaxTime() / 1000.0);
+    }
+
+    private static final class Contador {
+
+        private final String nome;
+
+        private final String ajuda;
+
+        private final ToLongFunction<Statistics> valor;
+
+        private Contador(String nome, String ajuda, ToLongFunction<Statistics> valor) {
+            this.nome = nome;
+            this.ajuda = ajuda;
+            this.valor = valor;
+        }
+    }
+}
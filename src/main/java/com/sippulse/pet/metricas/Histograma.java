@@ -0,0 +1,95 @@
+package com.sippulse.pet.metricas;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de durações com limites fixos, no formato cumulativo do Prometheus.
+ *
+ * <p>Cada registro incrementa um único contador, sem lock; os percentis são estimados a partir dos limites.</p>
+ */
+public final class Histograma {
+
+    /**
+     * Os limites superiores dos intervalos, em segundos.
+     */
+    public static final double[] LIMITES = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private static final long[] LIMITES_NANOS = new long[LIMITES.length];
+
+    static {
+        for (int i = 0; i < LIMITES.length; i++) {
+            LIMITES_NANOS[i] = (long) (LIMITES[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    // um contador por intervalo, mais o intervalo acima do último limite
+    private final LongAdder[] contagens = new LongAdder[LIMITES.length + 1];
+
+    private final LongAdder somaNanos = new LongAdder();
+
+    public Histograma() {
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos a duração medida.
+     */
+    public void registrar(long nanos) {
+        int i = 0;
+        while (i < LIMITES_NANOS.length && nanos > LIMITES_NANOS[i]) {
+            i++;
+        }
+        contagens[i].increment();
+        somaNanos.add(nanos);
+    }
+
+    /**
+     * @return as contagens cumulativas de cada limite de {@link #LIMITES}, seguidas da contagem total ({@code +Inf}).
+     */
+    public long[] cumulativas() {
+        long[] cumulativas = new long[contagens.length];
+        long total = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            total += contagens[i].sum();
+            cumulativas[i] = total;
+        }
+        return cumulativas;
+    }
+
+    /**
+     * @return a soma das durações, em segundos.
+     */
+    public double soma() {
+        return somaNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Estima um percentil por interpolação linear dentro do intervalo que o contém.
+     *
+     * @param cumulativas as contagens retornadas por {@link #cumulativas()}.
+     * @param quantil o percentil, entre 0 e 1.
+     * @return a duração estimada em segundos, ou {@link Double#NaN} se não houver registros.
+     */
+    public static double quantil(long[] cumulativas, double quantil) {
+        long total = cumulativas[cumulativas.length - 1];
+        if (total == 0) {
+            return Double.NaN;
+        }
+        double posicao = quantil * total;
+        for (int i = 0; i < LIMITES.length; i++) {
+            if (cumulativas[i] >= posicao) {
+                double inicio = i == 0 ? 0 : LIMITES[i - 1];
+                long anteriores = i == 0 ? 0 : cumulativas[i - 1];
+                long noIntervalo = cumulativas[i] - anteriores;
+                return inicio + (LIMITES[i] - inicio) * (posicao - anteriores) / noIntervalo;
+            }
+        }
+        // acima do último limite não há como interpolar
+        return LIMITES[LIMITES.length - 1];
+    }
+}
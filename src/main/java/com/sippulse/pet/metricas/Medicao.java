@@ -0,0 +1,113 @@
+package com.sippulse.pet.metricas;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Acumula, na thread da requisição, os comandos SQL e o tempo gasto no banco e nos repositories.
+ *
+ * <p>O interceptor do pool e o advice dos repositories não conhecem a requisição; eles somam na medição
+ * da thread atual, que o {@link MetricasFilter} abre no início da requisição e registra no fim. Tarefas
+ * executadas em outras threads levam a medição com {@link #propagar(Supplier)}; por isso os contadores são
+ * atômicos, já que a thread da requisição e a da tarefa podem somar ao mesmo tempo.</p>
+ */
+public final class Medicao {
+
+    private static final ThreadLocal<Medicao> ATUAL = new ThreadLocal<>();
+
+    private final LongAdder sqlComandos = new LongAdder();
+
+    private final LongAdder sqlNanos = new LongAdder();
+
+    private final LongAdder repositorioNanos = new LongAdder();
+
+    private final AtomicInteger repositorioProfundidade = new AtomicInteger();
+
+    /**
+     * Abre uma medição na thread atual.
+     *
+     * @return a medição aberta.
+     */
+    static Medicao iniciar() {
+        Medicao medicao = new Medicao();
+        ATUAL.set(medicao);
+        return medicao;
+    }
+
+    /**
+     * Fecha a medição da thread atual.
+     */
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Faz uma tarefa executada em outra thread somar na medição da thread atual.
+     *
+     * @param tarefa a tarefa.
+     * @param <T> o tipo do resultado.
+     * @return a tarefa que, ao executar, usa a medição da thread que a criou.
+     */
+    public static <T> Supplier<T> propagar(Supplier<T> tarefa) {
+        Medicao medicao = ATUAL.get();
+        if (medicao == null) {
+            return tarefa;
+        }
+        return () -> {
+            ATUAL.set(medicao);
+            try {
+                return tarefa.get();
+            } finally {
+                ATUAL.remove();
+            }
+        };
+    }
+
+    /**
+     * @param nanos a duração da execução de um comando SQL.
+     */
+    static void registrarSql(long nanos) {
+        Medicao medicao = ATUAL.get();
+        if (medicao != null) {
+            medicao.sqlComandos.increment();
+            medicao.sqlNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Marca a entrada em um método de repository.
+     *
+     * @return a medição da thread, ou {@code null} se não houver uma aberta.
+     */
+    static Medicao entrarRepositorio() {
+        Medicao medicao = ATUAL.get();
+        if (medicao != null) {
+            medicao.repositorioProfundidade.incrementAndGet();
+        }
+        return medicao;
+    }
+
+    /**
+     * Marca a saída de um método de repository; só a chamada mais externa é somada.
+     *
+     * @param nanos a duração da chamada.
+     */
+    void sairRepositorio(long nanos) {
+        if (repositorioProfundidade.decrementAndGet() == 0) {
+            repositorioNanos.add(nanos);
+        }
+    }
+
+    public long getSqlComandos() {
+        return sqlComandos.sum();
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos.sum();
+    }
+
+    public long getRepositorioNanos() {
+        return repositorioNanos.sum();
+    }
+}
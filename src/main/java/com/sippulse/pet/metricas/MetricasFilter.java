@@ -0,0 +1,79 @@
+package com.sippulse.pet.metricas;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Mede cada requisição e a registra pelo padrão do {@code @RequestMapping} que a atendeu.
+ *
+ * <p>O padrão é usado no lugar da URI para que {@code /api/clientes/1} e {@code /api/clientes/2} contem no
+ * mesmo endpoint; requisições que nenhum mapping atendeu entram juntas em {@value #NAO_MAPEADO}. Requisições
+ * assíncronas são registradas quando a resposta termina.</p>
+ */
+@Component
+public class MetricasFilter extends OncePerRequestFilter {
+
+    static final String NAO_MAPEADO = "UNMAPPED";
+
+    private final MetricasRegistry metricasRegistry;
+
+    @Autowired
+    public MetricasFilter(MetricasRegistry metricasRegistry) {
+        this.metricasRegistry = metricasRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Medicao medicao = Medicao.iniciar();
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try {
+            filterChain.doFilter(request, response);
+            falhou = false;
+        } finally {
+            Medicao.encerrar();
+            if (!falhou && request.isAsyncStarted()) {
+                // a resposta só termina quando o resultado assíncrono for escrito
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        registrar(request, response.getStatus(), inicio, medicao);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                // uma exceção que sai da cadeia vira 500 no container, depois deste filtro
+                registrar(request, falhou ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), inicio, medicao);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, int status, long inicio, Medicao medicao) {
+        long nanos = System.nanoTime() - inicio;
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        metricasRegistry.registrarRequisicao(request.getMethod(), padrao == null ? NAO_MAPEADO : padrao.toString(),
+            status, nanos, medicao);
+    }
+}
@@ -0,0 +1,139 @@
+package com.sippulse.pet.metricas;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guarda as métricas por endpoint e por pool de conexões e as escreve no formato texto do Prometheus.
+ */
+@Component
+public class MetricasRegistry {
+
+    private static final double[] QUANTIS = {0.5, 0.95, 0.99};
+
+    private static final double NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Pool> pools = new ConcurrentSkipListMap<>();
+
+    /**
+     * Registra uma requisição atendida.
+     *
+     * @param metodo o método HTTP.
+     * @param uri o padrão do {@code @RequestMapping} que atendeu a requisição.
+     * @param status o status da resposta.
+     * @param nanos a duração da requisição.
+     * @param medicao os comandos SQL e o tempo nos repositories durante a requisição.
+     */
+    public void registrarRequisicao(String metodo, String uri, int status, long nanos, Medicao medicao) {
+        String chave = metodo + ' ' + uri + ' ' + status;
+        Endpoint endpoint = endpoints.get(chave);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(chave, c -> new Endpoint(metodo, uri, Integer.toString(status)));
+        }
+        endpoint.latencia.registrar(nanos);
+        endpoint.sqlComandos.add(medicao.getSqlComandos());
+        endpoint.sqlNanos.add(medicao.getSqlNanos());
+        endpoint.repositorioNanos.add(medicao.getRepositorioNanos());
+    }
+
+    /**
+     * Registra um pool de conexões para expor as conexões ativas e o tempo de espera por uma conexão.
+     *
+     * @param nome o nome do pool.
+     * @param dataSource o pool.
+     * @return o histograma do tempo de espera por uma conexão do pool.
+     */
+    public Histograma registrarPool(String nome, org.apache.tomcat.jdbc.pool.DataSource dataSource) {
+        Pool pool = new Pool(dataSource);
+        pools.put(nome, pool);
+        return pool.espera;
+    }
+
+    /**
+     * @param escritor onde as métricas são escritas.
+     */
+    public void escrever(EscritorMetricas escritor) {
+        escritor.familia("http_server_requests_seconds", "histogram", "Request latency per endpoint.");
+        Map<String, long[]> cumulativas = new HashMap<>();
+        endpoints.forEach((chave, endpoint) ->
+            cumulativas.put(chave, escritor.histograma("http_server_requests_seconds", endpoint.latencia, endpoint.labels)));
+
+        escritor.familia("http_server_requests_quantile_seconds", "gauge",
+            "Request latency percentiles per endpoint, estimated from the histogram buckets since startup.");
+        endpoints.forEach((chave, endpoint) -> {
+            for (double quantil : QUANTIS) {
+                escritor.amostra("http_server_requests_quantile_seconds", Histograma.quantil(cumulativas.get(chave), quantil),
+                    comLabel(endpoint.labels, "quantile", Double.toString(quantil)));
+            }
+        });
+
+        escritor.familia("http_server_requests_sql_statements_total", "counter", "SQL statements executed per endpoint.");
+        endpoints.forEach((chave, endpoint) ->
+            escritor.amostra("http_server_requests_sql_statements_total", endpoint.sqlComandos.sum(), endpoint.labels));
+
+        escritor.familia("http_server_requests_sql_seconds_total", "counter", "Time spent executing SQL per endpoint.");
+        endpoints.forEach((chave, endpoint) ->
+            escritor.amostra("http_server_requests_sql_seconds_total", endpoint.sqlNanos.sum() / NANOS_POR_SEGUNDO, endpoint.labels));
+
+        escritor.familia("http_server_requests_repository_seconds_total", "counter",
+            "Time spent in repository methods per endpoint, SQL included.");
+        endpoints.forEach((chave, endpoint) ->
+            escritor.amostra("http_server_requests_repository_seconds_total", endpoint.repositorioNanos.sum() / NANOS_POR_SEGUNDO,
+                endpoint.labels));
+
+        escritor.familia("datasource_connections_active", "gauge", "Connections borrowed from the pool.");
+        pools.forEach((nome, pool) -> escritor.amostra("datasource_connections_active", pool.dataSource.getActive(), "pool", nome));
+        escritor.familia("datasource_connections_idle", "gauge", "Idle connections in the pool.");
+        pools.forEach((nome, pool) -> escritor.amostra("datasource_connections_idle", pool.dataSource.getIdle(), "pool", nome));
+        escritor.familia("datasource_connections_max", "gauge", "Maximum number of connections in the pool.");
+        pools.forEach((nome, pool) -> escritor.amostra("datasource_connections_max", pool.dataSource.getMaxActive(), "pool", nome));
+        escritor.familia("datasource_connections_pending", "gauge", "Threads waiting for a connection.");
+        pools.forEach((nome, pool) -> escritor.amostra("datasource_connections_pending", pool.dataSource.getWaitCount(), "pool", nome));
+        escritor.familia("datasource_connection_acquire_seconds", "histogram", "Time waiting to borrow a connection.");
+        pools.forEach((nome, pool) -> escritor.histograma("datasource_connection_acquire_seconds", pool.espera, "pool", nome));
+    }
+
+    private static String[] comLabel(String[] labels, String nome, String valor) {
+        String[] resultado = new String[labels.length + 2];
+        System.arraycopy(labels, 0, resultado, 0, labels.length);
+        resultado[labels.length] = nome;
+        resultado[labels.length + 1] = valor;
+        return resultado;
+    }
+
+    private static final class Endpoint {
+
+        private final String[] labels;
+
+        private final Histograma latencia = new Histograma();
+
+        private final LongAdder sqlComandos = new LongAdder();
+
+        private final LongAdder sqlNanos = new LongAdder();
+
+        private final LongAdder repositorioNanos = new LongAdder();
+
+        private Endpoint(String metodo, String uri, String status) {
+            this.labels = new String[] {"method", metodo, "uri", uri, "status", status};
+        }
+    }
+
+    private static final class Pool {
+
+        private final org.apache.tomcat.jdbc.pool.DataSource dataSource;
+
+        private final Histograma espera = new Histograma();
+
+        private Pool(org.apache.tomcat.jdbc.pool.DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sippulse.pet.metricas;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mede o tempo gasto nos métodos dos repositories do Spring Data durante a requisição atual.
+ *
+ * <p>O advice é colocado antes dos advisors do próprio repository, então o tempo inclui a transação,
+ * a tradução de exceções e o mapeamento dos resultados, além do SQL.</p>
+ */
+@Component
+public class RepositorioMetricasPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    private static final long serialVersionUID = 1L;
+
+    public RepositorioMetricasPostProcessor() {
+        MethodInterceptor medidor = invocation -> {
+            Medicao medicao = Medicao.entrarRepositorio();
+            if (medicao == null) {
+                return invocation.proceed();
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                medicao.sairRepositorio(System.nanoTime() - inicio);
+            }
+        };
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(Repository.class)), medidor);
+        setBeforeExistingAdvisors(true);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sippulse.pet.metricas;
+
+import org.apache.tomcat.jdbc.pool.interceptor.AbstractCreateStatementInterceptor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Interceptor do pool de conexões que conta e mede os comandos SQL executados na requisição atual.
+ *
+ * <p>Configurado em {@code spring.datasource.jdbc-interceptors}; cada {@code execute*} de um statement,
+ * inclusive {@code executeBatch}, conta como um comando.</p>
+ */
+public class SqlMetricasInterceptor extends AbstractCreateStatementInterceptor {
+
+    @Override
+    public Object createStatement(Object proxy, Method method, Object[] args, Object statement, long time) {
+        return Proxy.newProxyInstance(SqlMetricasInterceptor.class.getClassLoader(),
+            new Class<?>[] {method.getReturnType()}, new Medidor(statement));
+    }
+
+    @Override
+    public void closeInvoked() {
+        // nada a liberar, os statements são medidos um a um
+    }
+
+    private final class Medidor implements InvocationHandler {
+
+        private final Object statement;
+
+        private Medidor(Object statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (compare(EQUALS_VAL, method)) {
+                return proxy == args[0];
+            }
+            if (compare(HASHCODE_VAL, method)) {
+                return System.identityHashCode(proxy);
+            }
+            boolean execucao = isExecute(method, false);
+            long inicio = execucao ? System.nanoTime() : 0;
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (execucao) {
+                    Medicao.registrarSql(System.nanoTime() - inicio);
+                }
+            }
+        }
+    }
+}
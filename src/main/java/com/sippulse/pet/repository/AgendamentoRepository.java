@@ -1,9 +1,20 @@
 package com.sippulse.pet.repository;
 
 import com.sippulse.pet.entity.Agendamento;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 
 /**
  * Spring Data  repository para a entidade Agendamento.
@@ -12,5 +23,162 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface AgendamentoRepository extends JpaRepository<Agendamento, Long> {
 
+    /**
+     * Carrega as associações na mesma consulta, evitando um select extra por linha.
+     */
+    String SELECT_WITH_ASSOCIATIONS = "select a from Agendamento a left join fetch a.cliente " +
+        "left join fetch a.pet p left join fetch p.cliente left join fetch a.usuario ";
+
+    @Query(SELECT_WITH_ASSOCIATIONS + "order by a.data asc, a.id asc")
+    List<Agendamento> findAllWithAssociations();
+
+    @Query(SELECT_WITH_ASSOCIATIONS + "where a.id = :id")
+    Agendamento findOneWithAssociations(@Param("id") Long id);
+
+    /**
+     * Projeção plana usada nas leituras da API, sem carregar as entidades associadas.
+     */
+    String SELECT_DTO = "select new com.sippulse.pet.service.dto.AgendamentoDTO(a.id, a.versao, a.data, c.id, " +
+        "c.nome, p.id, p.nome, u.id, u.nome) from Agendamento a left join a.cliente c left join a.pet p " +
+        "left join a.usuario u ";
+
+    /**
+     * A mesma projeção, partindo do cliente, para as consultas que o filtram por outras colunas: o banco encontra o
+     * cliente pelo índice e chega aos agendamentos pelo de {@code cliente_id}. O H2 não reordena joins seguidos de
+     * joins externos, então a ordem do {@code from} é a do plano.
+     */
+    String SELECT_DTO_DO_CLIENTE = "select new com.sippulse.pet.service.dto.AgendamentoDTO(a.id, a.versao, a.data, " +
+        "c.id, c.nome, p.id, p.nome, u.id, u.nome) from Cliente c, Agendamento a left join a.pet p " +
+        "left join a.usuario u where a.cliente = c ";
+
+    /**
+     * Projeção com apenas os ids do pet e do usuario, sem join nas suas tabelas; os nomes vêm dos caches
+     * de {@link com.sippulse.pet.service.PetService} e {@link com.sippulse.pet.service.UsuarioService}.
+     */
+    String SELECT_DTO_REFERENCIAS = "select new com.sippulse.pet.service.dto.AgendamentoDTO(a.id, a.versao, a.data, " +
+        "c.id, c.nome, a.pet.id, a.usuario.id) from Agendamento a left join a.cliente c ";
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.id = :id")
+    AgendamentoDTO findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.id in :ids")
+    List<AgendamentoDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO_REFERENCIAS + "order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.data > :data or (a.data = :data and a.id > :id) " +
+        "order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findPageAfter(@Param("data") Date data, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where (a.data is null and a.id > :id) or a.data is not null " +
+        "order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findPageAfterSemData(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.cliente.id = :clienteId order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findFirstPageByCliente(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.cliente.id = :clienteId " +
+        "and (a.data > :data or (a.data = :data and a.id > :id)) order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findPageAfterByCliente(@Param("clienteId") Long clienteId, @Param("data") Date data,
+                                                @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.cliente.id = :clienteId and " +
+        "((a.data is null and a.id > :id) or a.data is not null) order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findPageAfterSemDataByCliente(@Param("clienteId") Long clienteId, @Param("id") Long id,
+                                                       Pageable pageable);
+
+    @Query(SELECT_DTO_REFERENCIAS + "where a.usuario.id = :usuarioId and a.data >= :inicio and a.data < :fim " +
+        "order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findByUsuarioAndPeriodo(@Param("usuarioId") Long usuarioId, @Param("inicio") Date inicio,
+                                                 @Param("fim") Date fim);
+
+    @Query(SELECT_DTO_DO_CLIENTE + "and c.cpf = :cpf order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findByClienteCpf(@Param("cpf") String cpf);
+
+    @Query(SELECT_DTO + "where a.cliente.id = :clienteId and a.data >= :inicio and a.data < :fim " +
+        "order by a.data asc, a.id asc")
+    List<AgendamentoDTO> findByClienteAndPeriodo(@Param("clienteId") Long clienteId, @Param("inicio") Date inicio,
+                                                 @Param("fim") Date fim);
+
+    @Query("select a.cliente.cpf from Agendamento a where a.id = :id")
+    String findClienteCpfById(@Param("id") Long id);
+
+    /**
+     * Veterinário e data de um agendamento, como {@code [usuarioId, data]}.
+     */
+    @Query("select a.usuario.id, a.data from Agendamento a where a.id = :id")
+    List<Object[]> findUsuarioIdAndDataById(@Param("id") Long id);
+
+    /**
+     * Veterinário e data dos agendamentos do período, como {@code [usuarioId, data]}.
+     */
+    @Query("select a.usuario.id, a.data from Agendamento a where a.usuario is not null " +
+        "and a.data >= :inicio and a.data < :fim")
+    List<Object[]> findUsuarioIdAndDataByPeriodo(@Param("inicio") Date inicio, @Param("fim") Date fim);
+
+    /**
+     * Id e data dos agendamentos do veterinário no período, como {@code [id, data]}, travando as linhas até o fim
+     * da transação. Sem join: o H2 não aceita {@code for update} com join.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a.id, a.data from Agendamento a where a.usuario.id = :usuarioId and a.data >= :inicio " +
+        "and a.data < :fim order by a.id asc")
+    List<Object[]> findIdAndDataByUsuarioAndPeriodoForUpdate(@Param("usuarioId") Long usuarioId,
+                                                            @Param("inicio") Date inicio, @Param("fim") Date fim);
+
+    @Query("select distinct c.cpf from Agendamento a join a.cliente c where a.id in :ids and c.cpf is not null")
+    List<String> findClienteCpfsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Desloca a data dos agendamentos em {@code minutos} e guarda o novo horário com o sinal trocado, para que
+     * agendamentos que passam para o horário de outro do mesmo lote não violem a restrição única no meio do
+     * comando; {@link #confirmarSlots} restaura o sinal.
+     */
+    @Modifying
+    @Query(value = "update agendamento set data = timestampadd(minute, :minutos, data), slot = -(slot + :minutos), " +
+        "versao = versao + 1, ultima_alteracao = :agora where id in :ids", nativeQuery = true)
+    int deslocar(@Param("ids") Collection<Long> ids, @Param("minutos") int minutos, @Param("agora") Date agora);
+
+    @Modifying
+    @Query(value = "update agendamento set slot = -slot where id in :ids and slot < 0", nativeQuery = true)
+    int confirmarSlots(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Id e data dos agendamentos com data e sem horário, como {@code [id, data]}: os de antes da coluna {@code slot}.
+     */
+    @Query("select a.id, a.data from Agendamento a where a.slot is null and a.data is not null order by a.id asc")
+    List<Object[]> findIdAndDataSemSlot(Pageable pageable);
+
+    /**
+     * Grava o horário de um agendamento que ainda não tem, sem mudar a versão: o horário não faz parte da
+     * representação.
+     */
+    @Modifying
+    @Query("update Agendamento a set a.slot = :slot where a.id = :id and a.slot is null")
+    int preencherSlot(@Param("id") Long id, @Param("slot") Long slot);
+
+    @Modifying
+    @Query(value = "update agendamento set usuario_id = :usuarioId, versao = versao + 1, ultima_alteracao = :agora " +
+        "where id in :ids", nativeQuery = true)
+    int reatribuir(@Param("ids") Collection<Long> ids, @Param("usuarioId") Long usuarioId, @Param("agora") Date agora);
+
+    @Modifying
+    @Query("delete from Agendamento a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.data from Agendamento a where a.usuario.id = :usuarioId and a.data >= :inicio and a.data < :fim")
+    List<Date> findDatasByUsuarioAndPeriodo(@Param("usuarioId") Long usuarioId, @Param("inicio") Date inicio,
+                                            @Param("fim") Date fim);
+
+    /**
+     * Versão e última alteração, seguidas das do cliente, do pet e do usuario, para {@link com.sippulse.pet.service.Revisao}.
+     */
+    @Query("select a.versao, a.ultimaAlteracao, c.versao, c.ultimaAlteracao, p.versao, p.ultimaAlteracao, " +
+        "u.versao, u.ultimaAlteracao from Agendamento a left join a.cliente c left join a.pet p left join a.usuario u " +
+        "where a.id = :id")
+    List<Object[]> findRevisaoById(@Param("id") Long id);
 
+    @Query("select a.versao from Agendamento a where a.id = :id")
+    Long findVersaoById(@Param("id") Long id);
 }
@@ -1,10 +1,17 @@
 package com.sippulse.pet.repository;
 
 import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 /**
@@ -14,4 +21,45 @@ import java.util.Optional;
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
+    /**
+     * Projeção plana usada nas leituras da API.
+     */
+    String SELECT_DTO = "select new com.sippulse.pet.service.dto.ClienteDTO(c.id, c.versao, c.nome, c.email, c.endereco, " +
+        "c.telefone, c.cpf) from Cliente c ";
+
+    @Query(SELECT_DTO + "where c.id = :id")
+    ClienteDTO findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "where c.id in :ids")
+    List<ClienteDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO + "order by c.id asc")
+    List<ClienteDTO> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_DTO + "where c.id > :id order by c.id asc")
+    List<ClienteDTO> findPageAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select c.cpf from Cliente c where c.id = :id")
+    String findCpfById(@Param("id") Long id);
+
+    @Query("select c.cpf, c.nome from Cliente c where c.id = :id")
+    List<Object[]> findCpfENomeById(@Param("id") Long id);
+
+    @Query("select c.cpf from Cliente c where c.cpf in :cpfs")
+    Set<String> findCpfsIn(@Param("cpfs") Collection<String> cpfs);
+
+    @Query("select c.id from Cliente c where c.id in :ids")
+    Set<Long> findIdsIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Versão e última alteração, para {@link com.sippulse.pet.service.Revisao}.
+     */
+    @Query("select c.versao, c.ultimaAlteracao from Cliente c where c.id = :id")
+    List<Object[]> findRevisaoById(@Param("id") Long id);
+
+    @Query("select c.versao from Cliente c where c.id = :id")
+    Long findVersaoById(@Param("id") Long id);
+
+    @Query("select max(c.id) from Cliente c")
+    Long findMaxId();
 }
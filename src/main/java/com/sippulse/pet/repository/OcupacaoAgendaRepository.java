@@ -0,0 +1,50 @@
+package com.sippulse.pet.repository;
+
+import com.sippulse.pet.entity.OcupacaoAgenda;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Temporal;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.TemporalType;
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Spring Data  repository para a entidade OcupacaoAgenda.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OcupacaoAgendaRepository extends JpaRepository<OcupacaoAgenda, OcupacaoAgenda.Chave> {
+
+    /**
+     * Soma {@code delta} aos agendamentos do veterinário no dia, criando a linha se ela não existir, em um
+     * único comando: agendamentos simultâneos no mesmo dia não disputam a criação da linha.
+     */
+    @Modifying
+    @Query(value = "insert into ocupacao_agenda (usuario_id, dia, agendamentos) values (:usuarioId, :dia, :delta) " +
+        "on duplicate key update agendamentos = agendamentos + :delta", nativeQuery = true)
+    int somar(@Param("usuarioId") Long usuarioId, @Param("dia") @Temporal(TemporalType.DATE) Date dia,
+              @Param("delta") int delta);
+
+    @Query("select o from OcupacaoAgenda o where o.dia >= :de and o.dia <= :ate and o.agendamentos > 0 " +
+        "order by o.dia asc, o.usuarioId asc")
+    List<OcupacaoAgenda> findByPeriodo(@Param("de") @Temporal(TemporalType.DATE) Date de,
+                                       @Param("ate") @Temporal(TemporalType.DATE) Date ate);
+
+    @Query("select o from OcupacaoAgenda o where o.usuarioId = :usuarioId and o.dia >= :de and o.dia <= :ate " +
+        "and o.agendamentos > 0 order by o.dia asc")
+    List<OcupacaoAgenda> findByUsuarioAndPeriodo(@Param("usuarioId") Long usuarioId,
+                                                 @Param("de") @Temporal(TemporalType.DATE) Date de,
+                                                 @Param("ate") @Temporal(TemporalType.DATE) Date ate);
+
+    /**
+     * Apaga todas as linhas em um único comando, travando a tabela até o fim da transação.
+     */
+    @Modifying
+    @Query("delete from OcupacaoAgenda o")
+    int apagarTodas();
+}
@@ -1,9 +1,16 @@
 package com.sippulse.pet.repository;
 
 import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.service.dto.PetDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 
 /**
  * Spring Data  repository para a entidade Pet.
@@ -12,4 +19,49 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long> {
 
+    /**
+     * Projeção plana usada nas leituras da API.
+     */
+    String SELECT_DTO = "select new com.sippulse.pet.service.dto.PetDTO(p.id, p.versao, p.nome, p.especieAnimal, p.raca, " +
+        "c.id, c.nome) from Pet p left join p.cliente c ";
+
+    @Query(SELECT_DTO + "where p.id = :id")
+    PetDTO findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "where p.id in :ids")
+    List<PetDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id from Pet p where p.cliente.id = :clienteId")
+    List<Long> findIdsByClienteId(@Param("clienteId") Long clienteId);
+
+    @Query(SELECT_DTO + "where c.id = :clienteId order by p.id asc")
+    List<PetDTO> findDTOsByClienteId(@Param("clienteId") Long clienteId);
+
+    @Query(SELECT_DTO + "where c.id = :clienteId order by p.id asc")
+    List<PetDTO> findFirstPageByCliente(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    @Query(SELECT_DTO + "where c.id = :clienteId and p.id > :id order by p.id asc")
+    List<PetDTO> findPageAfterByCliente(@Param("clienteId") Long clienteId, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_DTO + "order by p.id asc")
+    List<PetDTO> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_DTO + "where p.id > :id order by p.id asc")
+    List<PetDTO> findPageAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select p from Pet p left join fetch p.cliente")
+    List<Pet> findAllWithCliente();
+
+    @Query("select p from Pet p left join fetch p.cliente where p.id = :id")
+    Pet findOneWithCliente(@Param("id") Long id);
+
+    /**
+     * Versão e última alteração, seguidas das do cliente, para {@link com.sippulse.pet.service.Revisao}.
+     */
+    @Query("select p.versao, p.ultimaAlteracao, c.versao, c.ultimaAlteracao from Pet p left join p.cliente c " +
+        "where p.id = :id")
+    List<Object[]> findRevisaoById(@Param("id") Long id);
+
+    @Query("select p.versao from Pet p where p.id = :id")
+    Long findVersaoById(@Param("id") Long id);
 }
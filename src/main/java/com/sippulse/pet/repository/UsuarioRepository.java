@@ -1,9 +1,16 @@
 package com.sippulse.pet.repository;
 
 import com.sippulse.pet.entity.Usuario;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 
 /**
  * Spring Data  repository para a entidade Usuario.
@@ -12,4 +19,30 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    /**
+     * Projeção plana usada nas leituras da API.
+     */
+    String SELECT_DTO = "select new com.sippulse.pet.service.dto.UsuarioDTO(u.id, u.versao, u.dataCadastro, u.nome, " +
+        "u.usuarioTipo) from Usuario u ";
+
+    @Query(SELECT_DTO + "where u.id = :id")
+    UsuarioDTO findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + "where u.id in :ids")
+    List<UsuarioDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO + "order by u.id asc")
+    List<UsuarioDTO> findFirstPage(Pageable pageable);
+
+    @Query(SELECT_DTO + "where u.id > :id order by u.id asc")
+    List<UsuarioDTO> findPageAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Versão e última alteração, para {@link com.sippulse.pet.service.Revisao}.
+     */
+    @Query("select u.versao, u.ultimaAlteracao from Usuario u where u.id = :id")
+    List<Object[]> findRevisaoById(@Param("id") Long id);
+
+    @Query("select u.versao from Usuario u where u.id = :id")
+    Long findVersaoById(@Param("id") Long id);
 }
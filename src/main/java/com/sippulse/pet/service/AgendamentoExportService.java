@@ -0,0 +1,81 @@
+package com.sippulse.pet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sippulse.pet.repository.AgendamentoRepository;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service para exportar todos os {@link com.sippulse.pet.entity.Agendamento} em JSON delimitado por linha (NDJSON).
+ *
+ * <p>As linhas são lidas com um cursor do servidor e escritas uma a uma, sem materializar a tabela:
+ * o uso de heap não depende do número de agendamentos. O fetch size padrão, {@link Integer#MIN_VALUE},
+ * ativa o result set em streaming do driver MySQL; outros bancos precisam de um valor positivo em
+ * {@code pet.export.fetch-size}.</p>
+ */
+@Service
+public class AgendamentoExportService {
+
+    private final Logger log = LoggerFactory.getLogger(AgendamentoExportService.class);
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectWriter writer;
+
+    @Value("${pet.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Autowired
+    public AgendamentoExportService(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Escreve todos os agendamentos, ordenados por id, como uma linha JSON por agendamento.
+     *
+     * @param out o destino, que não é fechado.
+     * @return o número de agendamentos exportados.
+     * @throws IOException se a escrita falhar.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) throws IOException {
+        log.debug("Request to export all Agendamentos");
+        ScrollableResults rows = entityManager.unwrap(Session.class)
+            .createQuery(AgendamentoRepository.SELECT_DTO + "order by a.id asc")
+            .setReadOnly(true)
+            .setFetchSize(fetchSize)
+            .scroll(ScrollMode.FORWARD_ONLY);
+        long total = 0;
+        try {
+            while (rows.next()) {
+                out.write(writer.writeValueAsBytes((AgendamentoDTO) rows.get(0)));
+                out.write('\n');
+                if (++total == 1 || total % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        } finally {
+            rows.close();
+        }
+        out.flush();
+        log.debug("Exported {} Agendamentos", total);
+        return total;
+    }
+}
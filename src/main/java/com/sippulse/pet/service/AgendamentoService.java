@@ -1,8 +1,14 @@
 package com.sippulse.pet.service;
 
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Agendamento;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Interface para gerenciar {@link Agendamento}.
@@ -14,6 +20,7 @@ public interface AgendamentoService {
      *
      * @param agendamento the entity to save.
      * @return the persisted entity.
+     * @throws HorarioIndisponivelException if the usuario or the pet is already booked in the slot.
      */
     Agendamento save(Agendamento agendamento);
 
@@ -24,6 +31,56 @@ public interface AgendamentoService {
      */
     List<Agendamento> findAll();
 
+    /**
+     * Get one page of the agendamentos, ordered by data and id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    Pagina<AgendamentoDTO> findPage(PaginationUtil.Cursor cursor, int size);
+
+    /**
+     * Get one page of the agendamentos, ordered by data and id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    Pagina<AgendamentoDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos);
+
+    /**
+     * Get one page of the agendamentos of one cliente, ordered by data and id, reading only the requested fields.
+     *
+     * @param clienteId the id of the cliente.
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    Pagina<AgendamentoDTO> findPageByCliente(Long clienteId, PaginationUtil.Cursor cursor, int size, Campos campos);
+
+    /**
+     * Get the agendamentos of one usuario (veterinario) in a period, ordered by data.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days to search.
+     * @return the list of read models.
+     */
+    List<AgendamentoDTO> findByUsuarioAndPeriodo(Long usuarioId, Periodo periodo);
+
+    /**
+     * Get the agendamentos of one usuario (veterinario) in a period, ordered by data, reading only the requested
+     * fields.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days to search.
+     * @param campos the fields to read.
+     * @return the list of read models.
+     */
+    List<AgendamentoDTO> findByUsuarioAndPeriodo(Long usuarioId, Periodo periodo, Campos campos);
+
 
     /**
      * Get the "id" agendamento.
@@ -33,6 +90,76 @@ public interface AgendamentoService {
      */
     Agendamento findOneById(Long id);
 
+    /**
+     * Get the "id" agendamento read model.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    AgendamentoDTO findDTOById(Long id);
+
+    /**
+     * Get the "id" agendamento read model, reading only the requested fields.
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    AgendamentoDTO findDTOById(Long id, Campos campos);
+
+    /**
+     * Get the agendamento read models of the given ids, reading only the requested fields.
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    Map<Long, AgendamentoDTO> findDTOsByIds(Collection<Long> ids, Campos campos);
+
+    /**
+     * Get the current revision of the "id" agendamento, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    Revisao findRevisao(Long id);
+
+    /**
+     * Shift all the agendamentos of one usuario (veterinario) in a period by the same number of minutes, in a
+     * single transaction.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days of the agendamentos to shift.
+     * @param minutos the shift, a non-zero multiple of the slot duration; negative moves them earlier.
+     * @return the ids of the agendamentos shifted.
+     * @throws IllegalArgumentException if {@code minutos} does not keep the agendamentos aligned to the slots, or
+     * moves one of them across a UTC offset change.
+     * @throws HorarioIndisponivelException if the usuario or a pet is already booked in one of the new slots.
+     */
+    List<Long> deslocar(Long usuarioId, Periodo periodo, int minutos);
+
+    /**
+     * Move all the agendamentos of one usuario (veterinario) in a period to another usuario, in a single
+     * transaction.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days of the agendamentos to move.
+     * @param novoUsuarioId the id of the usuario that takes the agendamentos.
+     * @return the ids of the agendamentos moved.
+     * @throws IllegalArgumentException if {@code novoUsuarioId} is missing, the same usuario or does not exist.
+     * @throws HorarioIndisponivelException if the new usuario is already booked in one of the slots.
+     */
+    List<Long> reatribuir(Long usuarioId, Periodo periodo, Long novoUsuarioId);
+
+    /**
+     * Delete all the agendamentos of one usuario (veterinario) in a period, in a single transaction.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days of the agendamentos to delete.
+     * @return the ids of the agendamentos deleted.
+     */
+    List<Long> cancelar(Long usuarioId, Periodo periodo);
+
     /**
      * Delete the "id" agendamento.
      *
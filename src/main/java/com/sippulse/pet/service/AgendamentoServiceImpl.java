@@ -1,14 +1,35 @@
 package com.sippulse.pet.service;
 
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Agendamento;
 import com.sippulse.pet.repository.AgendamentoRepository;
+import com.sippulse.pet.repository.ClienteRepository;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
+import com.sippulse.pet.service.dto.PetDTO;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service Implementation for managing {@link Agendamento}.
@@ -19,24 +40,101 @@ public class AgendamentoServiceImpl implements AgendamentoService {
 
     private final Logger log = LoggerFactory.getLogger(AgendamentoServiceImpl.class);
 
+    private static final String ORDEM = "order by a.data asc, a.id asc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private final AgendamentoRepository agendamentoRepository;
 
+    private final ClienteRepository clienteRepository;
+
+    private final AgendamentosPorCpfCache agendamentosPorCpfCache;
+
+    private final GradeHorarios gradeHorarios;
+
+    private final OcupacaoAgendaService ocupacaoAgendaService;
+
+    private final PetService petService;
+
+    private final UsuarioService usuarioService;
+
     @Autowired
-    public AgendamentoServiceImpl(AgendamentoRepository agendamentoRepository) {
+    public AgendamentoServiceImpl(AgendamentoRepository agendamentoRepository, ClienteRepository clienteRepository,
+                                  AgendamentosPorCpfCache agendamentosPorCpfCache, GradeHorarios gradeHorarios,
+                                  OcupacaoAgendaService ocupacaoAgendaService, PetService petService,
+                                  UsuarioService usuarioService) {
         this.agendamentoRepository = agendamentoRepository;
+        this.clienteRepository = clienteRepository;
+        this.agendamentosPorCpfCache = agendamentosPorCpfCache;
+        this.gradeHorarios = gradeHorarios;
+        this.ocupacaoAgendaService = ocupacaoAgendaService;
+        this.petService = petService;
+        this.usuarioService = usuarioService;
     }
 
     /**
      * Save a agendamento.
      *
+     * <p>Double bookings are rejected by the unique constraints on (usuario, slot) and (pet, slot): the row is
+     * flushed immediately so that a concurrent booking of the same slot fails here, without locks. The agenda
+     * occupancy is moved only after the row was written, in the same transaction.</p>
+     *
      * @param agendamento the entity to save.
      * @return the persisted entity.
+     * @throws HorarioIndisponivelException if the usuario or the pet is already booked in the slot.
      */
     @Override
     public Agendamento save(Agendamento agendamento) {
         log.debug("Request to save Agendamento : {}", agendamento);
-        return agendamentoRepository.save(agendamento);
+        String cpfAnterior = agendamento.getId() == null ? null : agendamentoRepository.findClienteCpfById(agendamento.getId());
+        String cpf = agendamento.getCliente() == null || agendamento.getCliente().getId() == null
+            ? null : clienteRepository.findCpfById(agendamento.getCliente().getId());
+        agendamentosPorCpfCache.evictAfterCommit(cpfAnterior, cpf);
+        Object[] anterior = agendamento.getId() == null ? null : findUsuarioIdAndData(agendamento.getId());
+        Long usuarioAnterior = anterior == null ? null : (Long) anterior[0];
+        Date dataAnterior = anterior == null ? null : (Date) anterior[1];
+        gradeHorarios.recalcularAposCommit(usuarioAnterior, dataAnterior);
+        gradeHorarios.recalcularAposCommit(
+            agendamento.getUsuario() == null ? null : agendamento.getUsuario().getId(), agendamento.getData());
+        if (agendamento.getId() != null && agendamento.getVersao() == null) {
+            // without a version Spring Data would treat the entity as new and persist it
+            agendamento.setVersao(agendamentoRepository.findVersaoById(agendamento.getId()));
+        }
+        agendamento.setSlot(gradeHorarios.slot(agendamento.getData()));
+        Agendamento result;
+        try {
+            result = agendamentoRepository.saveAndFlush(agendamento);
+        } catch (DataIntegrityViolationException e) {
+            throw horarioIndisponivel(e);
+        }
+        ocupacaoAgendaService.mover(usuarioAnterior, dataAnterior,
+            result.getUsuario() == null ? null : result.getUsuario().getId(), result.getData());
+        return result;
+    }
+
+    /**
+     * The {@link HorarioIndisponivelException} for a violation of the slot constraints, or the violation itself.
+     */
+    private static RuntimeException horarioIndisponivel(DataIntegrityViolationException e) {
+        String constraint = constraintName(e);
+        if (constraint.contains(Agendamento.UX_USUARIO_SLOT)) {
+            return new HorarioIndisponivelException("usuario", e);
+        }
+        if (constraint.contains(Agendamento.UX_PET_SLOT)) {
+            return new HorarioIndisponivelException("pet", e);
+        }
+        return e;
+    }
+
+    private static String constraintName(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException
+            && ((ConstraintViolationException) e.getCause()).getConstraintName() != null) {
+            return ((ConstraintViolationException) e.getCause()).getConstraintName().toLowerCase(Locale.ROOT);
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message == null ? "" : message.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -48,9 +146,258 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     @Transactional(readOnly = true)
     public List<Agendamento> findAll() {
         log.debug("Request to get all Agendamentos");
-        return agendamentoRepository.findAll();
+        return agendamentoRepository.findAllWithAssociations();
     }
 
+    /**
+     * Get one page of the agendamentos, ordered by data and id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<AgendamentoDTO> findPage(PaginationUtil.Cursor cursor, int size) {
+        log.debug("Request to get a page of Agendamentos after : {}", cursor == null ? null : cursor.getId());
+        List<AgendamentoDTO> rows;
+        if (cursor == null) {
+            rows = agendamentoRepository.findFirstPage(PaginationUtil.limit(size));
+        } else if (cursor.getData() == null) {
+            rows = agendamentoRepository.findPageAfterSemData(cursor.getId(), PaginationUtil.limit(size));
+        } else {
+            rows = agendamentoRepository.findPageAfter(cursor.getData(), cursor.getId(), PaginationUtil.limit(size));
+        }
+        preencherReferencias(rows);
+        return PaginationUtil.page(rows, size,
+            agendamento -> PaginationUtil.encodeCursor(agendamento.getData(), agendamento.getId()));
+    }
+
+    /**
+     * Get one page of the agendamentos, ordered by data and id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<AgendamentoDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos) {
+        if (campos.isTodos()) {
+            return findPage(cursor, size);
+        }
+        log.debug("Request to get a page of Agendamentos after {} with fields {}",
+            cursor == null ? null : cursor.getId(), campos);
+        Projecao.Consulta<AgendamentoDTO> consulta;
+        if (cursor == null) {
+            consulta = Projecoes.AGENDAMENTO.consulta(entityManager, campos, ORDEM);
+        } else if (cursor.getData() == null) {
+            consulta = Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+                "where (a.data is null and a.id > :id) or a.data is not null " + ORDEM)
+                .parametro("id", cursor.getId());
+        } else {
+            consulta = Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+                "where a.data > :data or (a.data = :data and a.id > :id) " + ORDEM)
+                .parametro("data", cursor.getData())
+                .parametro("id", cursor.getId());
+        }
+        List<AgendamentoDTO> rows = consulta.limite(size + 1).listar();
+        return PaginationUtil.page(rows, size,
+            agendamento -> PaginationUtil.encodeCursor(agendamento.getData(), agendamento.getId()));
+    }
+
+    /**
+     * Get one page of the agendamentos of one cliente, ordered by data and id, reading only the requested fields.
+     *
+     * <p>Keyset pagination over {@code idx_agendamento_cliente_data}, so a page costs the same however many
+     * agendamentos the cliente has.</p>
+     *
+     * @param clienteId the id of the cliente.
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<AgendamentoDTO> findPageByCliente(Long clienteId, PaginationUtil.Cursor cursor, int size,
+                                                    Campos campos) {
+        log.debug("Request to get a page of Agendamentos of Cliente {} after {} with fields {}", clienteId,
+            cursor == null ? null : cursor.getId(), campos);
+        List<AgendamentoDTO> rows;
+        if (campos.isTodos()) {
+            if (cursor == null) {
+                rows = agendamentoRepository.findFirstPageByCliente(clienteId, PaginationUtil.limit(size));
+            } else if (cursor.getData() == null) {
+                rows = agendamentoRepository.findPageAfterSemDataByCliente(clienteId, cursor.getId(),
+                    PaginationUtil.limit(size));
+            } else {
+                rows = agendamentoRepository.findPageAfterByCliente(clienteId, cursor.getData(), cursor.getId(),
+                    PaginationUtil.limit(size));
+            }
+            preencherReferencias(rows);
+        } else {
+            Projecao.Consulta<AgendamentoDTO> consulta;
+            if (cursor == null) {
+                consulta = Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+                    "where a.cliente.id = :clienteId " + ORDEM);
+            } else if (cursor.getData() == null) {
+                consulta = Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+                    "where a.cliente.id = :clienteId and ((a.data is null and a.id > :id) or a.data is not null) " +
+                        ORDEM)
+                    .parametro("id", cursor.getId());
+            } else {
+                consulta = Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+                    "where a.cliente.id = :clienteId and (a.data > :data or (a.data = :data and a.id > :id)) " +
+                        ORDEM)
+                    .parametro("data", cursor.getData())
+                    .parametro("id", cursor.getId());
+            }
+            rows = consulta.parametro("clienteId", clienteId).limite(size + 1).listar();
+        }
+        return PaginationUtil.page(rows, size,
+            agendamento -> PaginationUtil.encodeCursor(agendamento.getData(), agendamento.getId()));
+    }
+
+    /**
+     * Get the agendamentos of one usuario (veterinario) in a period, ordered by data.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days to search.
+     * @return the list of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgendamentoDTO> findByUsuarioAndPeriodo(Long usuarioId, Periodo periodo) {
+        log.debug("Request to get Agendamentos of Usuario {} in {}", usuarioId, periodo);
+        return preencherReferencias(
+            agendamentoRepository.findByUsuarioAndPeriodo(usuarioId, periodo.getInicio(), periodo.getFim()));
+    }
+
+    /**
+     * Get the agendamentos of one usuario (veterinario) in a period, ordered by data, reading only the requested
+     * fields.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days to search.
+     * @param campos the fields to read.
+     * @return the list of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgendamentoDTO> findByUsuarioAndPeriodo(Long usuarioId, Periodo periodo, Campos campos) {
+        if (campos.isTodos()) {
+            return findByUsuarioAndPeriodo(usuarioId, periodo);
+        }
+        log.debug("Request to get Agendamentos of Usuario {} in {} with fields {}", usuarioId, periodo, campos);
+        return Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+            "where a.usuario.id = :usuarioId and a.data >= :inicio and a.data < :fim " + ORDEM)
+            .parametro("usuarioId", usuarioId)
+            .parametro("inicio", periodo.getInicio())
+            .parametro("fim", periodo.getFim())
+            .listar();
+    }
+
+
+    /**
+     * Get one agendamento read model by id.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AgendamentoDTO findDTOById(Long id) {
+        log.debug("Request to get AgendamentoDTO : {}", id);
+        AgendamentoDTO agendamento = agendamentoRepository.findDTOById(id);
+        if (agendamento != null) {
+            preencherReferencias(Collections.singletonList(agendamento));
+        }
+        return agendamento;
+    }
+
+    /**
+     * Get one agendamento read model by id, reading only the requested fields.
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AgendamentoDTO findDTOById(Long id, Campos campos) {
+        if (campos.isTodos()) {
+            return findDTOById(id);
+        }
+        log.debug("Request to get AgendamentoDTO {} with fields {}", id, campos);
+        return Projecoes.AGENDAMENTO.consulta(entityManager, campos, "where a.id = :id")
+            .parametro("id", id)
+            .unico();
+    }
+
+    /**
+     * Get the agendamento read models of the given ids with a single query, reading only the requested fields.
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, AgendamentoDTO> findDTOsByIds(Collection<Long> ids, Campos campos) {
+        log.debug("Request to get AgendamentoDTOs {} with fields {}", ids, campos);
+        List<AgendamentoDTO> rows = campos.isTodos()
+            ? preencherReferencias(agendamentoRepository.findDTOsByIdIn(ids))
+            : Projecoes.AGENDAMENTO.consulta(entityManager, campos, "where a.id in :ids")
+                .parametro("ids", ids)
+                .listar();
+        Map<Long, AgendamentoDTO> agendamentos = new HashMap<>();
+        for (AgendamentoDTO agendamento : rows) {
+            agendamentos.put(agendamento.getId(), agendamento);
+        }
+        return agendamentos;
+    }
+
+    /**
+     * Fill the pet and usuario names of read models loaded without them, from the reference caches.
+     */
+    private List<AgendamentoDTO> preencherReferencias(List<AgendamentoDTO> agendamentos) {
+        Set<Long> petIds = new HashSet<>();
+        Set<Long> usuarioIds = new HashSet<>();
+        for (AgendamentoDTO agendamento : agendamentos) {
+            if (agendamento.getPetId() != null) {
+                petIds.add(agendamento.getPetId());
+            }
+            if (agendamento.getUsuarioId() != null) {
+                usuarioIds.add(agendamento.getUsuarioId());
+            }
+        }
+        Map<Long, PetDTO> pets = petIds.isEmpty() ? Collections.emptyMap() : petService.findDTOsByIds(petIds);
+        Map<Long, UsuarioDTO> usuarios = usuarioIds.isEmpty()
+            ? Collections.emptyMap() : usuarioService.findDTOsByIds(usuarioIds);
+        for (AgendamentoDTO agendamento : agendamentos) {
+            PetDTO pet = pets.get(agendamento.getPetId());
+            UsuarioDTO usuario = usuarios.get(agendamento.getUsuarioId());
+            agendamento.setPetNome(pet == null ? null : pet.getNome());
+            agendamento.setUsuarioNome(usuario == null ? null : usuario.getNome());
+        }
+        return agendamentos;
+    }
+
+    /**
+     * Get the current revision of the "id" agendamento, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Revisao findRevisao(Long id) {
+        log.debug("Request to get the revision of Agendamento : {}", id);
+        List<Object[]> linhas = agendamentoRepository.findRevisaoById(id);
+        return linhas.isEmpty() ? null : Revisao.of(linhas.get(0));
+    }
 
     /**
      * Delete the agendamento by id.
@@ -60,7 +407,162 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Agendamento : {}", id);
+        agendamentosPorCpfCache.evictAfterCommit(agendamentoRepository.findClienteCpfById(id));
+        Object[] anterior = findUsuarioIdAndData(id);
+        if (anterior != null) {
+            gradeHorarios.recalcularAposCommit((Long) anterior[0], (Date) anterior[1]);
+        }
         agendamentoRepository.delete(id);
+        if (anterior != null) {
+            ocupacaoAgendaService.mover((Long) anterior[0], (Date) anterior[1], null, null);
+        }
+    }
+
+    /**
+     * Shift all the agendamentos of one usuario (veterinario) in a period by the same number of minutes.
+     *
+     * <p>The rows are locked and then moved by two set-based statements: the first shifts the data and parks the
+     * shifted slot with the sign flipped, so that agendamentos moving onto each other's slots do not collide midway,
+     * and the second restores the sign. A collision with an agendamento outside the batch rolls everything back.</p>
+     *
+     * <p>The statements add the minutes to the stored data and slot, so a shift across a UTC offset change, such as
+     * daylight saving time, is rejected: there the database, {@link GradeHorarios#slot(Date)} and the datas
+     * computed here would disagree on the new local time.</p>
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days of the agendamentos to shift.
+     * @param minutos the shift, a non-zero multiple of the slot duration; negative moves them earlier.
+     * @return the ids of the agendamentos shifted.
+     * @throws IllegalArgumentException if {@code minutos} does not keep the agendamentos aligned to the slots, or
+     * moves one of them across a UTC offset change.
+     * @throws HorarioIndisponivelException if the usuario or a pet is already booked in one of the new slots.
+     */
+    @Override
+    public List<Long> deslocar(Long usuarioId, Periodo periodo, int minutos) {
+        log.debug("Request to shift Agendamentos of Usuario {} in {} by {} minutes", usuarioId, periodo, minutos);
+        if (minutos == 0 || !gradeHorarios.preservaSlots(minutos)) {
+            throw new IllegalArgumentException("Shift must be a non-zero multiple of the slot duration: " + minutos);
+        }
+        Selecao selecao = selecionar(usuarioId, periodo);
+        if (selecao.ids.isEmpty()) {
+            return selecao.ids;
+        }
+        List<Date> datas = new ArrayList<>(selecao.datas.size());
+        for (Date data : selecao.datas) {
+            if (!gradeHorarios.mesmoFuso(data, minutos)) {
+                throw new IllegalArgumentException("Shift crosses a UTC offset change: " + data + " by " + minutos +
+                    " minutes");
+            }
+            datas.add(new Date(data.getTime() + TimeUnit.MINUTES.toMillis(minutos)));
+        }
+        try {
+            agendamentoRepository.deslocar(selecao.ids, minutos, new Date());
+            agendamentoRepository.confirmarSlots(selecao.ids);
+        } catch (DataIntegrityViolationException e) {
+            throw horarioIndisponivel(e);
+        }
+        List<Date> afetadas = new ArrayList<>(selecao.datas);
+        afetadas.addAll(datas);
+        gradeHorarios.recalcularAposCommit(usuarioId, afetadas);
+        ocupacaoAgendaService.moverTodos(usuarioId, selecao.datas, usuarioId, datas);
+        return selecao.ids;
+    }
+
+    /**
+     * Move all the agendamentos of one usuario (veterinario) in a period to another usuario, with one set-based
+     * statement over the locked rows.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days of the agendamentos to move.
+     * @param novoUsuarioId the id of the usuario that takes the agendamentos.
+     * @return the ids of the agendamentos moved.
+     * @throws IllegalArgumentException if {@code novoUsuarioId} is missing, the same usuario or does not exist.
+     * @throws HorarioIndisponivelException if the new usuario is already booked in one of the slots.
+     */
+    @Override
+    public List<Long> reatribuir(Long usuarioId, Periodo periodo, Long novoUsuarioId) {
+        log.debug("Request to move Agendamentos of Usuario {} in {} to Usuario {}", usuarioId, periodo, novoUsuarioId);
+        if (novoUsuarioId == null || novoUsuarioId.equals(usuarioId)) {
+            throw new IllegalArgumentException("The new usuario must be another usuario: " + novoUsuarioId);
+        }
+        if (usuarioService.findDTOsByIds(Collections.singleton(novoUsuarioId)).isEmpty()) {
+            throw new IllegalArgumentException("Unknown usuario: " + novoUsuarioId);
+        }
+        Selecao selecao = selecionar(usuarioId, periodo);
+        if (selecao.ids.isEmpty()) {
+            return selecao.ids;
+        }
+        try {
+            agendamentoRepository.reatribuir(selecao.ids, novoUsuarioId, new Date());
+        } catch (DataIntegrityViolationException e) {
+            throw horarioIndisponivel(e);
+        }
+        gradeHorarios.recalcularAposCommit(usuarioId, selecao.datas);
+        gradeHorarios.recalcularAposCommit(novoUsuarioId, selecao.datas);
+        ocupacaoAgendaService.moverTodos(usuarioId, selecao.datas, novoUsuarioId, selecao.datas);
+        return selecao.ids;
+    }
+
+    /**
+     * Delete all the agendamentos of one usuario (veterinario) in a period, with one set-based statement over the
+     * locked rows.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days of the agendamentos to delete.
+     * @return the ids of the agendamentos deleted.
+     */
+    @Override
+    public List<Long> cancelar(Long usuarioId, Periodo periodo) {
+        log.debug("Request to delete Agendamentos of Usuario {} in {}", usuarioId, periodo);
+        Selecao selecao = selecionar(usuarioId, periodo);
+        if (selecao.ids.isEmpty()) {
+            return selecao.ids;
+        }
+        agendamentoRepository.deleteByIdIn(selecao.ids);
+        gradeHorarios.recalcularAposCommit(usuarioId, selecao.datas);
+        ocupacaoAgendaService.moverTodos(usuarioId, selecao.datas, null, null);
+        return selecao.ids;
+    }
+
+    /**
+     * Lock the agendamentos of the usuario in the period and evict their CPFs after the commit.
+     */
+    private Selecao selecionar(Long usuarioId, Periodo periodo) {
+        List<Object[]> linhas = agendamentoRepository.findIdAndDataByUsuarioAndPeriodoForUpdate(usuarioId,
+            periodo.getInicio(), periodo.getFim());
+        Selecao selecao = new Selecao(linhas.size());
+        for (Object[] linha : linhas) {
+            selecao.ids.add((Long) linha[0]);
+            selecao.datas.add((Date) linha[1]);
+        }
+        if (!selecao.ids.isEmpty()) {
+            agendamentosPorCpfCache.evictAfterCommit(
+                agendamentoRepository.findClienteCpfsByIdIn(selecao.ids).toArray(new String[0]));
+        }
+        return selecao;
+    }
+
+    /**
+     * The ids and datas of the locked agendamentos, in id order.
+     */
+    private static final class Selecao {
+
+        private final List<Long> ids;
+
+        private final List<Date> datas;
+
+        private Selecao(int tamanho) {
+            ids = new ArrayList<>(tamanho);
+            datas = new ArrayList<>(tamanho);
+        }
+    }
+
+    /**
+     * The usuario and data of the agendamento as stored, as {@code [usuarioId, data]}, or {@code null} if not found.
+     */
+    private Object[] findUsuarioIdAndData(Long id) {
+        List<Object[]> linhas = agendamentoRepository.findUsuarioIdAndDataById(id);
+        return linhas.isEmpty() ? null : linhas.get(0);
     }
 
     /**
@@ -72,6 +574,6 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     @Override
     @Transactional(readOnly = true)
     public Agendamento findOneById(Long id){
-        return agendamentoRepository.findOne(id);
+        return agendamentoRepository.findOneWithAssociations(id);
     }
 }
@@ -0,0 +1,84 @@
+package com.sippulse.pet.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.sippulse.pet.TransactionUtil;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache limitado e com expiração dos agendamentos consultados por CPF, usado pela
+ * consulta pública do cliente.
+ *
+ * <p>Escritas em {@link com.sippulse.pet.entity.Cliente} e {@link com.sippulse.pet.entity.Agendamento}
+ * invalidam os CPFs afetados depois do commit; a expiração limita o tempo de vida de uma entrada
+ * carregada em paralelo com uma escrita.</p>
+ */
+@Component
+public class AgendamentosPorCpfCache {
+
+    private final Logger log = LoggerFactory.getLogger(AgendamentosPorCpfCache.class);
+
+    @Value("${pet.cache.cpf.tamanho:10000}")
+    private long tamanho;
+
+    @Value("${pet.cache.cpf.expiracao-segundos:60}")
+    private long expiracaoSegundos;
+
+    private final CacheRegistry cacheRegistry;
+
+    private Cache<String, List<AgendamentoDTO>> cache;
+
+    @Autowired
+    public AgendamentosPorCpfCache(CacheRegistry cacheRegistry) {
+        this.cacheRegistry = cacheRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = cacheRegistry.criar("agendamentosPorCpf", tamanho, expiracaoSegundos);
+    }
+
+    /**
+     * Retorna os agendamentos do CPF, carregando-os com {@code loader} se não estiverem no cache.
+     *
+     * @param cpf o CPF do cliente.
+     * @param loader a consulta ao banco.
+     * @return a lista de agendamentos.
+     */
+    public List<AgendamentoDTO> get(String cpf, Callable<List<AgendamentoDTO>> loader) {
+        try {
+            return cache.get(cpf, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Invalida os CPFs depois do commit da transação corrente. Valores {@code null} são ignorados.
+     *
+     * @param cpfs os CPFs afetados pela escrita.
+     */
+    public void evictAfterCommit(String... cpfs) {
+        TransactionUtil.afterCommit(() -> {
+            for (String cpf : cpfs) {
+                if (cpf != null) {
+                    log.debug("Evicting Agendamentos of CPF from cache");
+                    cache.invalidate(cpf);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.sippulse.pet.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executor limitado que isola o acesso ao banco de um grupo de endpoints.
+ *
+ * <p>Um número fixo de threads atende uma fila limitada; com a fila cheia a tarefa é rejeitada na hora,
+ * em vez de esperar, para que uma consulta lenta não segure as threads das demais.</p>
+ */
+public final class Bulkhead {
+
+    private final String nome;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final LongAdder rejeitadas = new LongAdder();
+
+    Bulkhead(String nome, int threads, int fila, long timeoutMillis) {
+        this.nome = nome;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = tarefa -> {
+            Thread thread = new Thread(tarefa, "bulkhead-" + nome + "-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(fila), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Executa uma tarefa em uma das threads do bulkhead.
+     *
+     * <p>Cancelar o resultado tira a tarefa da fila ou, se ela já estiver executando, interrompe a thread.</p>
+     *
+     * @param tarefa a tarefa.
+     * @param <T> o tipo do resultado.
+     * @return o resultado da tarefa, que falha com {@link RejectedExecutionException} se a fila estiver cheia.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> tarefa) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        Future<?> execucao;
+        try {
+            execucao = executor.submit(() -> {
+                try {
+                    resultado.complete(tarefa.get());
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            resultado.completeExceptionally(e);
+            return resultado;
+        }
+        // o cancel do CompletableFuture não interrompe quem o completaria
+        resultado.whenComplete((valor, erro) -> {
+            if (resultado.isCancelled()) {
+                execucao.cancel(true);
+            }
+        });
+        return resultado;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return o tempo máximo que uma requisição espera pelo resultado.
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getAtivas() {
+        return executor.getActiveCount();
+    }
+
+    public int getNaFila() {
+        return executor.getQueue().size();
+    }
+
+    public int getCapacidadeFila() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public long getConcluidas() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas.sum();
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,51 @@
+package com.sippulse.pet.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Cria e registra pelo nome os {@link Bulkhead}s da aplicação, para expor as suas estatísticas.
+ */
+@Component
+public class BulkheadRegistry implements DisposableBean {
+
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentSkipListMap<>();
+
+    @Value("${pet.bulkhead.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    /**
+     * Cria um bulkhead e o registra.
+     *
+     * @param nome o nome do bulkhead, único.
+     * @param threads o número de threads.
+     * @param fila o número máximo de tarefas esperando por uma thread.
+     * @return o bulkhead.
+     * @throws IllegalStateException se já existir um bulkhead com o nome.
+     */
+    public Bulkhead criar(String nome, int threads, int fila) {
+        Bulkhead bulkhead = new Bulkhead(nome, threads, fila, timeoutMillis);
+        if (bulkheads.putIfAbsent(nome, bulkhead) != null) {
+            bulkhead.shutdown();
+            throw new IllegalStateException("Bulkhead already registered: " + nome);
+        }
+        return bulkhead;
+    }
+
+    /**
+     * @return os bulkheads, ordenados pelo nome.
+     */
+    public Collection<Bulkhead> bulkheads() {
+        return bulkheads.values();
+    }
+
+    @Override
+    public void destroy() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sippulse.pet.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.sippulse.pet.service.dto.CacheEstatisticasDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cria e registra pelo nome os caches em memória da aplicação, para expor as suas estatísticas.
+ */
+@Component
+public class CacheRegistry {
+
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+    /**
+     * Cria um cache limitado, com expiração e com estatísticas, e o registra.
+     *
+     * @param nome o nome do cache, único.
+     * @param tamanho o número máximo de entradas.
+     * @param expiracaoSegundos o tempo de vida de uma entrada depois de gravada.
+     * @param <K> o tipo das chaves.
+     * @param <V> o tipo dos valores.
+     * @return o cache.
+     * @throws IllegalStateException se já existir um cache com o nome.
+     */
+    public <K, V> Cache<K, V> criar(String nome, long tamanho, long expiracaoSegundos) {
+        Cache<K, V> cache = CacheBuilder.newBuilder()
+            .maximumSize(tamanho)
+            .expireAfterWrite(expiracaoSegundos, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        if (caches.putIfAbsent(nome, cache) != null) {
+            throw new IllegalStateException("Cache already registered: " + nome);
+        }
+        return cache;
+    }
+
+    /**
+     * @return as estatísticas de cada cache, pelo nome.
+     */
+    public Map<String, CacheEstatisticasDTO> estatisticas() {
+        Map<String, CacheEstatisticasDTO> estatisticas = new LinkedHashMap<>();
+        caches.forEach((nome, cache) -> {
+            CacheStats stats = cache.stats();
+            estatisticas.put(nome, new CacheEstatisticasDTO(cache.size(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount()));
+        });
+        return estatisticas;
+    }
+}
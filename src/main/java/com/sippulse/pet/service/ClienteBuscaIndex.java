@@ -0,0 +1,745 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.TransactionUtil;
+import com.sippulse.pet.repository.ClienteRepository;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória para a busca de clientes por parte do nome, do e-mail, do telefone ou do cpf.
+ *
+ * <p>Cada cliente é indexado pelos trigramas do nome e do e-mail, sem acentos e em minúsculas, e dos dígitos do
+ * telefone e do cpf, sem pontuação. Uma busca cruza as listas de clientes de todos os trigramas dos termos,
+ * confirma em cada candidato que todos os termos aparecem e devolve os mais relevantes: palavra inteira do nome,
+ * início de palavra do nome, início do e-mail, do telefone ou do cpf, final do telefone ou do cpf, e por fim
+ * qualquer posição. Empates vão para o nome mais curto.</p>
+ *
+ * <p>Os clientes ficam em uma base ordenada pelo critério de desempate, para que a busca pare assim que nenhum
+ * candidato seguinte possa entrar no resultado, e em uma cauda com as gravações recentes, sempre percorrida
+ * inteira. A cauda é incorporada à base quando passa de um oitavo dela; a nova base é montada sem bloquear as
+ * buscas.</p>
+ *
+ * <p>O índice é carregado do banco na inicialização e atualizado depois do commit das escritas feitas por esta
+ * instância; escritas de outras instâncias só aparecem depois de uma reinicialização.</p>
+ */
+@Component
+public class ClienteBuscaIndex implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(ClienteBuscaIndex.class);
+
+    private static final int TAMANHO_GRAMA = 3;
+
+    private static final int BITS_CARACTERE = 6;
+
+    private static final int GRAMAS = 1 << (BITS_CARACTERE * TAMANHO_GRAMA);
+
+    private static final int PAGINA_CARGA = 1000;
+
+    /**
+     * Tamanho da cauda e número de removidos da base abaixo dos quais a base não é refeita.
+     */
+    private static final int MINIMO_REORGANIZACAO = 4096;
+
+    private static final int PALAVRA = 6;
+
+    private static final int INICIO_PALAVRA = 4;
+
+    private static final int INICIO_CAMPO = 3;
+
+    private static final int FIM_CAMPO = 2;
+
+    private static final int QUALQUER = 1;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private static final Pattern NUMERO = Pattern.compile("[\\d\\s().+/-]+");
+
+    private static final Pattern NUMERO_PONTUADO = Pattern.compile("[\\d().+/-]+");
+
+    private static final Comparator<Documento> ORDEM_BASE = Comparator
+        .comparingInt((Documento documento) -> documento.nome.length())
+        .thenComparingLong(documento -> documento.id);
+
+    private final ClienteRepository clienteRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Serializa as escritas, inclusive a montagem de uma nova base, que só precisa do {@link #lock} para a troca.
+     */
+    private final Object escrita = new Object();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segmento base = new Segmento();
+
+    private Segmento cauda = new Segmento();
+
+    /**
+     * Palavra dos nomes -> número de clientes com essa palavra, para saber se um termo pode ser uma palavra inteira.
+     */
+    private final Map<String, Integer> palavras = new HashMap<>();
+
+    /**
+     * Palavras dos nomes que começam com dígito; sem elas um termo só de dígitos não pontua como nome.
+     */
+    private int palavrasNumericas;
+
+    @Autowired
+    public ClienteBuscaIndex(ClienteRepository clienteRepository, PlatformTransactionManager transactionManager) {
+        this.clienteRepository = clienteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // as atualizações das importações rodam depois do commit de outra transação
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        long inicio = System.currentTimeMillis();
+        synchronized (escrita) {
+            carregar(0L);
+            reorganizar();
+        }
+        log.info("Indexed {} clientes for search in {} ms", base.posicoes.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Busca os clientes que contêm todos os termos da busca.
+     *
+     * @param busca os termos separados por espaço; uma busca só com dígitos e pontuação de telefone é um termo só.
+     * @param limite o número máximo de clientes.
+     * @return os ids dos clientes, do mais relevante para o menos relevante.
+     * @throws IllegalArgumentException se nenhum termo tiver ao menos três letras ou dígitos seguidos.
+     */
+    public List<Long> buscar(String busca, int limite) {
+        List<String> termos = termos(busca);
+        List<Integer> todos = new ArrayList<>();
+        for (String termo : termos) {
+            gramas(termo.toCharArray(), 0, termo.length(), todos::add);
+        }
+        if (todos.isEmpty()) {
+            throw new IllegalArgumentException("The search needs at least " + TAMANHO_GRAMA + " letters or digits in a row");
+        }
+        int[] gramas = todos.stream().mapToInt(Integer::intValue).distinct().toArray();
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1);
+        lock.readLock().lock();
+        try {
+            percorrer(cauda, gramas, termos, melhores, limite, Integer.MAX_VALUE);
+            percorrer(base, gramas, termos, melhores, limite, maximo(termos));
+        } finally {
+            lock.readLock().unlock();
+        }
+        Resultado[] ordenados = melhores.toArray(new Resultado[melhores.size()]);
+        Arrays.sort(ordenados, Comparator.reverseOrder());
+        List<Long> ids = new ArrayList<>(ordenados.length);
+        for (Resultado resultado : ordenados) {
+            ids.add(resultado.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Indexa o cliente depois do commit da transação corrente, substituindo a versão anterior.
+     *
+     * @param cliente o cliente gravado.
+     */
+    public void indexarAposCommit(ClienteDTO cliente) {
+        TransactionUtil.afterCommit(() -> indexar(cliente));
+    }
+
+    /**
+     * Remove o cliente do índice depois do commit da transação corrente.
+     *
+     * @param id o id do cliente removido.
+     */
+    public void removerAposCommit(Long id) {
+        TransactionUtil.afterCommit(() -> remover(id));
+    }
+
+    /**
+     * Indexa os clientes com id maior que {@code depoisDe}, para gravações que não conhecem os ids gerados,
+     * como a importação em lote.
+     *
+     * @param depoisDe um id menor que o de todos os clientes a indexar.
+     * @return o maior id indexado, ou {@code depoisDe} se não houver clientes novos.
+     */
+    public long indexarNovos(long depoisDe) {
+        synchronized (escrita) {
+            long ultimo = carregar(depoisDe);
+            reorganizarSeNecessario();
+            return ultimo;
+        }
+    }
+
+    private void indexar(ClienteDTO cliente) {
+        Documento documento = new Documento(cliente);
+        synchronized (escrita) {
+            lock.writeLock().lock();
+            try {
+                substituir(documento);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            reorganizarSeNecessario();
+        }
+    }
+
+    private void remover(Long id) {
+        synchronized (escrita) {
+            lock.writeLock().lock();
+            try {
+                retirar(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            reorganizarSeNecessario();
+        }
+    }
+
+    private long carregar(long depoisDe) {
+        long ultimo = depoisDe;
+        List<ClienteDTO> pagina;
+        do {
+            long cursor = ultimo;
+            pagina = transactionTemplate.execute(status ->
+                clienteRepository.findPageAfter(cursor, new PageRequest(0, PAGINA_CARGA)));
+            List<Documento> documentos = new ArrayList<>(pagina.size());
+            for (ClienteDTO cliente : pagina) {
+                documentos.add(new Documento(cliente));
+                ultimo = cliente.getId();
+            }
+            lock.writeLock().lock();
+            try {
+                for (Documento documento : documentos) {
+                    substituir(documento);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (pagina.size() == PAGINA_CARGA);
+        return ultimo;
+    }
+
+    private void substituir(Documento documento) {
+        Documento anterior = cauda.get(documento.id);
+        if (anterior == null) {
+            anterior = base.get(documento.id);
+        }
+        if (documento.equals(anterior)) {
+            return;
+        }
+        retirar(documento.id);
+        cauda.adicionar(documento);
+        contarPalavras(documento, 1);
+    }
+
+    private void retirar(long id) {
+        Documento anterior = cauda.remover(id);
+        if (anterior == null) {
+            anterior = base.remover(id);
+        }
+        if (anterior != null) {
+            contarPalavras(anterior, -1);
+        }
+    }
+
+    private void contarPalavras(Documento documento, int delta) {
+        for (String palavra : SEPARADORES.split(documento.nome)) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            palavras.merge(palavra, delta, (atual, soma) -> atual + soma == 0 ? null : atual + soma);
+            if (Character.isDigit(palavra.charAt(0))) {
+                palavrasNumericas += delta;
+            }
+        }
+    }
+
+    /**
+     * A maior pontuação que um cliente pode ter na busca, para a base parar de percorrer candidatos.
+     */
+    private int maximo(List<String> termos) {
+        int maximo = 0;
+        for (String termo : termos) {
+            if (palavras.containsKey(termo) || SEPARADORES.matcher(termo).find()) {
+                // com pontuação o termo pode cobrir palavras inteiras, como em nomes com hífen
+                maximo += PALAVRA;
+            } else if (palavrasNumericas == 0 && digitos(termo).length() == termo.length()) {
+                maximo += INICIO_CAMPO;
+            } else {
+                maximo += INICIO_PALAVRA;
+            }
+        }
+        return maximo;
+    }
+
+    private void reorganizarSeNecessario() {
+        int limite = Math.max(MINIMO_REORGANIZACAO, base.posicoes.size() / 8);
+        if (cauda.tamanho > limite || base.removidos > Math.max(limite, base.tamanho / 4)) {
+            reorganizar();
+        }
+    }
+
+    /**
+     * Monta uma nova base com os clientes da base e da cauda. Quem chama detém {@link #escrita}, então nada muda
+     * nos segmentos durante a montagem e as buscas continuam na base e na cauda atuais.
+     */
+    private void reorganizar() {
+        long inicio = System.currentTimeMillis();
+        List<Documento> ativos = new ArrayList<>(base.posicoes.size() + cauda.posicoes.size());
+        base.ativos(ativos);
+        cauda.ativos(ativos);
+        ativos.sort(ORDEM_BASE);
+        Segmento nova = new Segmento();
+        for (Documento documento : ativos) {
+            nova.adicionar(documento);
+        }
+        lock.writeLock().lock();
+        try {
+            base = nova;
+            cauda = new Segmento();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Rebuilt the cliente search index with {} clientes in {} ms", ativos.size(),
+            System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Pontua os candidatos do segmento, em ordem de posição, e mantém os {@code limite} melhores.
+     *
+     * @param maximo a maior pontuação possível; quando os melhores já a têm e o candidato seguinte perde no
+     * desempate, nenhum candidato seguinte entra no resultado, o que só vale para a base.
+     */
+    private static void percorrer(Segmento segmento, int[] gramas, List<String> termos,
+                                  PriorityQueue<Resultado> melhores, int limite, int maximo) {
+        Postagens[] listas = new Postagens[gramas.length];
+        for (int i = 0; i < gramas.length; i++) {
+            listas[i] = segmento.postagens[gramas[i]];
+            if (listas[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(listas, Comparator.comparingInt((Postagens lista) -> lista.tamanho));
+        int[] cursores = new int[listas.length];
+        Postagens menor = listas[0];
+        candidatos:
+        for (int i = 0; i < menor.tamanho; i++) {
+            int posicao = menor.posicoes[i];
+            for (int j = 1; j < listas.length; j++) {
+                cursores[j] = listas[j].avancar(cursores[j], posicao);
+                if (cursores[j] == listas[j].tamanho) {
+                    return;
+                }
+                if (listas[j].posicoes[cursores[j]] != posicao) {
+                    continue candidatos;
+                }
+            }
+            if (segmento.removido(posicao)) {
+                continue;
+            }
+            long id = segmento.ids[posicao];
+            int tamanhoNome = segmento.tamanhoNome(posicao);
+            Resultado pior = melhores.size() < limite ? null : melhores.peek();
+            if (pior != null && pior.pontos == maximo && pior.compareTo(maximo, tamanhoNome, id) > 0) {
+                return;
+            }
+            int pontos = segmento.pontuar(posicao, termos);
+            if (pontos == 0 || pior != null && pior.compareTo(pontos, tamanhoNome, id) >= 0) {
+                continue;
+            }
+            if (pior != null) {
+                melhores.poll();
+            }
+            melhores.add(new Resultado(id, pontos, tamanhoNome));
+        }
+    }
+
+    private static List<String> termos(String busca) {
+        String normalizada = normalizar(busca).trim();
+        List<String> termos = new ArrayList<>();
+        if (NUMERO.matcher(normalizada).matches()) {
+            termos.add(digitos(normalizada));
+            return termos;
+        }
+        for (String termo : ESPACOS.split(normalizada)) {
+            String valor = NUMERO_PONTUADO.matcher(termo).matches() ? digitos(termo) : termo;
+            if (!valor.isEmpty()) {
+                termos.add(valor);
+            }
+        }
+        return termos;
+    }
+
+    /**
+     * Passa ao destino os trigramas das sequências de letras e dígitos do texto entre {@code de} e {@code ate}.
+     */
+    private static void gramas(char[] texto, int de, int ate, IntConsumer destino) {
+        int grama = 0;
+        int seguidos = 0;
+        for (int i = de; i < ate; i++) {
+            int codigo = codigo(texto[i]);
+            if (codigo == 0) {
+                seguidos = 0;
+                continue;
+            }
+            grama = ((grama << BITS_CARACTERE) | codigo) & (GRAMAS - 1);
+            if (++seguidos >= TAMANHO_GRAMA) {
+                destino.accept(grama);
+            }
+        }
+    }
+
+    private static int codigo(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+    }
+
+    private static String digitos(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        StringBuilder digitos = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
+    /**
+     * Clientes com suas listas de trigramas; as posições crescem na ordem em que os clientes são adicionados.
+     *
+     * <p>Os campos ficam em um único {@code char[]}, na ordem das posições, para que percorrer os candidatos leia
+     * a memória em sequência.</p>
+     */
+    private static final class Segmento {
+
+        private static final int CAMPOS = 4;
+
+        private static final long REMOVIDO = Long.MIN_VALUE;
+
+        private long[] ids = new long[64];
+
+        /**
+         * Por posição, o início do nome, do e-mail, do telefone e do cpf em {@link #texto}; o fim do cpf é o
+         * início do cliente seguinte.
+         */
+        private int[] inicios = new int[64 * CAMPOS + 1];
+
+        private char[] texto = new char[4096];
+
+        private int tamanho;
+
+        private final Map<Long, Integer> posicoes = new HashMap<>();
+
+        /**
+         * Trigrama codificado -> posições dos clientes que o contêm.
+         */
+        private final Postagens[] postagens = new Postagens[GRAMAS];
+
+        private int removidos;
+
+        private void adicionar(Documento documento) {
+            int posicao = tamanho++;
+            if (posicao == ids.length) {
+                ids = Arrays.copyOf(ids, posicao * 2);
+                inicios = Arrays.copyOf(inicios, posicao * 2 * CAMPOS + 1);
+            }
+            ids[posicao] = documento.id;
+            posicoes.put(documento.id, posicao);
+            int fim = inicios[posicao * CAMPOS];
+            String[] campos = {documento.nome, documento.email, documento.telefone, documento.cpf};
+            for (int campo = 0; campo < CAMPOS; campo++) {
+                String valor = campos[campo];
+                if (fim + valor.length() > texto.length) {
+                    texto = Arrays.copyOf(texto, Math.max(texto.length * 2, fim + valor.length()));
+                }
+                valor.getChars(0, valor.length(), texto, fim);
+                inicios[posicao * CAMPOS + campo] = fim;
+                fim += valor.length();
+            }
+            inicios[(posicao + 1) * CAMPOS] = fim;
+            gramas(texto, inicios[posicao * CAMPOS], fim, grama -> {
+                Postagens lista = postagens[grama];
+                if (lista == null) {
+                    lista = new Postagens();
+                    postagens[grama] = lista;
+                }
+                lista.adicionar(posicao);
+            });
+        }
+
+        private Documento get(long id) {
+            Integer posicao = posicoes.get(id);
+            return posicao == null ? null : documento(posicao);
+        }
+
+        private Documento remover(long id) {
+            Integer posicao = posicoes.remove(id);
+            if (posicao == null) {
+                return null;
+            }
+            Documento documento = documento(posicao);
+            ids[posicao] = REMOVIDO;
+            removidos++;
+            return documento;
+        }
+
+        private boolean removido(int posicao) {
+            return ids[posicao] == REMOVIDO;
+        }
+
+        private void ativos(List<Documento> destino) {
+            for (int posicao = 0; posicao < tamanho; posicao++) {
+                if (!removido(posicao)) {
+                    destino.add(documento(posicao));
+                }
+            }
+        }
+
+        private Documento documento(int posicao) {
+            return new Documento(ids[posicao], campo(posicao, 0), campo(posicao, 1), campo(posicao, 2),
+                campo(posicao, 3));
+        }
+
+        private String campo(int posicao, int campo) {
+            int inicio = inicios[posicao * CAMPOS + campo];
+            return new String(texto, inicio, inicios[posicao * CAMPOS + campo + 1] - inicio);
+        }
+
+        private int tamanhoNome(int posicao) {
+            return inicios[posicao * CAMPOS + 1] - inicios[posicao * CAMPOS];
+        }
+
+        private int pontuar(int posicao, List<String> termos) {
+            int nome = inicios[posicao * CAMPOS];
+            int email = inicios[posicao * CAMPOS + 1];
+            int telefone = inicios[posicao * CAMPOS + 2];
+            int cpf = inicios[posicao * CAMPOS + 3];
+            int fim = inicios[posicao * CAMPOS + 4];
+            int total = 0;
+            for (String termo : termos) {
+                int pontos = pontuarNome(nome, email, termo);
+                if (pontos < INICIO_CAMPO) {
+                    pontos = Math.max(pontos, Math.max(pontuarCampo(email, telefone, termo),
+                        Math.max(pontuarCampo(telefone, cpf, termo), pontuarCampo(cpf, fim, termo))));
+                }
+                if (pontos == 0) {
+                    return 0;
+                }
+                total += pontos;
+            }
+            return total;
+        }
+
+        private int pontuarNome(int de, int ate, String termo) {
+            int melhor = 0;
+            for (int i = indice(de, ate, termo); i >= 0 && melhor < PALAVRA; i = indice(i + 1, ate, termo)) {
+                if (i > de && codigo(texto[i - 1]) != 0) {
+                    melhor = Math.max(melhor, QUALQUER);
+                } else {
+                    int fim = i + termo.length();
+                    melhor = Math.max(melhor, fim == ate || codigo(texto[fim]) == 0 ? PALAVRA : INICIO_PALAVRA);
+                }
+            }
+            return melhor;
+        }
+
+        private int pontuarCampo(int de, int ate, String termo) {
+            int i = indice(de, ate, termo);
+            if (i < 0) {
+                return 0;
+            }
+            if (i == de) {
+                return INICIO_CAMPO;
+            }
+            return indice(ate - termo.length(), ate, termo) >= 0 ? FIM_CAMPO : QUALQUER;
+        }
+
+        /**
+         * @return a primeira ocorrência do termo a partir de {@code de} que termina até {@code ate}, ou -1.
+         */
+        private int indice(int de, int ate, String termo) {
+            char primeiro = termo.charAt(0);
+            for (int i = de; i <= ate - termo.length(); i++) {
+                if (texto[i] != primeiro) {
+                    continue;
+                }
+                int j = 1;
+                while (j < termo.length() && texto[i + j] == termo.charAt(j)) {
+                    j++;
+                }
+                if (j == termo.length()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Campos pesquisáveis de um cliente, já normalizados.
+     */
+    private static final class Documento {
+
+        private final long id;
+
+        private final String nome;
+
+        private final String email;
+
+        private final String telefone;
+
+        private final String cpf;
+
+        private Documento(ClienteDTO cliente) {
+            this(cliente.getId(), normalizar(cliente.getNome()), normalizar(cliente.getEmail()),
+                digitos(cliente.getTelefone()), digitos(cliente.getCpf()));
+        }
+
+        private Documento(long id, String nome, String email, String telefone, String cpf) {
+            this.id = id;
+            this.nome = nome;
+            this.email = email;
+            this.telefone = telefone;
+            this.cpf = cpf;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Documento)) {
+                return false;
+            }
+            Documento documento = (Documento) o;
+            return id == documento.id && nome.equals(documento.nome) && email.equals(documento.email)
+                && telefone.equals(documento.telefone) && cpf.equals(documento.cpf);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+
+    /**
+     * Posições dos clientes que contêm um trigrama, em ordem crescente; as repetidas de um mesmo cliente,
+     * sempre consecutivas, são descartadas.
+     */
+    private static final class Postagens {
+
+        private int[] posicoes = new int[4];
+
+        private int tamanho;
+
+        private void adicionar(int posicao) {
+            if (tamanho > 0 && posicoes[tamanho - 1] == posicao) {
+                return;
+            }
+            if (tamanho == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            }
+            posicoes[tamanho++] = posicao;
+        }
+
+        /**
+         * @return o índice da primeira posição maior ou igual a {@code alvo} a partir de {@code de}, ou
+         * {@code tamanho} se não houver, procurando em saltos que dobram a cada passo.
+         */
+        private int avancar(int de, int alvo) {
+            if (de >= tamanho || posicoes[de] >= alvo) {
+                return de;
+            }
+            int abaixo = de;
+            int salto = 1;
+            while (abaixo + salto < tamanho && posicoes[abaixo + salto] < alvo) {
+                abaixo += salto;
+                salto <<= 1;
+            }
+            int indice = Arrays.binarySearch(posicoes, abaixo + 1, Math.min(abaixo + salto, tamanho), alvo);
+            return indice >= 0 ? indice : -indice - 1;
+        }
+    }
+
+    /**
+     * Cliente encontrado; a ordem natural vai do menos para o mais relevante.
+     */
+    private static final class Resultado implements Comparable<Resultado> {
+
+        private final long id;
+
+        private final int pontos;
+
+        private final int tamanhoNome;
+
+        private Resultado(long id, int pontos, int tamanhoNome) {
+            this.id = id;
+            this.pontos = pontos;
+            this.tamanhoNome = tamanhoNome;
+        }
+
+        /**
+         * @return negativo se este resultado for menos relevante que o cliente com os valores dados.
+         */
+        private int compareTo(int outrosPontos, int outroTamanhoNome, long outroId) {
+            if (pontos != outrosPontos) {
+                return Integer.compare(pontos, outrosPontos);
+            }
+            if (tamanhoNome != outroTamanhoNome) {
+                return Integer.compare(outroTamanhoNome, tamanhoNome);
+            }
+            return Long.compare(outroId, id);
+        }
+
+        @Override
+        public int compareTo(Resultado outro) {
+            return compareTo(outro.pontos, outro.tamanhoNome, outro.id);
+        }
+    }
+}
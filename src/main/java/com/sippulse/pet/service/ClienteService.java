@@ -1,8 +1,16 @@
 package com.sippulse.pet.service;
 
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import com.sippulse.pet.service.dto.ClienteResumoDTO;
+import com.sippulse.pet.service.dto.Pagina;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Interface for managing {@link Cliente}.
@@ -24,6 +32,25 @@ public interface ClienteService {
      */
     List<Cliente> findAll();
 
+    /**
+     * Get one page of the clientes, ordered by id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    Pagina<ClienteDTO> findPage(PaginationUtil.Cursor cursor, int size);
+
+    /**
+     * Get one page of the clientes, ordered by id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    Pagina<ClienteDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos);
+
 
     /**
      * Get the "id" cliente.
@@ -33,6 +60,76 @@ public interface ClienteService {
      */
     Cliente findOne(Long id);
 
+    /**
+     * Get the "id" cliente read model.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    ClienteDTO findDTOById(Long id);
+
+    /**
+     * Get the "id" cliente read model, reading only the requested fields.
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    ClienteDTO findDTOById(Long id, Campos campos);
+
+    /**
+     * Get the cliente read models of the given ids, reading only the requested fields.
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    Map<Long, ClienteDTO> findDTOsByIds(Collection<Long> ids, Campos campos);
+
+    /**
+     * Search the clientes by part of the name, email, phone or cpf.
+     *
+     * @param q the search terms.
+     * @param size the maximum number of clientes.
+     * @param campos the fields to read.
+     * @return the read models, most relevant first.
+     * @throws IllegalArgumentException if no term has at least three letters or digits in a row.
+     */
+    List<ClienteDTO> search(String q, int size, Campos campos);
+
+    /**
+     * Get the agendamentos of the cliente with the given cpf.
+     *
+     * @param cpf the cpf of the cliente.
+     * @return the list of agendamentos, empty if the cpf is unknown.
+     */
+    List<AgendamentoDTO> findAgendamentosByCpf(String cpf);
+
+    /**
+     * Get the agendamentos of the cliente with the given cpf, reading only the requested fields.
+     *
+     * @param cpf the cpf of the cliente.
+     * @param campos the fields of the agendamentos to read.
+     * @return the list of agendamentos, empty if the cpf is unknown.
+     */
+    List<AgendamentoDTO> findAgendamentosByCpf(String cpf, Campos campos);
+
+    /**
+     * Get the summary of the "id" cliente: its read model, its pets and its upcoming agendamentos.
+     *
+     * @param id the id of the entity.
+     * @return the summary, or {@code null} if not found.
+     */
+    ClienteResumoDTO findResumo(Long id);
+
+    /**
+     * Get the current revision of the "id" cliente, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    Revisao findRevisao(Long id);
+
     /**
      * Delete the "id" cliente.
      *
@@ -1,14 +1,34 @@
 package com.sippulse.pet.service;
 
+import com.sippulse.pet.PaginationUtil;
+import com.sippulse.pet.repository.AgendamentoRepository;
 import com.sippulse.pet.repository.ClienteRepository;
+import com.sippulse.pet.repository.PetRepository;
 import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import com.sippulse.pet.service.dto.ClienteResumoDTO;
+import com.sippulse.pet.service.dto.Pagina;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service Implementation for managing {@link Cliente}.
@@ -19,12 +39,35 @@ public class ClienteServiceImpl implements ClienteService {
 
     private final Logger log = LoggerFactory.getLogger(ClienteServiceImpl.class);
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private final ClienteRepository clienteRepository;
 
+    private final AgendamentoRepository agendamentoRepository;
+
+    private final PetRepository petRepository;
+
+    private final AgendamentosPorCpfCache agendamentosPorCpfCache;
+
+    private final PetService petService;
+
+    private final ClienteBuscaIndex clienteBuscaIndex;
+
+    @Value("${pet.clientes.resumo.dias:30}")
+    private int diasResumo;
+
     @Autowired
-    public ClienteServiceImpl(ClienteRepository clienteRepository) {
+    public ClienteServiceImpl(ClienteRepository clienteRepository, AgendamentoRepository agendamentoRepository,
+                              PetRepository petRepository, AgendamentosPorCpfCache agendamentosPorCpfCache,
+                              PetService petService, ClienteBuscaIndex clienteBuscaIndex) {
         this.clienteRepository = clienteRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.petRepository = petRepository;
+        this.agendamentosPorCpfCache = agendamentosPorCpfCache;
+        this.petService = petService;
+        this.clienteBuscaIndex = clienteBuscaIndex;
     }
 
     /**
@@ -36,7 +79,22 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     public Cliente save(Cliente cliente) {
         log.debug("Request to save Cliente : {}", cliente);
-        return clienteRepository.save(cliente);
+        List<Object[]> anterior = cliente.getId() == null
+            ? Collections.emptyList() : clienteRepository.findCpfENomeById(cliente.getId());
+        String cpfAnterior = anterior.isEmpty() ? null : (String) anterior.get(0)[0];
+        agendamentosPorCpfCache.evictAfterCommit(cpfAnterior, cliente.getCpf());
+        // the cached pets carry only the nome of their cliente
+        if (!anterior.isEmpty() && !Objects.equals(anterior.get(0)[1], cliente.getNome())) {
+            petService.evictByCliente(cliente.getId());
+        }
+        if (cliente.getId() != null && cliente.getVersao() == null) {
+            // without a version Spring Data would treat the entity as new and persist it
+            cliente.setVersao(clienteRepository.findVersaoById(cliente.getId()));
+        }
+        Cliente result = clienteRepository.save(cliente);
+        clienteBuscaIndex.indexarAposCommit(new ClienteDTO(result.getId(), result.getVersao(), result.getNome(),
+            result.getEmail(), result.getEndereco(), result.getTelefone(), result.getCpf()));
+        return result;
     }
 
     /**
@@ -51,6 +109,47 @@ public class ClienteServiceImpl implements ClienteService {
         return clienteRepository.findAll();
     }
 
+    /**
+     * Get one page of the clientes, ordered by id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<ClienteDTO> findPage(PaginationUtil.Cursor cursor, int size) {
+        log.debug("Request to get a page of Clientes after : {}", cursor == null ? null : cursor.getId());
+        List<ClienteDTO> rows = cursor == null
+            ? clienteRepository.findFirstPage(PaginationUtil.limit(size))
+            : clienteRepository.findPageAfter(cursor.getId(), PaginationUtil.limit(size));
+        return PaginationUtil.page(rows, size, cliente -> PaginationUtil.encodeCursor(cliente.getId()));
+    }
+
+    /**
+     * Get one page of the clientes, ordered by id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<ClienteDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos) {
+        if (campos.isTodos()) {
+            return findPage(cursor, size);
+        }
+        log.debug("Request to get a page of Clientes after {} with fields {}", cursor == null ? null : cursor.getId(),
+            campos);
+        Projecao.Consulta<ClienteDTO> consulta = cursor == null
+            ? Projecoes.CLIENTE.consulta(entityManager, campos, "order by c.id asc")
+            : Projecoes.CLIENTE.consulta(entityManager, campos, "where c.id > :id order by c.id asc")
+                .parametro("id", cursor.getId());
+        List<ClienteDTO> rows = consulta.limite(size + 1).listar();
+        return PaginationUtil.page(rows, size, cliente -> PaginationUtil.encodeCursor(cliente.getId()));
+    }
+
 
     /**
      * Get one cliente by id.
@@ -66,6 +165,164 @@ public class ClienteServiceImpl implements ClienteService {
         return clienteRepository.findOne(id);
     }
 
+    /**
+     * Search the clientes by part of the name, email, phone or cpf.
+     *
+     * <p>The ranking comes from the in-memory {@link ClienteBuscaIndex}; only the top {@code size} read models are
+     * loaded, in one query. Runs without its own transaction so that searches with no match never take a database
+     * connection.</p>
+     *
+     * @param q the search terms.
+     * @param size the maximum number of clientes.
+     * @param campos the fields to read.
+     * @return the read models, most relevant first.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ClienteDTO> search(String q, int size, Campos campos) {
+        log.debug("Request to search Clientes : {}", q);
+        List<Long> ids = clienteBuscaIndex.buscar(q, size);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ClienteDTO> porId = findDTOsByIds(ids, campos);
+        List<ClienteDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // removed by another instance since it was indexed
+            if (porId.containsKey(id)) {
+                result.add(porId.get(id));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the cliente read models of the given ids with a single query, reading only the requested fields.
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, ClienteDTO> findDTOsByIds(Collection<Long> ids, Campos campos) {
+        log.debug("Request to get ClienteDTOs {} with fields {}", ids, campos);
+        List<ClienteDTO> clientes = campos.isTodos()
+            ? clienteRepository.findDTOsByIdIn(ids)
+            : Projecoes.CLIENTE.consulta(entityManager, campos, "where c.id in :ids").parametro("ids", ids).listar();
+        Map<Long, ClienteDTO> porId = new HashMap<>();
+        for (ClienteDTO cliente : clientes) {
+            porId.put(cliente.getId(), cliente);
+        }
+        return porId;
+    }
+
+    /**
+     * Get the agendamentos of the cliente with the given cpf, from the cache when possible.
+     *
+     * <p>Runs without its own transaction so that cache hits never take a database connection.</p>
+     *
+     * @param cpf the cpf of the cliente.
+     * @return the list of agendamentos, empty if the cpf is unknown.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<AgendamentoDTO> findAgendamentosByCpf(String cpf) {
+        log.debug("Request to get Agendamentos by CPF");
+        return agendamentosPorCpfCache.get(cpf,
+            () -> Collections.unmodifiableList(agendamentoRepository.findByClienteCpf(cpf)));
+    }
+
+    /**
+     * Get the agendamentos of the cliente with the given cpf, reading only the requested fields.
+     *
+     * <p>Partial reads bypass the cache, which holds complete read models.</p>
+     *
+     * @param cpf the cpf of the cliente.
+     * @param campos the fields of the agendamentos to read.
+     * @return the list of agendamentos, empty if the cpf is unknown.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<AgendamentoDTO> findAgendamentosByCpf(String cpf, Campos campos) {
+        if (campos.isTodos()) {
+            return findAgendamentosByCpf(cpf);
+        }
+        log.debug("Request to get Agendamentos by CPF with fields {}", campos);
+        return Projecoes.AGENDAMENTO.consulta(entityManager, campos,
+            "where a.cliente.id in (select cc.id from Cliente cc where cc.cpf = :cpf) order by a.data asc, a.id asc")
+            .parametro("cpf", cpf)
+            .listar();
+    }
+
+    /**
+     * Get one cliente read model by id.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ClienteDTO findDTOById(Long id) {
+        log.debug("Request to get ClienteDTO : {}", id);
+        return clienteRepository.findDTOById(id);
+    }
+
+    /**
+     * Get one cliente read model by id, reading only the requested fields.
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ClienteDTO findDTOById(Long id, Campos campos) {
+        if (campos.isTodos()) {
+            return findDTOById(id);
+        }
+        log.debug("Request to get ClienteDTO {} with fields {}", id, campos);
+        return Projecoes.CLIENTE.consulta(entityManager, campos, "where c.id = :id").parametro("id", id).unico();
+    }
+
+    /**
+     * Get the summary of the "id" cliente: its read model, its pets and its agendamentos from now until
+     * {@code pet.clientes.resumo.dias} days ahead.
+     *
+     * <p>Three flat projections in one read-only transaction, whatever the number of pets and agendamentos; the
+     * agendamentos come with the pet and usuario names joined in.</p>
+     *
+     * @param id the id of the entity.
+     * @return the summary, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ClienteResumoDTO findResumo(Long id) {
+        log.debug("Request to get the summary of Cliente : {}", id);
+        ClienteDTO cliente = clienteRepository.findDTOById(id);
+        if (cliente == null) {
+            return null;
+        }
+        Date agora = new Date();
+        Date fim = new Date(agora.getTime() + TimeUnit.DAYS.toMillis(diasResumo));
+        return new ClienteResumoDTO(cliente, petRepository.findDTOsByClienteId(id),
+            agendamentoRepository.findByClienteAndPeriodo(id, agora, fim));
+    }
+
+    /**
+     * Get the current revision of the "id" cliente, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Revisao findRevisao(Long id) {
+        log.debug("Request to get the revision of Cliente : {}", id);
+        List<Object[]> linhas = clienteRepository.findRevisaoById(id);
+        return linhas.isEmpty() ? null : Revisao.of(linhas.get(0));
+    }
+
     /**
      * Delete the cliente by id.
      *
@@ -74,6 +331,8 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Cliente : {}", id);
+        agendamentosPorCpfCache.evictAfterCommit(clienteRepository.findCpfById(id));
         clienteRepository.delete(id);
+        clienteBuscaIndex.removerAposCommit(id);
     }
 }
@@ -0,0 +1,385 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.TransactionUtil;
+import com.sippulse.pet.repository.AgendamentoRepository;
+import com.sippulse.pet.service.dto.DisponibilidadeDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grade de horários ocupados dos veterinários, mantida em memória para a consulta de disponibilidade.
+ *
+ * <p>O expediente ({@code pet.agenda.inicio} a {@code pet.agenda.fim}) é dividido em horários de
+ * {@code pet.agenda.duracao-slot} minutos, no máximo 64, e cada dia de um veterinário é um {@code long}
+ * em que o bit {@code i} indica que o horário {@code i} tem agendamento. Apenas dias com agendamento
+ * ocupam memória.</p>
+ *
+ * <p>A grade cobre {@code pet.agenda.horizonte-dias} dias a partir de hoje: é carregada do banco na
+ * inicialização e estendida quando o dia muda. Escritas em {@link com.sippulse.pet.entity.Agendamento}
+ * recalculam do banco os dias afetados depois do commit; dias fora do horizonte são consultados no banco.</p>
+ *
+ * <p>Na inicialização, antes de o servidor aceitar requisições, também grava o horário dos agendamentos de antes da
+ * coluna {@code slot}, que sem ele escapam das restrições únicas; a aplicação não sobe se algum ficar sem.</p>
+ */
+@Component
+public class GradeHorarios implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(GradeHorarios.class);
+
+    private static final int MAX_SLOTS = Long.SIZE;
+
+    private static final int MINUTOS_DIA = 24 * 60;
+
+    private static final int LOTE_SLOTS = 500;
+
+    @Value("${pet.agenda.inicio:08:00}")
+    private String inicioExpediente;
+
+    @Value("${pet.agenda.fim:18:00}")
+    private String fimExpediente;
+
+    @Value("${pet.agenda.duracao-slot:30}")
+    private int duracaoSlot;
+
+    @Value("${pet.agenda.horizonte-dias:90}")
+    private int horizonteDias;
+
+    private final AgendamentoRepository agendamentoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate preenchimento;
+
+    /**
+     * Veterinário -> dia ({@link LocalDate#toEpochDay()}) -> horários ocupados.
+     */
+    private final Map<Long, Map<Long, Long>> ocupados = new ConcurrentHashMap<>();
+
+    private final Object escrita = new Object();
+
+    private LocalTime inicio;
+
+    private int slots;
+
+    /**
+     * Primeiro e último dia carregados, inclusivos; {@code primeiroDia > ultimoDia} antes da carga.
+     */
+    private volatile long primeiroDia = 1;
+
+    private volatile long ultimoDia = 0;
+
+    @Autowired
+    public GradeHorarios(AgendamentoRepository agendamentoRepository, PlatformTransactionManager transactionManager) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // os recálculos rodam depois do commit de outra transação
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.preenchimento = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        inicio = LocalTime.parse(inicioExpediente);
+        LocalTime fim = LocalTime.parse(fimExpediente);
+        if (duracaoSlot <= 0 || !fim.isAfter(inicio)) {
+            throw new IllegalStateException("Invalid pet.agenda configuration: " + inicio + " - " + fim +
+                " every " + duracaoSlot + " minutes");
+        }
+        slots = (int) (ChronoUnit.MINUTES.between(inicio, fim) / duracaoSlot);
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new IllegalStateException("pet.agenda must have between 1 and " + MAX_SLOTS + " slots, found " + slots);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        preencherSlots();
+        atualizarHorizonte();
+    }
+
+    /**
+     * Grava, em lotes, o horário dos agendamentos com data e sem horário. Outras instâncias podem preencher os mesmos
+     * agendamentos ao mesmo tempo: o horário calculado é o mesmo e só é gravado onde ainda falta, e um lote que outra
+     * instância já preencheu é apenas lido de novo.
+     *
+     * @throws IllegalStateException se dois agendamentos caírem no mesmo horário do veterinário ou do pet.
+     */
+    private void preencherSlots() {
+        int total = 0;
+        Integer preenchidos;
+        while ((preenchidos = preenchimento.execute(status -> preencherLoteDeSlots())) != null) {
+            total += preenchidos;
+        }
+        if (total > 0) {
+            log.info("Filled the slot of {} Agendamentos", total);
+        }
+    }
+
+    /**
+     * @return quantos agendamentos do lote receberam o horário, ou {@code null} se nenhum estava sem.
+     */
+    private Integer preencherLoteDeSlots() {
+        List<Object[]> lote = agendamentoRepository.findIdAndDataSemSlot(new PageRequest(0, LOTE_SLOTS));
+        if (lote.isEmpty()) {
+            return null;
+        }
+        int preenchidos = 0;
+        for (Object[] agendamento : lote) {
+            Long id = (Long) agendamento[0];
+            Long slot = slot((Date) agendamento[1]);
+            try {
+                preenchidos += agendamentoRepository.preencherSlot(id, slot);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("Agendamento " + id + " shares slot " + slot +
+                    " with another Agendamento of the same usuario or pet", e);
+            }
+        }
+        return preenchidos;
+    }
+
+    /**
+     * Retorna os horários livres do veterinário em cada dia do período.
+     *
+     * @param usuarioId o id do veterinário.
+     * @param periodo os dias consultados.
+     * @return um item por dia, em ordem.
+     */
+    public List<DisponibilidadeDTO> disponibilidade(Long usuarioId, Periodo periodo) {
+        atualizarHorizonte();
+        long de = periodo.getDe().toEpochDay();
+        long ate = periodo.getAte().toEpochDay();
+        long primeiro = primeiroDia;
+        long ultimo = ultimoDia;
+        Map<Long, Long> memoria = ocupados.getOrDefault(usuarioId, new HashMap<>());
+        Map<Long, Long> banco = new HashMap<>();
+        if (de < primeiro) {
+            banco.putAll(carregar(usuarioId, de, Math.min(ate, primeiro - 1)));
+        }
+        if (ate > ultimo) {
+            banco.putAll(carregar(usuarioId, Math.max(de, ultimo + 1), ate));
+        }
+        List<DisponibilidadeDTO> dias = new ArrayList<>((int) (ate - de + 1));
+        for (long dia = de; dia <= ate; dia++) {
+            Long bits = dia >= primeiro && dia <= ultimo ? memoria.get(dia) : banco.get(dia);
+            dias.add(new DisponibilidadeDTO(LocalDate.ofEpochDay(dia).toString(), livres(bits == null ? 0L : bits)));
+        }
+        return dias;
+    }
+
+    /**
+     * @return o número de horários do expediente em um dia.
+     */
+    public int getHorariosPorDia() {
+        return slots;
+    }
+
+    /**
+     * Retorna o horário da agenda que contém a data, usado na restrição única dos agendamentos.
+     *
+     * <p>Datas fora do expediente caem no horário de mesma duração, alinhado ao início do expediente, que as contém.</p>
+     *
+     * @param data a data do agendamento, pode ser {@code null}.
+     * @return o início do horário em minutos desde a epoch, ou {@code null} se {@code data} for {@code null}.
+     */
+    public Long slot(Date data) {
+        if (data == null) {
+            return null;
+        }
+        LocalDateTime horario = toLocalDateTime(data);
+        LocalDateTime abertura = horario.toLocalDate().atTime(inicio);
+        long minutos = Math.floorDiv(ChronoUnit.MINUTES.between(abertura, horario), (long) duracaoSlot) * duracaoSlot;
+        return abertura.plusMinutes(minutos).atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+    }
+
+    /**
+     * Indica se deslocar um agendamento em {@code minutos} desloca o seu horário nos mesmos minutos, o que permite
+     * mover o horário junto com a data em um único comando.
+     *
+     * @param minutos o deslocamento.
+     * @return {@code true} se {@code minutos} for múltiplo da duração do horário e os dias tiverem a mesma grade.
+     */
+    public boolean preservaSlots(int minutos) {
+        return minutos % duracaoSlot == 0 && (MINUTOS_DIA % duracaoSlot == 0 || minutos % MINUTOS_DIA == 0);
+    }
+
+    /**
+     * Indica se deslocar a data em {@code minutos} desloca também o relógio local em {@code minutos}, isto é, se
+     * não há mudança de fuso, como o horário de verão, entre ela e a nova data.
+     *
+     * <p>Só então somar os minutos à data e ao horário no banco concorda com {@link #slot(Date)} e com a nova data
+     * calculada na aplicação, quer o banco guarde as datas no fuso local, quer em UTC.</p>
+     *
+     * @param data a data do agendamento.
+     * @param minutos o deslocamento.
+     * @return {@code true} se a data e a nova data tiverem a mesma diferença para UTC.
+     */
+    public boolean mesmoFuso(Date data, int minutos) {
+        ZoneRules regras = ZoneId.systemDefault().getRules();
+        Instant instante = Instant.ofEpochMilli(data.getTime());
+        return regras.getOffset(instante).equals(regras.getOffset(instante.plus(minutos, ChronoUnit.MINUTES)));
+    }
+
+    /**
+     * Recalcula o dia do agendamento depois do commit da transação corrente. Valores {@code null} são ignorados.
+     *
+     * @param usuarioId o id do veterinário do agendamento.
+     * @param data a data do agendamento.
+     */
+    public void recalcularAposCommit(Long usuarioId, Date data) {
+        if (usuarioId == null || data == null) {
+            return;
+        }
+        long dia = toLocalDateTime(data).toLocalDate().toEpochDay();
+        TransactionUtil.afterCommit(() -> recalcular(usuarioId, dia));
+    }
+
+    /**
+     * Recalcula, depois do commit da transação corrente, os dias do veterinário entre a primeira e a última data
+     * com uma única consulta. Valores {@code null} são ignorados.
+     *
+     * @param usuarioId o id do veterinário dos agendamentos.
+     * @param datas as datas dos agendamentos.
+     */
+    public void recalcularAposCommit(Long usuarioId, Collection<Date> datas) {
+        if (usuarioId == null) {
+            return;
+        }
+        long de = Long.MAX_VALUE;
+        long ate = Long.MIN_VALUE;
+        for (Date data : datas) {
+            if (data != null) {
+                long dia = toLocalDateTime(data).toLocalDate().toEpochDay();
+                de = Math.min(de, dia);
+                ate = Math.max(ate, dia);
+            }
+        }
+        if (de <= ate) {
+            long primeiro = de;
+            long ultimo = ate;
+            TransactionUtil.afterCommit(() -> recalcular(usuarioId, primeiro, ultimo));
+        }
+    }
+
+    private void recalcular(Long usuarioId, long dia) {
+        recalcular(usuarioId, dia, dia);
+    }
+
+    private void recalcular(Long usuarioId, long de, long ate) {
+        synchronized (escrita) {
+            long primeiro = Math.max(de, primeiroDia);
+            long ultimo = Math.min(ate, ultimoDia);
+            if (primeiro > ultimo) {
+                return;
+            }
+            Map<Long, Long> carregados = transactionTemplate.execute(status -> carregar(usuarioId, primeiro, ultimo));
+            Map<Long, Long> dias = ocupados.computeIfAbsent(usuarioId, id -> new ConcurrentHashMap<>());
+            for (long dia = primeiro; dia <= ultimo; dia++) {
+                Long bits = carregados.get(dia);
+                if (bits == null) {
+                    dias.remove(dia);
+                } else {
+                    dias.put(dia, bits);
+                }
+            }
+            log.debug("Recomputed slots of Usuario {} from {} to {}", usuarioId, LocalDate.ofEpochDay(primeiro),
+                LocalDate.ofEpochDay(ultimo));
+        }
+    }
+
+    /**
+     * Move o horizonte para começar hoje, carregando do banco os dias que entraram e descartando os que saíram.
+     */
+    private void atualizarHorizonte() {
+        long hoje = LocalDate.now().toEpochDay();
+        if (hoje == primeiroDia) {
+            return;
+        }
+        synchronized (escrita) {
+            if (hoje == primeiroDia) {
+                return;
+            }
+            long fim = hoje + horizonteDias - 1;
+            long carregarDe = Math.max(hoje, ultimoDia + 1);
+            if (carregarDe <= fim) {
+                Map<Long, Map<Long, Long>> novos = transactionTemplate.execute(status -> carregarTodos(carregarDe, fim));
+                novos.forEach((usuarioId, dias) ->
+                    ocupados.computeIfAbsent(usuarioId, id -> new ConcurrentHashMap<>()).putAll(dias));
+            }
+            ultimoDia = fim;
+            primeiroDia = hoje;
+            ocupados.values().forEach(dias -> dias.keySet().removeIf(dia -> dia < hoje));
+            ocupados.values().removeIf(Map::isEmpty);
+            log.debug("Slot grid covers {} to {}", LocalDate.ofEpochDay(hoje), LocalDate.ofEpochDay(fim));
+        }
+    }
+
+    private Map<Long, Map<Long, Long>> carregarTodos(long de, long ate) {
+        Map<Long, Map<Long, Long>> grade = new HashMap<>();
+        for (Object[] linha : agendamentoRepository.findUsuarioIdAndDataByPeriodo(inicioDoDia(de), inicioDoDia(ate + 1))) {
+            marcar(grade.computeIfAbsent((Long) linha[0], id -> new HashMap<>()), (Date) linha[1]);
+        }
+        return grade;
+    }
+
+    private Map<Long, Long> carregar(Long usuarioId, long de, long ate) {
+        Map<Long, Long> dias = new HashMap<>();
+        for (Date data : agendamentoRepository.findDatasByUsuarioAndPeriodo(usuarioId, inicioDoDia(de), inicioDoDia(ate + 1))) {
+            marcar(dias, data);
+        }
+        return dias;
+    }
+
+    private void marcar(Map<Long, Long> dias, Date data) {
+        LocalDateTime horario = toLocalDateTime(data);
+        long minutos = ChronoUnit.MINUTES.between(inicio, horario.toLocalTime());
+        if (minutos < 0 || minutos >= (long) slots * duracaoSlot) {
+            return;
+        }
+        dias.merge(horario.toLocalDate().toEpochDay(), 1L << (minutos / duracaoSlot), (a, b) -> a | b);
+    }
+
+    private List<String> livres(long bits) {
+        List<String> livres = new ArrayList<>(slots - Long.bitCount(bits));
+        for (int slot = 0; slot < slots; slot++) {
+            if ((bits & (1L << slot)) == 0) {
+                livres.add(inicio.plusMinutes((long) slot * duracaoSlot).toString());
+            }
+        }
+        return livres;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date data) {
+        return LocalDateTime.ofInstant(data.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static Date inicioDoDia(long dia) {
+        return Date.from(LocalDate.ofEpochDay(dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
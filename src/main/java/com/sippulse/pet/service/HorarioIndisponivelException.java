@@ -0,0 +1,24 @@
+package com.sippulse.pet.service;
+
+/**
+ * Lançada quando o veterinário ou o pet já tem um agendamento no mesmo horário.
+ */
+public class HorarioIndisponivelException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String recurso;
+
+    /**
+     * @param recurso a entidade já agendada no horário, {@code "usuario"} ou {@code "pet"}.
+     * @param cause a violação da restrição única.
+     */
+    public HorarioIndisponivelException(String recurso, Throwable cause) {
+        super("Slot already booked for " + recurso, cause);
+        this.recurso = recurso;
+    }
+
+    public String getRecurso() {
+        return recurso;
+    }
+}
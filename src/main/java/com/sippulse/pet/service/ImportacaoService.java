@@ -0,0 +1,285 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.TransactionUtil;
+import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.repository.ClienteRepository;
+import com.sippulse.pet.service.dto.ImportacaoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for bulk imports of {@link Cliente} and {@link Pet}.
+ *
+ * <p>Rows are read from the {@link Iterator} in chunks of {@code pet.importacao.bloco} rows. Each chunk is
+ * validated with one query and written with a single JDBC batch in its own transaction. The entities use
+ * {@code GenerationType.IDENTITY}, which disables Hibernate insert batching, so rows are written through
+ * {@link JdbcTemplate} (with {@code rewriteBatchedStatements=true} the MySQL driver sends one multi-row
+ * INSERT). When a chunk's batch fails its rows are retried one by one to isolate the bad ones; errors are
+ * reported per row and never abort the whole import.</p>
+ */
+@Service
+public class ImportacaoService {
+
+    private final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private static final String INSERT_CLIENTE = "insert into cliente (versao, ultima_alteracao, nome, email, " +
+        "endereco, telefone, cpf) values (0, current_timestamp, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PET = "insert into pet (versao, ultima_alteracao, nome, especie_animal, " +
+        "raca, cliente_id) values (0, current_timestamp, ?, ?, ?, ?)";
+
+    private final ClienteRepository clienteRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AgendamentosPorCpfCache agendamentosPorCpfCache;
+
+    private final ClienteBuscaIndex clienteBuscaIndex;
+
+    @Value("${pet.importacao.bloco:500}")
+    private int bloco;
+
+    @Autowired
+    public ImportacaoService(ClienteRepository clienteRepository, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             AgendamentosPorCpfCache agendamentosPorCpfCache, ClienteBuscaIndex clienteBuscaIndex) {
+        this.clienteRepository = clienteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.agendamentosPorCpfCache = agendamentosPorCpfCache;
+        this.clienteBuscaIndex = clienteBuscaIndex;
+    }
+
+    /**
+     * Import clientes. Rows with an id or with a cpf that is repeated or already registered are rejected.
+     *
+     * @param clientes the clientes to import.
+     * @return the import summary.
+     */
+    public ImportacaoDTO importClientes(Iterator<Cliente> clientes) {
+        log.debug("Request to import Clientes");
+        return importar(clientes, new Gravacao<Cliente>() {
+
+            /**
+             * The batch does not return the generated ids: every row written after this point gets a greater id,
+             * so the search index picks them up by id range.
+             */
+            private long maiorIdAnterior;
+
+            @Override
+            public List<Linha<Cliente>> validar(List<Linha<Cliente>> linhas, ImportacaoDTO resultado) {
+                Long maiorId = clienteRepository.findMaxId();
+                maiorIdAnterior = maiorId == null ? 0L : maiorId;
+                Set<String> cpfs = linhas.stream()
+                    .map(linha -> linha.valor.getCpf())
+                    .filter(cpf -> cpf != null)
+                    .collect(Collectors.toSet());
+                Set<String> cadastrados = cpfs.isEmpty() ? new HashSet<>() : clienteRepository.findCpfsIn(cpfs);
+                Set<String> vistos = new HashSet<>();
+                List<Linha<Cliente>> validas = new ArrayList<>(linhas.size());
+                for (Linha<Cliente> linha : linhas) {
+                    String cpf = linha.valor.getCpf();
+                    if (linha.valor.getId() != null) {
+                        resultado.erro(linha.numero, "id must be empty");
+                    } else if (cpf != null && (cadastrados.contains(cpf) || !vistos.add(cpf))) {
+                        resultado.erro(linha.numero, "cpf already registered");
+                    } else {
+                        validas.add(linha);
+                    }
+                }
+                return validas;
+            }
+
+            @Override
+            public String sql() {
+                return INSERT_CLIENTE;
+            }
+
+            @Override
+            public Object[] args(Cliente cliente) {
+                return new Object[]{cliente.getNome(), cliente.getEmail(), cliente.getEndereco(),
+                    cliente.getTelefone(), cliente.getCpf()};
+            }
+
+            @Override
+            public void gravados(List<Cliente> clientes) {
+                agendamentosPorCpfCache.evictAfterCommit(clientes.stream().map(Cliente::getCpf).toArray(String[]::new));
+                TransactionUtil.afterCommit(() -> maiorIdAnterior = clienteBuscaIndex.indexarNovos(maiorIdAnterior));
+            }
+        });
+    }
+
+    /**
+     * Import pets. Rows with an id or referencing a missing cliente are rejected.
+     *
+     * @param pets the pets to import.
+     * @return the import summary.
+     */
+    public ImportacaoDTO importPets(Iterator<Pet> pets) {
+        log.debug("Request to import Pets");
+        return importar(pets, new Gravacao<Pet>() {
+
+            @Override
+            public List<Linha<Pet>> validar(List<Linha<Pet>> linhas, ImportacaoDTO resultado) {
+                Set<Long> ids = linhas.stream()
+                    .map(linha -> clienteId(linha.valor))
+                    .filter(id -> id != null)
+                    .collect(Collectors.toSet());
+                Set<Long> existentes = ids.isEmpty() ? new HashSet<>() : clienteRepository.findIdsIn(ids);
+                List<Linha<Pet>> validas = new ArrayList<>(linhas.size());
+                for (Linha<Pet> linha : linhas) {
+                    Long clienteId = clienteId(linha.valor);
+                    if (linha.valor.getId() != null) {
+                        resultado.erro(linha.numero, "id must be empty");
+                    } else if (clienteId != null && !existentes.contains(clienteId)) {
+                        resultado.erro(linha.numero, "cliente " + clienteId + " not found");
+                    } else {
+                        validas.add(linha);
+                    }
+                }
+                return validas;
+            }
+
+            @Override
+            public String sql() {
+                return INSERT_PET;
+            }
+
+            @Override
+            public Object[] args(Pet pet) {
+                return new Object[]{pet.getNome(), pet.getEspecieAnimal(), pet.getRaca(), clienteId(pet)};
+            }
+
+            @Override
+            public void gravados(List<Pet> pets) {
+            }
+        });
+    }
+
+    private static Long clienteId(Pet pet) {
+        return pet.getCliente() == null ? null : pet.getCliente().getId();
+    }
+
+    private <T> ImportacaoDTO importar(Iterator<T> valores, Gravacao<T> gravacao) {
+        ImportacaoDTO resultado = new ImportacaoDTO();
+        List<Linha<T>> linhas = new ArrayList<>(bloco);
+        while (true) {
+            T valor;
+            try {
+                if (!valores.hasNext()) {
+                    break;
+                }
+                valor = valores.next();
+            } catch (RuntimeException e) {
+                // the parser cannot resynchronize after a syntax error
+                log.debug("Malformed import input: {}", e.getMessage());
+                resultado.linhaLida();
+                resultado.erro(resultado.getTotal(), "malformed input, import stopped");
+                break;
+            }
+            resultado.linhaLida();
+            linhas.add(new Linha<>(resultado.getTotal(), valor));
+            if (linhas.size() == bloco) {
+                gravarBloco(linhas, gravacao, resultado);
+                linhas.clear();
+            }
+        }
+        if (!linhas.isEmpty()) {
+            gravarBloco(linhas, gravacao, resultado);
+        }
+        log.debug("Imported {} of {} rows, {} failed", resultado.getImportados(), resultado.getTotal(), resultado.getFalhas());
+        return resultado;
+    }
+
+    private <T> void gravarBloco(List<Linha<T>> linhas, Gravacao<T> gravacao, ImportacaoDTO resultado) {
+        List<Linha<T>> aprovadas = new ArrayList<>(linhas.size());
+        boolean gravado = transactionTemplate.execute(status -> {
+            aprovadas.addAll(gravacao.validar(linhas, resultado));
+            if (aprovadas.isEmpty()) {
+                return true;
+            }
+            try {
+                jdbcTemplate.batchUpdate(gravacao.sql(), aprovadas.stream()
+                    .map(linha -> gravacao.args(linha.valor))
+                    .collect(Collectors.toList()));
+            } catch (DataAccessException e) {
+                log.debug("Batch of {} rows failed, retrying row by row: {}", aprovadas.size(), e.getMessage());
+                status.setRollbackOnly();
+                return false;
+            }
+            gravacao.gravados(aprovadas.stream().map(linha -> linha.valor).collect(Collectors.toList()));
+            resultado.importados(aprovadas.size());
+            return true;
+        });
+        if (!gravado) {
+            // the rejected rows already have their error; only the approved ones are retried
+            gravarLinhaALinha(aprovadas, gravacao, resultado);
+        }
+    }
+
+    private <T> void gravarLinhaALinha(List<Linha<T>> linhas, Gravacao<T> gravacao, ImportacaoDTO resultado) {
+        for (Linha<T> linha : linhas) {
+            try {
+                transactionTemplate.execute(status -> {
+                    jdbcTemplate.update(gravacao.sql(), gravacao.args(linha.valor));
+                    List<T> gravado = new ArrayList<>(1);
+                    gravado.add(linha.valor);
+                    gravacao.gravados(gravado);
+                    return null;
+                });
+                resultado.importados(1);
+            } catch (DataAccessException e) {
+                resultado.erro(linha.numero, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private static final class Linha<T> {
+
+        private final long numero;
+
+        private final T valor;
+
+        private Linha(long numero, T valor) {
+            this.numero = numero;
+            this.valor = valor;
+        }
+    }
+
+    /**
+     * Validation and insert statement for one kind of row.
+     */
+    private interface Gravacao<T> {
+
+        /**
+         * Record the errors of the invalid rows and return the valid ones.
+         */
+        List<Linha<T>> validar(List<Linha<T>> linhas, ImportacaoDTO resultado);
+
+        String sql();
+
+        Object[] args(T valor);
+
+        /**
+         * Called inside the transaction once the rows are written.
+         */
+        void gravados(List<T> valores);
+    }
+}
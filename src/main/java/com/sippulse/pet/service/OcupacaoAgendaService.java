@@ -0,0 +1,51 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.service.dto.OcupacaoDTO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Service Interface para a ocupação da agenda: o número de {@link com.sippulse.pet.entity.Agendamento} de cada
+ * veterinário por dia.
+ */
+public interface OcupacaoAgendaService {
+
+    /**
+     * Move one agendamento from its previous usuario and day to the new ones, in the current transaction.
+     *
+     * @param usuarioAnterior the usuario before the write, or {@code null} if it was not counted.
+     * @param dataAnterior the data before the write, or {@code null} if it was not counted.
+     * @param usuario the usuario after the write, or {@code null} if it is not counted anymore.
+     * @param data the data after the write, or {@code null} if it is not counted anymore.
+     */
+    void mover(Long usuarioAnterior, Date dataAnterior, Long usuario, Date data);
+
+    /**
+     * Move many agendamentos at once, in the current transaction: the i-th one from {@code usuarioAnterior} on
+     * {@code datasAnteriores[i]} to {@code usuario} on {@code datas[i]}.
+     *
+     * @param usuarioAnterior the usuario before the write, or {@code null} if they were not counted.
+     * @param datasAnteriores the datas before the write, or {@code null} if they were not counted.
+     * @param usuario the usuario after the write, or {@code null} if they are not counted anymore.
+     * @param datas the datas after the write, or {@code null} if they are not counted anymore.
+     */
+    void moverTodos(Long usuarioAnterior, List<Date> datasAnteriores, Long usuario, List<Date> datas);
+
+    /**
+     * Get the occupancy of the days of a period that have agendamentos, ordered by day and usuario.
+     *
+     * @param usuarioId the usuario, or {@code null} for all of them.
+     * @param periodo the days to search.
+     * @return the list of read models.
+     */
+    List<OcupacaoDTO> findByPeriodo(Long usuarioId, Periodo periodo);
+
+    /**
+     * Recompute the whole summary from the agendamentos. Writes to agendamentos that run at the same time wait for
+     * the rebuild and are counted on top of it.
+     *
+     * @return the number of (usuario, day) rows.
+     */
+    int reconstruir();
+}
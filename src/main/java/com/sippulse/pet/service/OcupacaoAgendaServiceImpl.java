@@ -0,0 +1,259 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.entity.OcupacaoAgenda;
+import com.sippulse.pet.repository.AgendamentoRepository;
+import com.sippulse.pet.repository.OcupacaoAgendaRepository;
+import com.sippulse.pet.service.dto.OcupacaoDTO;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service Implementation for the agenda occupancy summary kept in {@link OcupacaoAgenda}.
+ *
+ * <p>{@link AgendamentoService} moves the counts in the same transaction as each write, so the occupancy of a
+ * period is read from days x usuarios rows instead of aggregating the agendamentos. The table is rebuilt at
+ * startup when it is empty and there are agendamentos, by only one of the instances that start together.</p>
+ */
+@Service
+@Transactional
+public class OcupacaoAgendaServiceImpl implements OcupacaoAgendaService, ApplicationListener<ContextRefreshedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(OcupacaoAgendaServiceImpl.class);
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final OcupacaoAgendaRepository ocupacaoAgendaRepository;
+
+    private final AgendamentoRepository agendamentoRepository;
+
+    private final GradeHorarios gradeHorarios;
+
+    private final UsuarioService usuarioService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${pet.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Autowired
+    public OcupacaoAgendaServiceImpl(OcupacaoAgendaRepository ocupacaoAgendaRepository,
+                                     AgendamentoRepository agendamentoRepository, GradeHorarios gradeHorarios,
+                                     UsuarioService usuarioService, PlatformTransactionManager transactionManager) {
+        this.ocupacaoAgendaRepository = ocupacaoAgendaRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.gradeHorarios = gradeHorarios;
+        this.usuarioService = usuarioService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        try {
+            if (!transactionTemplate.execute(status ->
+                    ocupacaoAgendaRepository.count() == 0 && agendamentoRepository.count() > 0)) {
+                return;
+            }
+            // a new transaction, so that its snapshot is taken after the lock of the delete, as in reconstruir
+            transactionTemplate.execute(status -> {
+                if (ocupacaoAgendaRepository.apagarTodas() > 0) {
+                    // another instance rebuilt the table while this one waited for the lock
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return recontar();
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not build the agenda occupancy summary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move one agendamento from its previous usuario and day to the new ones.
+     *
+     * @param usuarioAnterior the usuario before the write, or {@code null} if it was not counted.
+     * @param dataAnterior the data before the write, or {@code null} if it was not counted.
+     * @param usuario the usuario after the write, or {@code null} if it is not counted anymore.
+     * @param data the data after the write, or {@code null} if it is not counted anymore.
+     */
+    @Override
+    public void mover(Long usuarioAnterior, Date dataAnterior, Long usuario, Date data) {
+        LocalDate diaAnterior = usuarioAnterior == null || dataAnterior == null ? null : dia(dataAnterior);
+        LocalDate dia = usuario == null || data == null ? null : dia(data);
+        if (diaAnterior != null && dia != null && usuarioAnterior.equals(usuario) && diaAnterior.equals(dia)) {
+            return;
+        }
+        // rows are always locked in (usuario, dia) order, so that opposite moves do not deadlock
+        boolean anteriorPrimeiro = diaAnterior == null || dia == null || usuarioAnterior < usuario
+            || (usuarioAnterior.equals(usuario) && diaAnterior.isBefore(dia));
+        if (anteriorPrimeiro) {
+            somar(usuarioAnterior, diaAnterior, -1);
+            somar(usuario, dia, 1);
+        } else {
+            somar(usuario, dia, 1);
+            somar(usuarioAnterior, diaAnterior, -1);
+        }
+    }
+
+    /**
+     * Move many agendamentos at once: the i-th one from {@code usuarioAnterior} on {@code datasAnteriores[i]} to
+     * {@code usuario} on {@code datas[i]}.
+     *
+     * <p>The moves are summed per (usuario, day) first, so there is one statement per day that changes, in the
+     * same lock order as {@link #mover}.</p>
+     *
+     * @param usuarioAnterior the usuario before the write, or {@code null} if they were not counted.
+     * @param datasAnteriores the datas before the write, or {@code null} if they were not counted.
+     * @param usuario the usuario after the write, or {@code null} if they are not counted anymore.
+     * @param datas the datas after the write, or {@code null} if they are not counted anymore.
+     */
+    @Override
+    public void moverTodos(Long usuarioAnterior, List<Date> datasAnteriores, Long usuario, List<Date> datas) {
+        Map<OcupacaoAgenda.Chave, Integer> deltas = new TreeMap<>(
+            Comparator.comparing(OcupacaoAgenda.Chave::getUsuarioId).thenComparing(OcupacaoAgenda.Chave::getDia));
+        acumular(deltas, usuarioAnterior, datasAnteriores, -1);
+        acumular(deltas, usuario, datas, 1);
+        for (Map.Entry<OcupacaoAgenda.Chave, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                ocupacaoAgendaRepository.somar(delta.getKey().getUsuarioId(), delta.getKey().getDia(), delta.getValue());
+            }
+        }
+    }
+
+    private static void acumular(Map<OcupacaoAgenda.Chave, Integer> deltas, Long usuarioId, List<Date> datas, int delta) {
+        if (usuarioId == null || datas == null) {
+            return;
+        }
+        for (Date data : datas) {
+            if (data != null) {
+                deltas.merge(new OcupacaoAgenda.Chave(usuarioId, inicio(dia(data))), delta, Integer::sum);
+            }
+        }
+    }
+
+    private void somar(Long usuarioId, LocalDate dia, int delta) {
+        if (dia != null) {
+            ocupacaoAgendaRepository.somar(usuarioId, inicio(dia), delta);
+        }
+    }
+
+    /**
+     * Get the occupancy of the days of a period that have agendamentos, ordered by day and usuario.
+     *
+     * @param usuarioId the usuario, or {@code null} for all of them.
+     * @param periodo the days to search.
+     * @return the list of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<OcupacaoDTO> findByPeriodo(Long usuarioId, Periodo periodo) {
+        log.debug("Request to get the agenda occupancy of Usuario {} in {}", usuarioId, periodo);
+        Date de = inicio(periodo.getDe());
+        Date ate = inicio(periodo.getAte());
+        List<OcupacaoAgenda> linhas = usuarioId == null
+            ? ocupacaoAgendaRepository.findByPeriodo(de, ate)
+            : ocupacaoAgendaRepository.findByUsuarioAndPeriodo(usuarioId, de, ate);
+        Set<Long> usuarioIds = linhas.stream().map(OcupacaoAgenda::getUsuarioId).collect(Collectors.toSet());
+        Map<Long, UsuarioDTO> usuarios = usuarioIds.isEmpty()
+            ? Collections.emptyMap() : usuarioService.findDTOsByIds(usuarioIds);
+        int horarios = gradeHorarios.getHorariosPorDia();
+        List<OcupacaoDTO> ocupacao = new ArrayList<>(linhas.size());
+        for (OcupacaoAgenda linha : linhas) {
+            UsuarioDTO usuario = usuarios.get(linha.getUsuarioId());
+            ocupacao.add(new OcupacaoDTO(linha.getUsuarioId(), usuario == null ? null : usuario.getNome(),
+                dia(linha.getDia()).toString(), linha.getAgendamentos(), horarios));
+        }
+        return ocupacao;
+    }
+
+    /**
+     * Recompute the whole summary from the agendamentos.
+     *
+     * <p>The summary rows are deleted first, in the same transaction. On InnoDB's REPEATABLE READ the delete locks
+     * every row and gap of the table until the commit, so a concurrent {@link #mover} or {@link #moverTodos} waits
+     * and applies its delta on top of the rebuilt counts. The read snapshot of the agendamentos is only taken by
+     * the first plain select, after the lock: it holds every agendamento whose delta was deleted, and none whose
+     * delta is still waiting.</p>
+     *
+     * <p>The agendamentos are read with a server cursor and only the counts are kept in memory. The day is
+     * computed in the application's time zone, like in {@link #mover}, not with the database's {@code date()}.</p>
+     *
+     * @return the number of (usuario, day) rows.
+     */
+    @Override
+    public int reconstruir() {
+        log.debug("Request to rebuild the agenda occupancy summary");
+        ocupacaoAgendaRepository.apagarTodas();
+        return recontar();
+    }
+
+    /**
+     * Count the agendamentos of each (usuario, day) and insert one row for each, into an empty table.
+     */
+    private int recontar() {
+        Map<OcupacaoAgenda.Chave, Integer> contagem = new HashMap<>();
+        ScrollableResults rows = entityManager.unwrap(Session.class)
+            .createQuery("select a.usuario.id, a.data from Agendamento a where a.usuario is not null and a.data is not null")
+            .setReadOnly(true)
+            .setFetchSize(fetchSize)
+            .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (rows.next()) {
+                contagem.merge(new OcupacaoAgenda.Chave(rows.getLong(0), inicio(dia(rows.getDate(1)))), 1, Integer::sum);
+            }
+        } finally {
+            rows.close();
+        }
+        int total = 0;
+        for (Map.Entry<OcupacaoAgenda.Chave, Integer> entrada : contagem.entrySet()) {
+            entityManager.persist(new OcupacaoAgenda(entrada.getKey().getUsuarioId(), entrada.getKey().getDia(),
+                entrada.getValue()));
+            if (++total % FLUSH_INTERVAL == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        log.info("Rebuilt the agenda occupancy summary: {} rows", total);
+        return total;
+    }
+
+    private static LocalDate dia(Date data) {
+        // java.sql.Date does not support toInstant()
+        return Instant.ofEpochMilli(data.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static Date inicio(LocalDate dia) {
+        return Date.from(dia.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,66 @@
+package com.sippulse.pet.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Intervalo de dias, com início e fim inclusivos, usado nas consultas de agenda.
+ */
+public final class Periodo {
+
+    private final LocalDate de;
+
+    private final LocalDate ate;
+
+    /**
+     * @param de o primeiro dia do período.
+     * @param ate o último dia do período, inclusive.
+     * @throws IllegalArgumentException se algum dos dias for nulo ou {@code ate} for anterior a {@code de}.
+     */
+    public Periodo(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null || ate.isBefore(de)) {
+            throw new IllegalArgumentException("Invalid period: " + de + " - " + ate);
+        }
+        this.de = de;
+        this.ate = ate;
+    }
+
+    public LocalDate getDe() {
+        return de;
+    }
+
+    public LocalDate getAte() {
+        return ate;
+    }
+
+    /**
+     * @return o número de dias do período.
+     */
+    public long getDias() {
+        return ChronoUnit.DAYS.between(de, ate) + 1;
+    }
+
+    /**
+     * @return o primeiro instante do período.
+     */
+    public Date getInicio() {
+        return Date.from(de.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * @return o primeiro instante após o período, exclusivo.
+     */
+    public Date getFim() {
+        return Date.from(ate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Override
+    public String toString() {
+        return "Periodo{" +
+            "de=" + de +
+            ", ate=" + ate +
+            "}";
+    }
+}
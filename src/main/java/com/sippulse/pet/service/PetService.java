@@ -1,8 +1,14 @@
 package com.sippulse.pet.service;
 
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.service.dto.PetDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Interface for managing {@link Pet}.
@@ -24,6 +30,36 @@ public interface PetService {
      */
     List<Pet> findAll();
 
+    /**
+     * Get one page of the pets, ordered by id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    Pagina<PetDTO> findPage(PaginationUtil.Cursor cursor, int size);
+
+    /**
+     * Get one page of the pets, ordered by id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    Pagina<PetDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos);
+
+    /**
+     * Get one page of the pets of one cliente, ordered by id, reading only the requested fields.
+     *
+     * @param clienteId the id of the cliente.
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    Pagina<PetDTO> findPageByCliente(Long clienteId, PaginationUtil.Cursor cursor, int size, Campos campos);
+
 
     /**
      * Get the "id" pet.
@@ -33,6 +69,55 @@ public interface PetService {
      */
     Pet findOne(Long id);
 
+    /**
+     * Get the "id" pet read model.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    PetDTO findDTOById(Long id);
+
+    /**
+     * Get the "id" pet read model, reading only the requested fields.
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    PetDTO findDTOById(Long id, Campos campos);
+
+    /**
+     * Get the pet read models of the given ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the read models found, by id.
+     */
+    Map<Long, PetDTO> findDTOsByIds(Collection<Long> ids);
+
+    /**
+     * Get the pet read models of the given ids, reading only the requested fields.
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    Map<Long, PetDTO> findDTOsByIds(Collection<Long> ids, Campos campos);
+
+    /**
+     * Evict the cached read models of the pets of one cliente after commit.
+     *
+     * @param clienteId the id of the cliente.
+     */
+    void evictByCliente(Long clienteId);
+
+    /**
+     * Get the current revision of the "id" pet, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    Revisao findRevisao(Long id);
+
     /**
      * Delete the "id" pet.
      *
@@ -1,17 +1,35 @@
 package com.sippulse.pet.service;
 
+import com.google.common.cache.Cache;
+import com.sippulse.pet.PaginationUtil;
+import com.sippulse.pet.TransactionUtil;
 import com.sippulse.pet.entity.Pet;
 import com.sippulse.pet.repository.PetRepository;
+import com.sippulse.pet.service.dto.PetDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Implementation for managing {@link Pet}.
+ *
+ * <p>Pet read models are cached by id: they are read on every agendamento listing and change rarely. Writes evict
+ * the entry after commit; the expiration bounds how long a value loaded concurrently with a write can be served.</p>
  */
 @Service
 @Transactional
@@ -19,11 +37,30 @@ public class PetServiceImpl implements PetService {
 
     private final Logger log = LoggerFactory.getLogger(PetServiceImpl.class);
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final PetRepository petRepository;
 
+    private final CacheRegistry cacheRegistry;
+
+    @Value("${pet.cache.pets.tamanho:100000}")
+    private long tamanhoCache;
+
+    @Value("${pet.cache.pets.expiracao-segundos:600}")
+    private long expiracaoCacheSegundos;
+
+    private Cache<Long, PetDTO> cache;
+
     @Autowired
-    public PetServiceImpl(PetRepository petRepository) {
+    public PetServiceImpl(PetRepository petRepository, CacheRegistry cacheRegistry) {
         this.petRepository = petRepository;
+        this.cacheRegistry = cacheRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = cacheRegistry.criar("pets", tamanhoCache, expiracaoCacheSegundos);
     }
 
     /**
@@ -35,6 +72,13 @@ public class PetServiceImpl implements PetService {
     @Override
     public Pet save(Pet pet) {
         log.debug("Request to save Pet : {}", pet);
+        if (pet.getId() != null) {
+            evictAfterCommit(pet.getId());
+        }
+        if (pet.getId() != null && pet.getVersao() == null) {
+            // without a version Spring Data would treat the entity as new and persist it
+            pet.setVersao(petRepository.findVersaoById(pet.getId()));
+        }
         return petRepository.save(pet);
     }
 
@@ -47,7 +91,78 @@ public class PetServiceImpl implements PetService {
     @Transactional(readOnly = true)
     public List<Pet> findAll() {
         log.debug("Request to get all Pets");
-        return petRepository.findAll();
+        return petRepository.findAllWithCliente();
+    }
+
+    /**
+     * Get one page of the pets, ordered by id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<PetDTO> findPage(PaginationUtil.Cursor cursor, int size) {
+        log.debug("Request to get a page of Pets after : {}", cursor == null ? null : cursor.getId());
+        List<PetDTO> rows = cursor == null
+            ? petRepository.findFirstPage(PaginationUtil.limit(size))
+            : petRepository.findPageAfter(cursor.getId(), PaginationUtil.limit(size));
+        return PaginationUtil.page(rows, size, pet -> PaginationUtil.encodeCursor(pet.getId()));
+    }
+
+    /**
+     * Get one page of the pets, ordered by id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<PetDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos) {
+        if (campos.isTodos()) {
+            return findPage(cursor, size);
+        }
+        log.debug("Request to get a page of Pets after {} with fields {}", cursor == null ? null : cursor.getId(),
+            campos);
+        Projecao.Consulta<PetDTO> consulta = cursor == null
+            ? Projecoes.PET.consulta(entityManager, campos, "order by p.id asc")
+            : Projecoes.PET.consulta(entityManager, campos, "where p.id > :id order by p.id asc")
+                .parametro("id", cursor.getId());
+        List<PetDTO> rows = consulta.limite(size + 1).listar();
+        return PaginationUtil.page(rows, size, pet -> PaginationUtil.encodeCursor(pet.getId()));
+    }
+
+    /**
+     * Get one page of the pets of one cliente, ordered by id, reading only the requested fields.
+     *
+     * @param clienteId the id of the cliente.
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<PetDTO> findPageByCliente(Long clienteId, PaginationUtil.Cursor cursor, int size, Campos campos) {
+        log.debug("Request to get a page of Pets of Cliente {} after {} with fields {}", clienteId,
+            cursor == null ? null : cursor.getId(), campos);
+        List<PetDTO> rows;
+        if (campos.isTodos()) {
+            rows = cursor == null
+                ? petRepository.findFirstPageByCliente(clienteId, PaginationUtil.limit(size))
+                : petRepository.findPageAfterByCliente(clienteId, cursor.getId(), PaginationUtil.limit(size));
+        } else {
+            Projecao.Consulta<PetDTO> consulta = cursor == null
+                ? Projecoes.PET.consulta(entityManager, campos, "where p.cliente.id = :clienteId order by p.id asc")
+                : Projecoes.PET.consulta(entityManager, campos,
+                    "where p.cliente.id = :clienteId and p.id > :id order by p.id asc")
+                    .parametro("id", cursor.getId());
+            rows = consulta.parametro("clienteId", clienteId).limite(size + 1).listar();
+        }
+        return PaginationUtil.page(rows, size, pet -> PaginationUtil.encodeCursor(pet.getId()));
     }
 
 
@@ -61,7 +176,112 @@ public class PetServiceImpl implements PetService {
     @Transactional(readOnly = true)
     public Pet findOne(Long id) {
         log.debug("Request to get Pet : {}", id);
-        return petRepository.findOne(id);
+        return petRepository.findOneWithCliente(id);
+    }
+
+    /**
+     * Get one pet read model by id, from the cache when possible.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PetDTO findDTOById(Long id) {
+        log.debug("Request to get PetDTO : {}", id);
+        PetDTO pet = cache.getIfPresent(id);
+        if (pet == null) {
+            pet = petRepository.findDTOById(id);
+            if (pet != null) {
+                cache.put(id, pet);
+            }
+        }
+        return pet;
+    }
+
+    /**
+     * Get one pet read model by id, reading only the requested fields.
+     *
+     * <p>Partial reads bypass the cache, which holds complete read models.</p>
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PetDTO findDTOById(Long id, Campos campos) {
+        if (campos.isTodos()) {
+            return findDTOById(id);
+        }
+        log.debug("Request to get PetDTO {} with fields {}", id, campos);
+        return Projecoes.PET.consulta(entityManager, campos, "where p.id = :id").parametro("id", id).unico();
+    }
+
+    /**
+     * Get the pet read models of the given ids, from the cache when possible; the missing ones are read with a
+     * single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the read models found, by id.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, PetDTO> findDTOsByIds(Collection<Long> ids) {
+        log.debug("Request to get PetDTOs : {}", ids);
+        Map<Long, PetDTO> pets = new HashMap<>(cache.getAllPresent(ids));
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            if (!pets.containsKey(id)) {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            for (PetDTO pet : petRepository.findDTOsByIdIn(faltantes)) {
+                cache.put(pet.getId(), pet);
+                pets.put(pet.getId(), pet);
+            }
+        }
+        return pets;
+    }
+
+    /**
+     * Get the pet read models of the given ids, reading only the requested fields.
+     *
+     * <p>Complete read models come from the cache when possible; partial reads bypass it and read the requested
+     * columns of all the ids with a single query.</p>
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, PetDTO> findDTOsByIds(Collection<Long> ids, Campos campos) {
+        if (campos.isTodos()) {
+            return findDTOsByIds(ids);
+        }
+        log.debug("Request to get PetDTOs {} with fields {}", ids, campos);
+        Map<Long, PetDTO> pets = new HashMap<>();
+        for (PetDTO pet : Projecoes.PET.consulta(entityManager, campos, "where p.id in :ids")
+                .parametro("ids", ids).listar()) {
+            pets.put(pet.getId(), pet);
+        }
+        return pets;
+    }
+
+    /**
+     * Get the current revision of the "id" pet, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Revisao findRevisao(Long id) {
+        log.debug("Request to get the revision of Pet : {}", id);
+        List<Object[]> linhas = petRepository.findRevisaoById(id);
+        return linhas.isEmpty() ? null : Revisao.of(linhas.get(0));
     }
 
     /**
@@ -72,6 +292,27 @@ public class PetServiceImpl implements PetService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Pet : {}", id);
+        evictAfterCommit(id);
         petRepository.delete(id);
     }
+
+    /**
+     * Evict the cached pets of one cliente after commit, as their read models carry the cliente nome.
+     *
+     * <p>The ids of the pets are read through the foreign key index on {@code pet.cliente_id}, rather than
+     * found by scanning the whole cache.</p>
+     *
+     * @param clienteId the id of the cliente.
+     */
+    @Override
+    public void evictByCliente(Long clienteId) {
+        List<Long> ids = petRepository.findIdsByClienteId(clienteId);
+        if (!ids.isEmpty()) {
+            TransactionUtil.afterCommit(() -> cache.invalidateAll(ids));
+        }
+    }
+
+    private void evictAfterCommit(Long id) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(id));
+    }
 }
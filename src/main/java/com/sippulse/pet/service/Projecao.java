@@ -0,0 +1,185 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.service.dto.Campos;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Projeção dinâmica de uma entidade em um read model: o select tem só as colunas dos campos pedidos, e os joins só
+ * entram quando algum campo pedido depende deles.
+ *
+ * <p>Os campos {@code sempre} são lidos mesmo quando não foram pedidos, porque compõem a ETag ou o cursor; o read
+ * model continua escrevendo apenas os campos pedidos.</p>
+ *
+ * @param <T> o tipo do read model.
+ */
+final class Projecao<T> {
+
+    private final Supplier<T> novo;
+
+    private final BiConsumer<T, Campos> marcar;
+
+    private final String entidade;
+
+    private final Map<String, Coluna<T>> colunas = new LinkedHashMap<>();
+
+    private final Set<String> sempre = new LinkedHashSet<>();
+
+    /**
+     * @param novo cria um read model vazio.
+     * @param marcar guarda no read model os campos pedidos.
+     * @param entidade a entidade e o seu alias no JPQL, por exemplo {@code "Cliente c"}.
+     */
+    Projecao(Supplier<T> novo, BiConsumer<T, Campos> marcar, String entidade) {
+        this.novo = novo;
+        this.marcar = marcar;
+        this.entidade = entidade;
+    }
+
+    /**
+     * Declara um campo lido de uma expressão JPQL sobre a entidade.
+     */
+    <V> Projecao<T> campo(String nome, String expressao, BiConsumer<T, V> setter) {
+        return campo(nome, expressao, null, setter);
+    }
+
+    /**
+     * Declara um campo lido de uma associação, que precisa do {@code join}.
+     */
+    @SuppressWarnings("unchecked")
+    <V> Projecao<T> campo(String nome, String expressao, String join, BiConsumer<T, V> setter) {
+        colunas.put(nome, new Coluna<>(expressao, join, (BiConsumer<T, Object>) setter));
+        return this;
+    }
+
+    /**
+     * Declara os campos lidos mesmo quando não foram pedidos.
+     */
+    Projecao<T> sempre(String... nomes) {
+        sempre.addAll(Arrays.asList(nomes));
+        return this;
+    }
+
+    /**
+     * Monta a consulta dos campos pedidos.
+     *
+     * @param entityManager o entity manager da transação.
+     * @param campos os campos pedidos; os que não têm coluna, como os preenchidos por cache, são ignorados.
+     * @param restricao o resto do JPQL depois do {@code from}, com {@code where} e {@code order by}.
+     * @return a consulta, para receber os parâmetros.
+     */
+    Consulta<T> consulta(EntityManager entityManager, Campos campos, String restricao) {
+        Set<String> nomes = new LinkedHashSet<>(sempre);
+        nomes.addAll(campos.isTodos() ? colunas.keySet() : campos.getNomes());
+        Map<String, List<BiConsumer<T, Object>>> setters = new LinkedHashMap<>();
+        Set<String> joins = new LinkedHashSet<>();
+        for (String nome : nomes) {
+            Coluna<T> coluna = colunas.get(nome);
+            if (coluna == null) {
+                continue;
+            }
+            // dois campos podem vir da mesma coluna
+            setters.computeIfAbsent(coluna.expressao, expressao -> new ArrayList<>()).add(coluna.setter);
+            if (coluna.join != null) {
+                joins.add(coluna.join);
+            }
+        }
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", setters.keySet()))
+            .append(" from ").append(entidade).append(' ');
+        for (String join : joins) {
+            jpql.append(join).append(' ');
+        }
+        jpql.append(restricao);
+        return new Consulta<>(entityManager.createQuery(jpql.toString()), new ArrayList<>(setters.values()), this,
+            campos);
+    }
+
+    private static final class Coluna<T> {
+
+        private final String expressao;
+
+        private final String join;
+
+        private final BiConsumer<T, Object> setter;
+
+        private Coluna(String expressao, String join, BiConsumer<T, Object> setter) {
+            this.expressao = expressao;
+            this.join = join;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Uma consulta montada por {@link Projecao#consulta}.
+     *
+     * @param <T> o tipo do read model.
+     */
+    static final class Consulta<T> {
+
+        private final Query query;
+
+        private final List<List<BiConsumer<T, Object>>> setters;
+
+        private final Projecao<T> projecao;
+
+        private final Campos campos;
+
+        private Consulta(Query query, List<List<BiConsumer<T, Object>>> setters, Projecao<T> projecao, Campos campos) {
+            this.query = query;
+            this.setters = setters;
+            this.projecao = projecao;
+            this.campos = campos;
+        }
+
+        Consulta<T> parametro(String nome, Object valor) {
+            query.setParameter(nome, valor);
+            return this;
+        }
+
+        Consulta<T> limite(int limite) {
+            query.setMaxResults(limite);
+            return this;
+        }
+
+        /**
+         * @return os read models, com os campos pedidos.
+         */
+        List<T> listar() {
+            List<?> linhas = query.getResultList();
+            List<T> resultado = new ArrayList<>(linhas.size());
+            for (Object linha : linhas) {
+                resultado.add(ler(linha instanceof Object[] ? (Object[]) linha : new Object[]{linha}));
+            }
+            return resultado;
+        }
+
+        /**
+         * @return o read model, com os campos pedidos, ou {@code null} se não houver linha.
+         */
+        T unico() {
+            List<T> resultado = limite(1).listar();
+            return resultado.isEmpty() ? null : resultado.get(0);
+        }
+
+        private T ler(Object[] linha) {
+            T item = projecao.novo.get();
+            projecao.marcar.accept(item, campos);
+            for (int i = 0; i < linha.length; i++) {
+                for (BiConsumer<T, Object> setter : setters.get(i)) {
+                    setter.accept(item, linha[i]);
+                }
+            }
+            return item;
+        }
+    }
+}
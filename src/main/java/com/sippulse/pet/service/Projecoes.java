@@ -0,0 +1,63 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.service.dto.AgendamentoDTO;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import com.sippulse.pet.service.dto.PetDTO;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+
+/**
+ * As projeções dinâmicas dos read models, usadas quando o parâmetro {@code fields} limita os campos.
+ *
+ * <p>Os nomes das associações vêm de joins que só entram quando o nome é pedido, em vez dos caches de pets e
+ * usuarios usados nas leituras completas.</p>
+ */
+final class Projecoes {
+
+    static final Projecao<AgendamentoDTO> AGENDAMENTO =
+        new Projecao<>(AgendamentoDTO::new, AgendamentoDTO::setCampos, "Agendamento a")
+            .campo("id", "a.id", AgendamentoDTO::setId)
+            .campo("versao", "a.versao", AgendamentoDTO::setVersao)
+            .campo("data", "a.data", AgendamentoDTO::setData)
+            .campo("clienteId", "a.cliente.id", AgendamentoDTO::setClienteId)
+            .campo("clienteNome", "c.nome", "left join a.cliente c", AgendamentoDTO::setClienteNome)
+            .campo("petId", "a.pet.id", AgendamentoDTO::setPetId)
+            .campo("petNome", "p.nome", "left join a.pet p", AgendamentoDTO::setPetNome)
+            .campo("usuarioId", "a.usuario.id", AgendamentoDTO::setUsuarioId)
+            .campo("usuarioNome", "u.nome", "left join a.usuario u", AgendamentoDTO::setUsuarioNome)
+            // a data é a chave do cursor
+            .sempre("id", "versao", "data");
+
+    static final Projecao<ClienteDTO> CLIENTE =
+        new Projecao<>(ClienteDTO::new, ClienteDTO::setCampos, "Cliente c")
+            .campo("id", "c.id", ClienteDTO::setId)
+            .campo("versao", "c.versao", ClienteDTO::setVersao)
+            .campo("nome", "c.nome", ClienteDTO::setNome)
+            .campo("email", "c.email", ClienteDTO::setEmail)
+            .campo("endereco", "c.endereco", ClienteDTO::setEndereco)
+            .campo("telefone", "c.telefone", ClienteDTO::setTelefone)
+            .campo("cpf", "c.cpf", ClienteDTO::setCpf)
+            .sempre("id", "versao");
+
+    static final Projecao<PetDTO> PET =
+        new Projecao<>(PetDTO::new, PetDTO::setCampos, "Pet p")
+            .campo("id", "p.id", PetDTO::setId)
+            .campo("versao", "p.versao", PetDTO::setVersao)
+            .campo("nome", "p.nome", PetDTO::setNome)
+            .campo("especieAnimal", "p.especieAnimal", PetDTO::setEspecieAnimal)
+            .campo("raca", "p.raca", PetDTO::setRaca)
+            .campo("clienteId", "p.cliente.id", PetDTO::setClienteId)
+            .campo("clienteNome", "c.nome", "left join p.cliente c", PetDTO::setClienteNome)
+            .sempre("id", "versao");
+
+    static final Projecao<UsuarioDTO> USUARIO =
+        new Projecao<>(UsuarioDTO::new, UsuarioDTO::setCampos, "Usuario u")
+            .campo("id", "u.id", UsuarioDTO::setId)
+            .campo("versao", "u.versao", UsuarioDTO::setVersao)
+            .campo("dataCadastro", "u.dataCadastro", UsuarioDTO::setDataCadastro)
+            .campo("nome", "u.nome", UsuarioDTO::setNome)
+            .campo("usuarioTipo", "u.usuarioTipo", UsuarioDTO::setUsuarioTipo)
+            .sempre("id", "versao");
+
+    private Projecoes() {
+    }
+}
@@ -0,0 +1,65 @@
+package com.sippulse.pet.service;
+
+import com.sippulse.pet.ETagUtil;
+
+import java.util.Date;
+
+/**
+ * Revisão atual da representação de uma entidade: a sua versão, a ETag e a data da última alteração.
+ *
+ * <p>A ETag inclui as versões das associações cujos dados aparecem na representação, como o nome do cliente
+ * de um pet.</p>
+ */
+public final class Revisao {
+
+    private final Long versao;
+
+    private final String etag;
+
+    private final Date ultimaAlteracao;
+
+    private Revisao(Long versao, String etag, Date ultimaAlteracao) {
+        this.versao = versao;
+        this.etag = etag;
+        this.ultimaAlteracao = ultimaAlteracao;
+    }
+
+    /**
+     * @param linha a versão e a última alteração da entidade, seguidas das de cada associação
+     *              ({@code [versao, ultimaAlteracao, versao, ultimaAlteracao, ...]}).
+     * @return a revisão.
+     */
+    public static Revisao of(Object[] linha) {
+        Date ultimaAlteracao = null;
+        for (int i = 1; i < linha.length; i += 2) {
+            Date data = (Date) linha[i];
+            if (data != null && (ultimaAlteracao == null || data.after(ultimaAlteracao))) {
+                ultimaAlteracao = data;
+            }
+        }
+        return new Revisao((Long) linha[0], ETagUtil.etag(linha), ultimaAlteracao);
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return a última alteração da entidade ou das associações, ou {@code null} se desconhecida.
+     */
+    public Date getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+
+    @Override
+    public String toString() {
+        return "Revisao{" +
+            "versao=" + versao +
+            ", etag=" + etag +
+            "}";
+    }
+}
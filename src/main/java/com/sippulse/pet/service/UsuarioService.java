@@ -1,8 +1,15 @@
 package com.sippulse.pet.service;
 
+import com.sippulse.pet.PaginationUtil;
 import com.sippulse.pet.entity.Usuario;
+import com.sippulse.pet.service.dto.DisponibilidadeDTO;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Interface for managing {@link Usuario}.
@@ -24,6 +31,25 @@ public interface UsuarioService {
      */
     List<Usuario> findAll();
 
+    /**
+     * Get one page of the usuarios, ordered by id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    Pagina<UsuarioDTO> findPage(PaginationUtil.Cursor cursor, int size);
+
+    /**
+     * Get one page of the usuarios, ordered by id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    Pagina<UsuarioDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos);
+
 
     /**
      * Get the "id" usuario.
@@ -33,6 +59,57 @@ public interface UsuarioService {
      */
     Usuario findOne(Long id);
 
+    /**
+     * Get the "id" usuario read model.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    UsuarioDTO findDTOById(Long id);
+
+    /**
+     * Get the "id" usuario read model, reading only the requested fields.
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    UsuarioDTO findDTOById(Long id, Campos campos);
+
+    /**
+     * Get the usuario read models of the given ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the read models found, by id.
+     */
+    Map<Long, UsuarioDTO> findDTOsByIds(Collection<Long> ids);
+
+    /**
+     * Get the usuario read models of the given ids, reading only the requested fields.
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    Map<Long, UsuarioDTO> findDTOsByIds(Collection<Long> ids, Campos campos);
+
+    /**
+     * Get the free slots of one usuario (veterinario) in each day of a period.
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days to search.
+     * @return one item per day, in order.
+     */
+    List<DisponibilidadeDTO> findDisponibilidade(Long usuarioId, Periodo periodo);
+
+    /**
+     * Get the current revision of the "id" usuario, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    Revisao findRevisao(Long id);
+
     /**
      * Delete the "id" usuario.
      *
@@ -1,17 +1,36 @@
 package com.sippulse.pet.service;
 
+import com.google.common.cache.Cache;
+import com.sippulse.pet.PaginationUtil;
+import com.sippulse.pet.TransactionUtil;
 import com.sippulse.pet.entity.Usuario;
 import com.sippulse.pet.repository.UsuarioRepository;
+import com.sippulse.pet.service.dto.DisponibilidadeDTO;
+import com.sippulse.pet.service.dto.UsuarioDTO;
+import com.sippulse.pet.service.dto.Campos;
+import com.sippulse.pet.service.dto.Pagina;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Implementation for managing {@link Usuario}.
+ *
+ * <p>Usuario read models are cached by id: they are read on every agendamento listing and change rarely. Writes evict
+ * the entry after commit; the expiration bounds how long a value loaded concurrently with a write can be served.</p>
  */
 @Service
 @Transactional
@@ -19,11 +38,34 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     private final Logger log = LoggerFactory.getLogger(UsuarioServiceImpl.class);
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final UsuarioRepository usuarioRepository;
 
+    private final GradeHorarios gradeHorarios;
+
+    private final CacheRegistry cacheRegistry;
+
+    @Value("${pet.cache.usuarios.tamanho:10000}")
+    private long tamanhoCache;
+
+    @Value("${pet.cache.usuarios.expiracao-segundos:600}")
+    private long expiracaoCacheSegundos;
+
+    private Cache<Long, UsuarioDTO> cache;
+
     @Autowired
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, GradeHorarios gradeHorarios,
+                              CacheRegistry cacheRegistry) {
         this.usuarioRepository = usuarioRepository;
+        this.gradeHorarios = gradeHorarios;
+        this.cacheRegistry = cacheRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = cacheRegistry.criar("usuarios", tamanhoCache, expiracaoCacheSegundos);
     }
 
     /**
@@ -35,6 +77,13 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Override
     public Usuario save(Usuario usuario) {
         log.debug("Request to save Usuario : {}", usuario);
+        if (usuario.getId() != null) {
+            evictAfterCommit(usuario.getId());
+        }
+        if (usuario.getId() != null && usuario.getVersao() == null) {
+            // without a version Spring Data would treat the entity as new and persist it
+            usuario.setVersao(usuarioRepository.findVersaoById(usuario.getId()));
+        }
         return usuarioRepository.save(usuario);
     }
 
@@ -50,6 +99,47 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    /**
+     * Get one page of the usuarios, ordered by id.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<UsuarioDTO> findPage(PaginationUtil.Cursor cursor, int size) {
+        log.debug("Request to get a page of Usuarios after : {}", cursor == null ? null : cursor.getId());
+        List<UsuarioDTO> rows = cursor == null
+            ? usuarioRepository.findFirstPage(PaginationUtil.limit(size))
+            : usuarioRepository.findPageAfter(cursor.getId(), PaginationUtil.limit(size));
+        return PaginationUtil.page(rows, size, usuario -> PaginationUtil.encodeCursor(usuario.getId()));
+    }
+
+    /**
+     * Get one page of the usuarios, ordered by id, reading only the requested fields.
+     *
+     * @param cursor the position after which the page starts, or {@code null} for the first page.
+     * @param size the page size.
+     * @param campos the fields to read.
+     * @return the page of read models.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<UsuarioDTO> findPage(PaginationUtil.Cursor cursor, int size, Campos campos) {
+        if (campos.isTodos()) {
+            return findPage(cursor, size);
+        }
+        log.debug("Request to get a page of Usuarios after {} with fields {}", cursor == null ? null : cursor.getId(),
+            campos);
+        Projecao.Consulta<UsuarioDTO> consulta = cursor == null
+            ? Projecoes.USUARIO.consulta(entityManager, campos, "order by u.id asc")
+            : Projecoes.USUARIO.consulta(entityManager, campos, "where u.id > :id order by u.id asc")
+                .parametro("id", cursor.getId());
+        List<UsuarioDTO> rows = consulta.limite(size + 1).listar();
+        return PaginationUtil.page(rows, size, usuario -> PaginationUtil.encodeCursor(usuario.getId()));
+    }
+
 
     /**
      * Get one usuario by id.
@@ -64,6 +154,127 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuarioRepository.findOne(id);
     }
 
+    /**
+     * Get one usuario read model by id, from the cache when possible.
+     *
+     * @param id the id of the entity.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UsuarioDTO findDTOById(Long id) {
+        log.debug("Request to get UsuarioDTO : {}", id);
+        UsuarioDTO usuario = cache.getIfPresent(id);
+        if (usuario == null) {
+            usuario = usuarioRepository.findDTOById(id);
+            if (usuario != null) {
+                cache.put(id, usuario);
+            }
+        }
+        return usuario;
+    }
+
+    /**
+     * Get one usuario read model by id, reading only the requested fields.
+     *
+     * <p>Partial reads bypass the cache, which holds complete read models.</p>
+     *
+     * @param id the id of the entity.
+     * @param campos the fields to read.
+     * @return the read model, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UsuarioDTO findDTOById(Long id, Campos campos) {
+        if (campos.isTodos()) {
+            return findDTOById(id);
+        }
+        log.debug("Request to get UsuarioDTO {} with fields {}", id, campos);
+        return Projecoes.USUARIO.consulta(entityManager, campos, "where u.id = :id").parametro("id", id).unico();
+    }
+
+    /**
+     * Get the usuario read models of the given ids, from the cache when possible; the missing ones are read with a
+     * single query.
+     *
+     * @param ids the ids of the entities.
+     * @return the read models found, by id.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, UsuarioDTO> findDTOsByIds(Collection<Long> ids) {
+        log.debug("Request to get UsuarioDTOs : {}", ids);
+        Map<Long, UsuarioDTO> usuarios = new HashMap<>(cache.getAllPresent(ids));
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            if (!usuarios.containsKey(id)) {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            for (UsuarioDTO usuario : usuarioRepository.findDTOsByIdIn(faltantes)) {
+                cache.put(usuario.getId(), usuario);
+                usuarios.put(usuario.getId(), usuario);
+            }
+        }
+        return usuarios;
+    }
+
+    /**
+     * Get the free slots of one usuario (veterinario) in each day of a period.
+     *
+     * <p>Days inside the availability horizon are answered from memory, without a database connection.</p>
+     *
+     * @param usuarioId the id of the usuario.
+     * @param periodo the days to search.
+     * @return one item per day, in order.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<DisponibilidadeDTO> findDisponibilidade(Long usuarioId, Periodo periodo) {
+        log.debug("Request to get the availability of Usuario {} in {}", usuarioId, periodo);
+        return gradeHorarios.disponibilidade(usuarioId, periodo);
+    }
+
+    /**
+     * Get the usuario read models of the given ids, reading only the requested fields.
+     *
+     * <p>Complete read models come from the cache when possible; partial reads bypass it and read the requested
+     * columns of all the ids with a single query.</p>
+     *
+     * @param ids the ids of the entities.
+     * @param campos the fields to read.
+     * @return the read models found, by id.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, UsuarioDTO> findDTOsByIds(Collection<Long> ids, Campos campos) {
+        if (campos.isTodos()) {
+            return findDTOsByIds(ids);
+        }
+        log.debug("Request to get UsuarioDTOs {} with fields {}", ids, campos);
+        Map<Long, UsuarioDTO> usuarios = new HashMap<>();
+        for (UsuarioDTO usuario : Projecoes.USUARIO.consulta(entityManager, campos, "where u.id in :ids")
+                .parametro("ids", ids).listar()) {
+            usuarios.put(usuario.getId(), usuario);
+        }
+        return usuarios;
+    }
+
+    /**
+     * Get the current revision of the "id" usuario, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the revision, or {@code null} if not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Revisao findRevisao(Long id) {
+        log.debug("Request to get the revision of Usuario : {}", id);
+        List<Object[]> linhas = usuarioRepository.findRevisaoById(id);
+        return linhas.isEmpty() ? null : Revisao.of(linhas.get(0));
+    }
+
     /**
      * Delete the usuario by id.
      *
@@ -72,6 +283,11 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Usuario : {}", id);
+        evictAfterCommit(id);
         usuarioRepository.delete(id);
     }
+
+    private void evictAfterCommit(Long id) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(id));
+    }
 }
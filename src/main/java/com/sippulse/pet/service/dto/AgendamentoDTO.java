@@ -0,0 +1,166 @@
+package com.sippulse.pet.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Read model de um {@link com.sippulse.pet.entity.Agendamento}, com os ids e nomes das associações.
+ */
+public class AgendamentoDTO implements Serializable, Parcial {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long versao;
+
+    @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    private Date data;
+
+    private Long clienteId;
+
+    private String clienteNome;
+
+    private Long petId;
+
+    private String petNome;
+
+    private Long usuarioId;
+
+    private String usuarioNome;
+
+    private transient Campos campos = Campos.TODOS;
+
+    public AgendamentoDTO() {
+    }
+
+    /**
+     * Sem os nomes do pet e do usuario, preenchidos depois a partir dos caches.
+     */
+    public AgendamentoDTO(Long id, Long versao, Date data, Long clienteId, String clienteNome, Long petId,
+                          Long usuarioId) {
+        this(id, versao, data, clienteId, clienteNome, petId, null, usuarioId, null);
+    }
+
+    public AgendamentoDTO(Long id, Long versao, Date data, Long clienteId, String clienteNome, Long petId, String petNome,
+                          Long usuarioId, String usuarioNome) {
+        this.id = id;
+        this.versao = versao;
+        this.data = data;
+        this.clienteId = clienteId;
+        this.clienteNome = clienteNome;
+        this.petId = petId;
+        this.petNome = petNome;
+        this.usuarioId = usuarioId;
+        this.usuarioNome = usuarioNome;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Date getData() {
+        return data;
+    }
+
+    public void setData(Date data) {
+        this.data = data;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public String getClienteNome() {
+        return clienteNome;
+    }
+
+    public void setClienteNome(String clienteNome) {
+        this.clienteNome = clienteNome;
+    }
+
+    public Long getPetId() {
+        return petId;
+    }
+
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+
+    public String getPetNome() {
+        return petNome;
+    }
+
+    public void setPetNome(String petNome) {
+        this.petNome = petNome;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getUsuarioNome() {
+        return usuarioNome;
+    }
+
+    public void setUsuarioNome(String usuarioNome) {
+        this.usuarioNome = usuarioNome;
+    }
+
+    @Override
+    @JsonIgnore
+    public Campos getCampos() {
+        return campos;
+    }
+
+    public void setCampos(Campos campos) {
+        this.campos = campos;
+    }
+
+    /**
+     * A revisão de um agendamento em uma ETag de lista; os nomes vêm de outras entidades e também mudam a
+     * representação.
+     *
+     * @param agendamento o agendamento.
+     * @return o id, a versão e os nomes do cliente, do pet e do veterinário.
+     */
+    public static String revisaoDe(AgendamentoDTO agendamento) {
+        return agendamento.getId() + ":" + agendamento.getVersao() + ":" + agendamento.getClienteNome() + ":"
+            + agendamento.getPetNome() + ":" + agendamento.getUsuarioNome();
+    }
+
+    @Override
+    public String toString() {
+        return "AgendamentoDTO{" +
+            "id=" + getId() +
+            ", versao=" + getVersao() +
+            ", data='" + getData() + "'" +
+            ", clienteId=" + getClienteId() +
+            ", petId=" + getPetId() +
+            ", usuarioId=" + getUsuarioId() +
+            "}";
+    }
+}
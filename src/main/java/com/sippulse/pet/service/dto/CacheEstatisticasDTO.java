@@ -0,0 +1,91 @@
+package com.sippulse.pet.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Estatísticas de um cache em memória desde o início da aplicação.
+ */
+public class CacheEstatisticasDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long tamanho;
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRate;
+
+    private long evictions;
+
+    public CacheEstatisticasDTO() {
+    }
+
+    public CacheEstatisticasDTO(long tamanho, long hits, long misses, double hitRate, long evictions) {
+        this.tamanho = tamanho;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+    }
+
+    /**
+     * @return o número aproximado de entradas.
+     */
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(long tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * @return a fração das consultas atendidas pelo cache, {@code 1.0} se não houve consultas.
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    /**
+     * @return as entradas removidas por tamanho ou expiração, sem contar as invalidações.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEstatisticasDTO{" +
+            "tamanho=" + getTamanho() +
+            ", hits=" + getHits() +
+            ", misses=" + getMisses() +
+            ", evictions=" + getEvictions() +
+            "}";
+    }
+}
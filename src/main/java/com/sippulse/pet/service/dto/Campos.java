@@ -0,0 +1,108 @@
+package com.sippulse.pet.service.dto;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Os campos de um read model pedidos no parâmetro {@code fields}, por exemplo {@code fields=id,nome,data}.
+ *
+ * <p>Os campos que não foram pedidos não são lidos do banco nem escritos na resposta.</p>
+ */
+public final class Campos {
+
+    /**
+     * Todos os campos, quando {@code fields} não é informado.
+     */
+    public static final Campos TODOS = new Campos(null);
+
+    private static final Map<Class<?>, Set<String>> DISPONIVEIS = new ConcurrentHashMap<>();
+
+    private final Set<String> nomes;
+
+    private final String normalizado;
+
+    private Campos(Set<String> nomes) {
+        this.nomes = nomes;
+        this.normalizado = nomes == null ? "*" : String.join(",", new TreeSet<>(nomes));
+    }
+
+    /**
+     * Lê o parâmetro {@code fields}, com os nomes separados por vírgula.
+     *
+     * @param fields o valor do parâmetro, ou {@code null} para todos os campos.
+     * @param tipo a classe do read model.
+     * @return os campos pedidos, ou {@link #TODOS} se {@code fields} for vazio.
+     * @throws IllegalArgumentException se algum nome não for um campo do read model.
+     */
+    public static Campos parse(String fields, Class<?> tipo) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return TODOS;
+        }
+        Set<String> disponiveis = DISPONIVEIS.computeIfAbsent(tipo, Campos::disponiveis);
+        Set<String> nomes = new LinkedHashSet<>();
+        for (String nome : fields.split(",")) {
+            String campo = nome.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            if (!disponiveis.contains(campo)) {
+                throw new IllegalArgumentException("Unknown field: " + campo);
+            }
+            nomes.add(campo);
+        }
+        return nomes.isEmpty() ? TODOS : new Campos(Collections.unmodifiableSet(nomes));
+    }
+
+    private static Set<String> disponiveis(Class<?> tipo) {
+        Set<String> nomes = new LinkedHashSet<>();
+        for (Field field : tipo.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                nomes.add(field.getName());
+            }
+        }
+        return nomes;
+    }
+
+    /**
+     * @return {@code true} se todos os campos foram pedidos.
+     */
+    public boolean isTodos() {
+        return nomes == null;
+    }
+
+    /**
+     * @param campo o nome do campo.
+     * @return {@code true} se o campo foi pedido.
+     */
+    public boolean contem(String campo) {
+        return nomes == null || nomes.contains(campo);
+    }
+
+    /**
+     * @return os nomes pedidos, na ordem do parâmetro, ou {@code null} se todos os campos foram pedidos.
+     */
+    public Set<String> getNomes() {
+        return nomes;
+    }
+
+    /**
+     * Os campos são escritos na ordem do read model, então {@code fields} com os mesmos nomes em outra ordem dá a
+     * mesma representação.
+     *
+     * @return os nomes pedidos em ordem alfabética, ou {@code *} se todos os campos foram pedidos.
+     */
+    public String normalizado() {
+        return normalizado;
+    }
+
+    @Override
+    public String toString() {
+        return nomes == null ? "*" : String.join(",", nomes);
+    }
+}
@@ -0,0 +1,118 @@
+package com.sippulse.pet.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+
+/**
+ * Read model de um {@link com.sippulse.pet.entity.Cliente}, sem as coleções de agendamentos e pets.
+ */
+public class ClienteDTO implements Serializable, Parcial {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long versao;
+
+    private String nome;
+
+    private String email;
+
+    private String endereco;
+
+    private String telefone;
+
+    private String cpf;
+
+    private transient Campos campos = Campos.TODOS;
+
+    public ClienteDTO() {
+    }
+
+    public ClienteDTO(Long id, Long versao, String nome, String email, String endereco, String telefone, String cpf) {
+        this.id = id;
+        this.versao = versao;
+        this.nome = nome;
+        this.email = email;
+        this.endereco = endereco;
+        this.telefone = telefone;
+        this.cpf = cpf;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getEndereco() {
+        return endereco;
+    }
+
+    public void setEndereco(String endereco) {
+        this.endereco = endereco;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public void setCpf(String cpf) {
+        this.cpf = cpf;
+    }
+
+    @Override
+    @JsonIgnore
+    public Campos getCampos() {
+        return campos;
+    }
+
+    public void setCampos(Campos campos) {
+        this.campos = campos;
+    }
+
+    @Override
+    public String toString() {
+        return "ClienteDTO{" +
+            "id=" + getId() +
+            ", versao=" + getVersao() +
+            ", nome='" + getNome() + "'" +
+            ", email='" + getEmail() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,40 @@
+package com.sippulse.pet.service.dto;
+
+import java.util.List;
+
+/**
+ * O cartão de um {@link com.sippulse.pet.entity.Cliente}: os seus dados, os seus pets e os seus próximos
+ * agendamentos.
+ */
+public class ClienteResumoDTO {
+
+    private final ClienteDTO cliente;
+
+    private final List<PetDTO> pets;
+
+    private final List<AgendamentoDTO> proximosAgendamentos;
+
+    public ClienteResumoDTO(ClienteDTO cliente, List<PetDTO> pets, List<AgendamentoDTO> proximosAgendamentos) {
+        this.cliente = cliente;
+        this.pets = pets;
+        this.proximosAgendamentos = proximosAgendamentos;
+    }
+
+    public ClienteDTO getCliente() {
+        return cliente;
+    }
+
+    /**
+     * @return os pets do cliente, por id.
+     */
+    public List<PetDTO> getPets() {
+        return pets;
+    }
+
+    /**
+     * @return os agendamentos do cliente de agora até o fim da janela configurada, por data.
+     */
+    public List<AgendamentoDTO> getProximosAgendamentos() {
+        return proximosAgendamentos;
+    }
+}
@@ -0,0 +1,54 @@
+package com.sippulse.pet.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Horários livres de um veterinário em um dia.
+ */
+public class DisponibilidadeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String dia;
+
+    private List<String> livres;
+
+    public DisponibilidadeDTO() {
+    }
+
+    public DisponibilidadeDTO(String dia, List<String> livres) {
+        this.dia = dia;
+        this.livres = livres;
+    }
+
+    /**
+     * @return o dia, no formato {@code yyyy-MM-dd}.
+     */
+    public String getDia() {
+        return dia;
+    }
+
+    public void setDia(String dia) {
+        this.dia = dia;
+    }
+
+    /**
+     * @return o início de cada horário livre, no formato {@code HH:mm}.
+     */
+    public List<String> getLivres() {
+        return livres;
+    }
+
+    public void setLivres(List<String> livres) {
+        this.livres = livres;
+    }
+
+    @Override
+    public String toString() {
+        return "DisponibilidadeDTO{" +
+            "dia='" + getDia() + "'" +
+            ", livres=" + getLivres() +
+            "}";
+    }
+}
@@ -0,0 +1,77 @@
+package com.sippulse.pet.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo de uma importação em lote: linhas lidas, importadas e os erros por linha.
+ */
+public class ImportacaoDTO {
+
+    /**
+     * Limite de erros detalhados no resumo; além dele apenas {@link #getFalhas()} é incrementado.
+     */
+    public static final int MAX_ERROS = 1000;
+
+    private long total;
+
+    private long importados;
+
+    private long falhas;
+
+    private final List<Erro> erros = new ArrayList<>();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getImportados() {
+        return importados;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    public List<Erro> getErros() {
+        return erros;
+    }
+
+    public void linhaLida() {
+        total++;
+    }
+
+    public void importados(int quantidade) {
+        importados += quantidade;
+    }
+
+    public void erro(long linha, String mensagem) {
+        falhas++;
+        if (erros.size() < MAX_ERROS) {
+            erros.add(new Erro(linha, mensagem));
+        }
+    }
+
+    /**
+     * Erro de uma linha da importação; a primeira linha é {@code 1}.
+     */
+    public static class Erro {
+
+        private final long linha;
+
+        private final String mensagem;
+
+        public Erro(long linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public long getLinha() {
+            return linha;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sippulse.pet.service.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Os itens pedidos por id em uma única requisição, na ordem dos ids pedidos.
+ *
+ * <p>Um id que não existe ocupa a sua posição com {@code null} em {@code itens} e aparece em
+ * {@code naoEncontrados}.</p>
+ *
+ * @param <T> o tipo dos itens.
+ */
+public class Lote<T> {
+
+    private final List<T> itens;
+
+    private final List<Long> naoEncontrados;
+
+    public Lote(List<T> itens, List<Long> naoEncontrados) {
+        this.itens = itens;
+        this.naoEncontrados = naoEncontrados;
+    }
+
+    /**
+     * Monta o lote na ordem dos ids pedidos.
+     *
+     * @param ids os ids pedidos, na ordem da requisição; podem se repetir.
+     * @param porId os itens encontrados, pelo id.
+     * @param <T> o tipo dos itens.
+     * @return o lote.
+     */
+    public static <T> Lote<T> of(List<Long> ids, Map<Long, T> porId) {
+        List<T> itens = new ArrayList<>(ids.size());
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long id : ids) {
+            T item = porId.get(id);
+            itens.add(item);
+            if (item == null && !naoEncontrados.contains(id)) {
+                naoEncontrados.add(id);
+            }
+        }
+        return new Lote<>(Collections.unmodifiableList(itens), Collections.unmodifiableList(naoEncontrados));
+    }
+
+    /**
+     * @return os itens, na ordem dos ids pedidos, com {@code null} nas posições dos ids não encontrados.
+     */
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return os ids pedidos que não existem, sem repetição.
+     */
+    public List<Long> getNaoEncontrados() {
+        return naoEncontrados;
+    }
+}
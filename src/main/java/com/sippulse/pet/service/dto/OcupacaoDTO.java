@@ -0,0 +1,103 @@
+package com.sippulse.pet.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Agendamentos e ocupação da agenda de um veterinário em um dia.
+ */
+public class OcupacaoDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long usuarioId;
+
+    private String usuarioNome;
+
+    private String dia;
+
+    private int agendamentos;
+
+    private int horarios;
+
+    private double percentual;
+
+    public OcupacaoDTO() {
+    }
+
+    public OcupacaoDTO(Long usuarioId, String usuarioNome, String dia, int agendamentos, int horarios) {
+        this.usuarioId = usuarioId;
+        this.usuarioNome = usuarioNome;
+        this.dia = dia;
+        this.agendamentos = agendamentos;
+        this.horarios = horarios;
+        this.percentual = Math.round(1000.0 * agendamentos / horarios) / 10.0;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getUsuarioNome() {
+        return usuarioNome;
+    }
+
+    public void setUsuarioNome(String usuarioNome) {
+        this.usuarioNome = usuarioNome;
+    }
+
+    /**
+     * @return o dia, no formato {@code yyyy-MM-dd}.
+     */
+    public String getDia() {
+        return dia;
+    }
+
+    public void setDia(String dia) {
+        this.dia = dia;
+    }
+
+    public int getAgendamentos() {
+        return agendamentos;
+    }
+
+    public void setAgendamentos(int agendamentos) {
+        this.agendamentos = agendamentos;
+    }
+
+    /**
+     * @return o número de horários do expediente.
+     */
+    public int getHorarios() {
+        return horarios;
+    }
+
+    public void setHorarios(int horarios) {
+        this.horarios = horarios;
+    }
+
+    /**
+     * @return os agendamentos em relação aos horários do expediente, em porcentagem com uma casa decimal;
+     * passa de 100 se houver agendamentos fora do expediente.
+     */
+    public double getPercentual() {
+        return percentual;
+    }
+
+    public void setPercentual(double percentual) {
+        this.percentual = percentual;
+    }
+
+    @Override
+    public String toString() {
+        return "OcupacaoDTO{" +
+            "usuarioId=" + getUsuarioId() +
+            ", dia='" + getDia() + "'" +
+            ", agendamentos=" + getAgendamentos() +
+            ", horarios=" + getHorarios() +
+            "}";
+    }
+}
@@ -0,0 +1,97 @@
+package com.sippulse.pet.service.dto;
+
+/**
+ * Operação sobre todos os agendamentos de um veterinário entre duas datas ({@code yyyy-MM-dd}, inclusivas).
+ */
+public class OperacaoAgendaDTO {
+
+    /**
+     * O que fazer com os agendamentos do período.
+     */
+    public enum Tipo {
+        /**
+         * Move os agendamentos {@code minutos} para frente, ou para trás se negativo.
+         */
+        DESLOCAR,
+        /**
+         * Passa os agendamentos para o veterinário {@code novoUsuarioId}.
+         */
+        REATRIBUIR,
+        /**
+         * Remove os agendamentos.
+         */
+        CANCELAR
+    }
+
+    private Tipo operacao;
+
+    private Long usuarioId;
+
+    private String de;
+
+    private String ate;
+
+    private Integer minutos;
+
+    private Long novoUsuarioId;
+
+    public Tipo getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(Tipo operacao) {
+        this.operacao = operacao;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getDe() {
+        return de;
+    }
+
+    public void setDe(String de) {
+        this.de = de;
+    }
+
+    public String getAte() {
+        return ate;
+    }
+
+    public void setAte(String ate) {
+        this.ate = ate;
+    }
+
+    public Integer getMinutos() {
+        return minutos;
+    }
+
+    public void setMinutos(Integer minutos) {
+        this.minutos = minutos;
+    }
+
+    public Long getNovoUsuarioId() {
+        return novoUsuarioId;
+    }
+
+    public void setNovoUsuarioId(Long novoUsuarioId) {
+        this.novoUsuarioId = novoUsuarioId;
+    }
+
+    @Override
+    public String toString() {
+        return "OperacaoAgendaDTO{" +
+            "operacao=" + operacao +
+            ", usuarioId=" + usuarioId +
+            ", de='" + de + "'" +
+            ", ate='" + ate + "'" +
+            ", minutos=" + minutos +
+            ", novoUsuarioId=" + novoUsuarioId +
+            "}";
+    }
+}
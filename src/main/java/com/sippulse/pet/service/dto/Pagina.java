@@ -0,0 +1,31 @@
+package com.sippulse.pet.service.dto;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados com o cursor opaco para a próxima página.
+ *
+ * @param <T> o tipo dos itens.
+ */
+public class Pagina<T> {
+
+    private final List<T> itens;
+
+    private final String proximoCursor;
+
+    public Pagina(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return o cursor da próxima página, ou {@code null} se esta for a última.
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sippulse.pet.service.dto;
+
+/**
+ * Read model que pode ter sido lido com apenas parte dos campos; só os campos pedidos são serializados.
+ */
+public interface Parcial {
+
+    /**
+     * @return os campos lidos, ou {@link Campos#TODOS}.
+     */
+    Campos getCampos();
+}
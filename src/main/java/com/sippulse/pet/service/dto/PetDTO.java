@@ -0,0 +1,128 @@
+package com.sippulse.pet.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+
+/**
+ * Read model de um {@link com.sippulse.pet.entity.Pet}, com o id e o nome do cliente.
+ */
+public class PetDTO implements Serializable, Parcial {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long versao;
+
+    private String nome;
+
+    private String especieAnimal;
+
+    private String raca;
+
+    private Long clienteId;
+
+    private String clienteNome;
+
+    private transient Campos campos = Campos.TODOS;
+
+    public PetDTO() {
+    }
+
+    public PetDTO(Long id, Long versao, String nome, String especieAnimal, String raca, Long clienteId, String clienteNome) {
+        this.id = id;
+        this.versao = versao;
+        this.nome = nome;
+        this.especieAnimal = especieAnimal;
+        this.raca = raca;
+        this.clienteId = clienteId;
+        this.clienteNome = clienteNome;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getEspecieAnimal() {
+        return especieAnimal;
+    }
+
+    public void setEspecieAnimal(String especieAnimal) {
+        this.especieAnimal = especieAnimal;
+    }
+
+    public String getRaca() {
+        return raca;
+    }
+
+    public void setRaca(String raca) {
+        this.raca = raca;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public String getClienteNome() {
+        return clienteNome;
+    }
+
+    public void setClienteNome(String clienteNome) {
+        this.clienteNome = clienteNome;
+    }
+
+    @Override
+    @JsonIgnore
+    public Campos getCampos() {
+        return campos;
+    }
+
+    public void setCampos(Campos campos) {
+        this.campos = campos;
+    }
+
+    /**
+     * A revisão de um pet em uma ETag de lista; o nome do cliente vem de outra entidade e também muda a representação.
+     *
+     * @param pet o pet.
+     * @return o id, a versão e o nome do cliente.
+     */
+    public static String revisaoDe(PetDTO pet) {
+        return pet.getId() + ":" + pet.getVersao() + ":" + pet.getClienteNome();
+    }
+
+    @Override
+    public String toString() {
+        return "PetDTO{" +
+            "id=" + getId() +
+            ", versao=" + getVersao() +
+            ", nome='" + getNome() + "'" +
+            ", clienteId=" + getClienteId() +
+            "}";
+    }
+}
@@ -0,0 +1,36 @@
+package com.sippulse.pet.service.dto;
+
+import java.util.List;
+
+/**
+ * Resumo de uma {@link OperacaoAgendaDTO}: a operação e os agendamentos afetados.
+ */
+public class ResultadoOperacaoDTO {
+
+    private final OperacaoAgendaDTO.Tipo operacao;
+
+    private final List<Long> ids;
+
+    public ResultadoOperacaoDTO(OperacaoAgendaDTO.Tipo operacao, List<Long> ids) {
+        this.operacao = operacao;
+        this.ids = ids;
+    }
+
+    public OperacaoAgendaDTO.Tipo getOperacao() {
+        return operacao;
+    }
+
+    /**
+     * @return o número de agendamentos afetados.
+     */
+    public int getAgendamentos() {
+        return ids.size();
+    }
+
+    /**
+     * @return os ids dos agendamentos afetados, em ordem.
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+}
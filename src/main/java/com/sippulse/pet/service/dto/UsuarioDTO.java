@@ -0,0 +1,101 @@
+package com.sippulse.pet.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sippulse.pet.entity.UsuarioTipo;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Read model de um {@link com.sippulse.pet.entity.Usuario}.
+ */
+public class UsuarioDTO implements Serializable, Parcial {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long versao;
+
+    @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    private Date dataCadastro;
+
+    private String nome;
+
+    private UsuarioTipo usuarioTipo;
+
+    private transient Campos campos = Campos.TODOS;
+
+    public UsuarioDTO() {
+    }
+
+    public UsuarioDTO(Long id, Long versao, Date dataCadastro, String nome, UsuarioTipo usuarioTipo) {
+        this.id = id;
+        this.versao = versao;
+        this.dataCadastro = dataCadastro;
+        this.nome = nome;
+        this.usuarioTipo = usuarioTipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Date getDataCadastro() {
+        return dataCadastro;
+    }
+
+    public void setDataCadastro(Date dataCadastro) {
+        this.dataCadastro = dataCadastro;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public UsuarioTipo getUsuarioTipo() {
+        return usuarioTipo;
+    }
+
+    public void setUsuarioTipo(UsuarioTipo usuarioTipo) {
+        this.usuarioTipo = usuarioTipo;
+    }
+
+    @Override
+    @JsonIgnore
+    public Campos getCampos() {
+        return campos;
+    }
+
+    public void setCampos(Campos campos) {
+        this.campos = campos;
+    }
+
+    @Override
+    public String toString() {
+        return "UsuarioDTO{" +
+            "id=" + getId() +
+            ", versao=" + getVersao() +
+            ", dataCadastro='" + getDataCadastro() + "'" +
+            ", nome='" + getNome() + "'" +
+            ", usuarioTipo='" + getUsuarioTipo() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,99 @@
+package com.sippulse.pet;
+
+import com.sippulse.pet.entity.Agendamento;
+import com.sippulse.pet.entity.Cliente;
+import com.sippulse.pet.entity.Pet;
+import com.sippulse.pet.entity.Usuario;
+import com.sippulse.pet.service.AgendamentoService;
+import com.sippulse.pet.service.GradeHorarios;
+import com.sippulse.pet.service.HorarioIndisponivelException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * O changelog e a inicialização adotam um banco criado pelo {@code ddl-auto=update} da versão inicial, com
+ * agendamentos.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = PetSchedule.class)
+@IntegrationTest("spring.datasource.url=" + BancoLegadoTest.URL)
+public class BancoLegadoTest {
+
+    static final String URL = "jdbc:h2:mem:legado;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private GradeHorarios gradeHorarios;
+
+    /**
+     * Roda antes de o contexto subir, e com ele o Liquibase.
+     */
+    @BeforeClass
+    public static void criarBancoDoDdlAuto() {
+        new ResourceDatabasePopulator(new ClassPathResource("legado/ddl-auto-update.sql"))
+            .execute(new DriverManagerDataSource(URL, "sa", ""));
+    }
+
+    @Test
+    public void removeAsRestricoesUnicasDoOneToOne() {
+        assertEquals("EXECUTED", jdbcTemplate.queryForObject(
+            "select exectype from databasechangelog where id = '004-agendamento-unicas-antigas'", String.class));
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject("select count(*) from information_schema.constraints " +
+            "where lower(table_name) = 'agendamento' and constraint_type = 'UNIQUE' " +
+            "and lower(column_list) in ('pet_id', 'usuario_id')",
+            Integer.class));
+        // as chaves estrangeiras recriadas sobre as mesmas colunas
+        assertEquals(Integer.valueOf(3), jdbcTemplate.queryForObject("select count(*) " +
+            "from information_schema.cross_references where lower(fktable_name) = 'agendamento'", Integer.class));
+        // o pet e o veterinário do agendamento antigo recebem um segundo agendamento
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        Pet pet = new Pet();
+        pet.setId(1L);
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        agendamentoService.save(new Agendamento().data(amanha(11, 0)).cliente(cliente).pet(pet).usuario(usuario));
+        assertEquals(Integer.valueOf(2), jdbcTemplate.queryForObject(
+            "select count(*) from agendamento where pet_id = 1 and usuario_id = 1", Integer.class));
+    }
+
+    @Test(expected = HorarioIndisponivelException.class)
+    public void preencheOHorarioDosAgendamentosAntigos() {
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+            "select count(*) from agendamento where slot is null and data is not null", Integer.class));
+        assertEquals(gradeHorarios.slot(amanha(10, 0)), jdbcTemplate.queryForObject(
+            "select slot from agendamento where id = 1", Long.class));
+        // o veterinário do agendamento antigo das 10:00 já está ocupado no mesmo horário
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        Pet pet = new Pet();
+        pet.setId(2L);
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        agendamentoService.save(new Agendamento().data(amanha(10, 10)).cliente(cliente).pet(pet).usuario(usuario));
+    }
+
+    private static Date amanha(int hora, int minuto) {
+        return Date.from(LocalDate.now().plusDays(1).atTime(hora, minuto).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
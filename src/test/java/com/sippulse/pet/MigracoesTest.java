@@ -0,0 +1,84 @@
+package com.sippulse.pet;
+
+import com.sippulse.pet.repository.AgendamentoRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.IntegrationTest;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * O changelog do Liquibase cria, em um banco vazio, o esquema que o Hibernate valida na subida.
+ *
+ * <p>A subida do contexto já é a verificação: com {@code ddl-auto=validate} ela falha se faltar uma tabela ou uma
+ * coluna mapeada. As consultas que os índices de {@code 003} atendem têm o plano do H2 conferido, a partir do SQL
+ * que o Hibernate de fato gerou.</p>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = PetSchedule.class)
+@IntegrationTest("spring.datasource.url=jdbc:h2:mem:migracoes;MODE=MySQL;DB_CLOSE_DELAY=-1")
+public class MigracoesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Value("${spring.jpa.hibernate.ddl-auto}")
+    private String ddlAuto;
+
+    @Test
+    public void changelogCriaOEsquemaValidadoPeloHibernate() {
+        assertEquals("validate", ddlAuto);
+        // as colunas de 002 já nascem nas tabelas de 001 e só são marcadas; as tabelas e os índices são criados
+        Integer naoExecutados = jdbcTemplate.queryForObject("select count(*) from databasechangelog " +
+            "where exectype <> 'EXECUTED' and (id like '001-%' or id like '003-%')", Integer.class);
+        assertEquals("tabelas ou índices marcados sem criar em um banco vazio", Integer.valueOf(0), naoExecutados);
+        for (String tabela : new String[]{"USUARIO", "CLIENTE", "PET", "AGENDAMENTO", "OCUPACAO_AGENDA"}) {
+            Integer tabelas = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name = ?", Integer.class, tabela);
+            assertTrue("tabela " + tabela, tabelas == 1);
+        }
+    }
+
+    @Test
+    public void consultasUsamOsIndicesDoChangelog() {
+        Date inicio = new Date();
+        Date fim = new Date(inicio.getTime() + 24 * 60 * 60 * 1000L);
+        assertIndice("idx_agendamento_usuario_data",
+            () -> agendamentoRepository.findByUsuarioAndPeriodo(1L, inicio, fim), 1L, inicio, fim);
+        assertIndice("idx_agendamento_cliente_data",
+            () -> agendamentoRepository.findByClienteAndPeriodo(1L, inicio, fim), 1L, inicio, fim);
+        assertIndice("ux_cliente_cpf", () -> agendamentoRepository.findByClienteCpf("00000000001"), "00000000001");
+    }
+
+    /**
+     * Executa a consulta com as estatísticas do H2 ligadas, para obter o SQL gerado, e confere que o plano dele usa
+     * o índice.
+     */
+    private void assertIndice(String indice, Runnable consulta, Object... parametros) {
+        // religar as estatísticas descarta as anteriores
+        jdbcTemplate.execute("set query_statistics true");
+        List<String> comandos;
+        try {
+            consulta.run();
+            comandos = jdbcTemplate.queryForList("select sql_statement from information_schema.query_statistics " +
+                "where lower(sql_statement) like 'select %'", String.class);
+        } finally {
+            jdbcTemplate.execute("set query_statistics false");
+        }
+        assertEquals(indice + ": " + comandos, 1, comandos.size());
+        String plano = jdbcTemplate.queryForObject("explain " + comandos.get(0), String.class, parametros);
+        assertTrue(indice + ": " + plano, plano.toLowerCase().contains("." + indice + ":"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.sippulse.pet.controller;
+
+import com.sippulse.pet.PetSchedule;
+import com.sippulse.pet.service.AgendamentoService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.boot.test.TestRestTemplate;
+import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.client.RestTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * As listagens custam um número fixo de comandos SQL, qualquer que seja o número de linhas: as associações vêm na
+ * mesma consulta ou em uma única consulta {@code in}, nunca em um select por linha.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = PetSchedule.class)
+@WebIntegrationTest(value = "spring.datasource.url=jdbc:h2:mem:listagens;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    randomPort = true)
+public class ListagensConsultasTest {
+
+    private static final String[] LISTAGENS = {"/api/agendamentos", "/api/pets", "/api/clientes", "/api/usuarios"};
+
+    /**
+     * Limite de comandos por listagem: a página e, nos agendamentos, os nomes que faltam nos caches.
+     */
+    private static final int MAX_COMANDOS = 3;
+
+    @Value("${local.server.port}")
+    private int porta;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    private final RestTemplate restTemplate = new TestRestTemplate();
+
+    private Statistics statistics;
+
+    private int agendamentos;
+
+    @Before
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void listagensNaoCrescemComAsLinhas() {
+        cadastrar(2);
+        Map<String, Long> poucas = new HashMap<>();
+        for (String listagem : LISTAGENS) {
+            poucas.put(listagem, comandos(() -> get(listagem)));
+        }
+        long findAllPoucas = comandos(() -> agendamentoService.findAll().size());
+        cadastrar(20);
+        for (String listagem : LISTAGENS) {
+            long muitas = comandos(() -> get(listagem));
+            assertEquals(listagem, poucas.get(listagem).longValue(), muitas);
+            assertTrue(listagem + " com " + muitas + " comandos", muitas <= MAX_COMANDOS);
+        }
+        assertEquals("findAll", findAllPoucas, comandos(() -> agendamentoService.findAll().size()));
+    }
+
+    private long comandos(Supplier<?> leitura) {
+        statistics.clear();
+        leitura.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private int get(String caminho) {
+        ResponseEntity<String> resposta = restTemplate.getForEntity(url(caminho), String.class);
+        assertEquals(caminho, HttpStatus.OK, resposta.getStatusCode());
+        return resposta.getBody().length();
+    }
+
+    /**
+     * Cadastra cada agendamento com o seu veterinário, cliente e pet, em dias diferentes.
+     */
+    private void cadastrar(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            agendamentos++;
+            Long usuario = criar("/api/usuarios", mapa("nome", "Veterinario " + agendamentos));
+            Long cliente = criar("/api/clientes", mapa("nome", "Cliente " + agendamentos,
+                "cpf", String.format("%011d", agendamentos)));
+            Long pet = criar("/api/pets", mapa("nome", "Pet " + agendamentos, "cliente", mapa("id", cliente)));
+            criar("/api/agendamentos", mapa("data", LocalDate.now().plusDays(agendamentos) + " 09:00:00",
+                "cliente", mapa("id", cliente), "pet", mapa("id", pet), "usuario", mapa("id", usuario)));
+        }
+    }
+
+    private Long criar(String caminho, Map<String, Object> corpo) {
+        ResponseEntity<Map> resposta = restTemplate.postForEntity(url(caminho), corpo, Map.class);
+        assertEquals(caminho, HttpStatus.CREATED, resposta.getStatusCode());
+        return ((Number) resposta.getBody().get("id")).longValue();
+    }
+
+    private static Map<String, Object> mapa(Object... chavesEValores) {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        for (int i = 0; i < chavesEValores.length; i += 2) {
+            mapa.put((String) chavesEValores[i], chavesEValores[i + 1]);
+        }
+        return mapa;
+    }
+
+    private String url(String caminho) {
+        return "http://localhost:" + porta + caminho;
+    }
+}
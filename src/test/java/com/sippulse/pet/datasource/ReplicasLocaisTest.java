@@ -0,0 +1,208 @@
+package com.sippulse.pet.datasource;
+
+import com.sippulse.pet.PetSchedule;
+import com.sippulse.pet.service.UsuarioService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.boot.test.TestRestTemplate;
+import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A aplicação sobe com o profile {@code replicas-locais} e duas réplicas: elas já têm o esquema quando os listeners
+ * de {@code ContextRefreshedEvent}, como o {@code GradeHorarios}, leem por transações somente leitura.
+ *
+ * <p>Depois da cópia, o mesmo usuario recebe um nome diferente em cada banco, e o nome lido mostra de qual banco
+ * veio a leitura.</p>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = PetSchedule.class)
+@WebIntegrationTest(value = {"spring.datasource.url=" + ReplicasLocaisTest.PRIMARIO,
+    "pet.datasource.replicas=" + ReplicasLocaisTest.REPLICA_0 + "," + ReplicasLocaisTest.REPLICA_1}, randomPort = true)
+@ActiveProfiles("replicas-locais")
+public class ReplicasLocaisTest {
+
+    static final String PRIMARIO = "jdbc:h2:mem:rota;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_0 = "jdbc:h2:mem:rota-replica-0;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_1 = "jdbc:h2:mem:rota-replica-1;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final long USUARIO = 1000L;
+
+    @Value("${local.server.port}")
+    private int porta;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    private final RestTemplate restTemplate = new TestRestTemplate();
+
+    @Before
+    public void marcarOsBancos() {
+        marcar(PRIMARIO, "primario");
+        marcar(REPLICA_0, "replica-0");
+        marcar(REPLICA_1, "replica-1");
+    }
+
+    @Test
+    public void subiuComAsReplicasCopiadas() {
+        for (String replica : Arrays.asList(REPLICA_0, REPLICA_1)) {
+            assertEquals(replica, Integer.valueOf(1), banco(replica).queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'AGENDAMENTO'", Integer.class));
+        }
+        // a página é lida em uma transação somente leitura, roteada para uma réplica
+        assertNotNull(usuarioService.findPage(null, 10));
+    }
+
+    @Test
+    public void leiturasVaoAsReplicasEmRodizio() {
+        String primeira = ler(true);
+        String segunda = ler(true);
+        assertEquals(new HashSet<>(Arrays.asList("replica-0", "replica-1")),
+            new HashSet<>(Arrays.asList(primeira, segunda)));
+        assertEquals(primeira, ler(true));
+    }
+
+    @Test
+    public void escritasVaoAoPrimario() {
+        assertEquals("primario", ler(false));
+    }
+
+    @Test
+    public void leituraDasEscritasVaiAoPrimario() {
+        LeituraDasEscritas.iniciar();
+        try {
+            assertEquals("primario", ler(true));
+            assertEquals("primario", ler(true));
+        } finally {
+            LeituraDasEscritas.encerrar();
+        }
+    }
+
+    @Test
+    public void replicaIndisponivelEPulada() throws SQLException {
+        DataSource replica = new DriverManagerDataSource(REPLICA_0, "sa", "");
+        DataSource primario = new DriverManagerDataSource(PRIMARIO, "sa", "");
+        RoteamentoDataSource umaIndisponivel = new RoteamentoDataSource(primario,
+            Arrays.asList(new Indisponivel(), replica));
+        RoteamentoDataSource todasIndisponiveis = new RoteamentoDataSource(primario,
+            Collections.singletonList(new Indisponivel()));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            // o rodízio começa na indisponível e na disponível: as duas leituras vão à disponível
+            assertEquals("replica-0", ler(umaIndisponivel));
+            assertEquals("replica-0", ler(umaIndisponivel));
+            assertEquals("primario", ler(todasIndisponiveis));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    public void cookieDaEscritaLevaAsLeiturasAoPrimario() {
+        assertTrue(lerPelaApi(new HttpHeaders()).startsWith("replica-"));
+        ResponseEntity<Map> escrita = restTemplate.postForEntity(url("/api/usuarios"),
+            Collections.singletonMap("nome", "Veterinario"), Map.class);
+        assertEquals(HttpStatus.CREATED, escrita.getStatusCode());
+        String cookie = escrita.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie, cookie.startsWith(LeituraDasEscritasFilter.COOKIE + "="));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.COOKIE, cookie.substring(0, cookie.indexOf(';')));
+        assertEquals("primario", lerPelaApi(headers));
+    }
+
+    /**
+     * Grava no banco, por fora da aplicação, o nome do usuario de teste.
+     */
+    private static void marcar(String url, String nome) {
+        banco(url).update("merge into usuario (id, versao, nome) key (id) values (?, 0, ?)", USUARIO, nome);
+    }
+
+    private static JdbcTemplate banco(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+
+    /**
+     * Lê o nome do usuario de teste pelo DataSource da aplicação, em uma transação somente leitura ou não.
+     */
+    private String ler(boolean somenteLeitura) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(somenteLeitura);
+        return transactionTemplate.execute(status -> ler(dataSource));
+    }
+
+    private static String ler(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select nome from usuario where id = ?", String.class,
+            USUARIO);
+    }
+
+    private String lerPelaApi(HttpHeaders headers) {
+        ResponseEntity<Map> resposta = restTemplate.exchange(url("/api/usuarios?size=500"), HttpMethod.GET,
+            new HttpEntity<>(headers), Map.class);
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        for (Map<String, Object> usuario : (List<Map<String, Object>>) resposta.getBody().get("itens")) {
+            if (((Number) usuario.get("id")).longValue() == USUARIO) {
+                return (String) usuario.get("nome");
+            }
+        }
+        throw new AssertionError("Usuario " + USUARIO + " not listed");
+    }
+
+    private String url(String caminho) {
+        return "http://localhost:" + porta + caminho;
+    }
+
+    /**
+     * Uma réplica que não entrega conexões.
+     */
+    private static class Indisponivel extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("Replica down");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Replica down");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.sippulse.pet.service;
+
+import com.google.common.base.Strings;
+import com.sippulse.pet.repository.ClienteRepository;
+import com.sippulse.pet.service.dto.ClienteDTO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * O índice de busca de clientes, carregado de um repositório em memória e atualizado por transações sem banco, que
+ * só executam as ações de depois do commit.
+ */
+public class ClienteBuscaIndexTest {
+
+    private final List<ClienteDTO> banco = new ArrayList<>();
+
+    private final SemBanco transactionManager = new SemBanco();
+
+    private ClienteBuscaIndex index;
+
+    @Before
+    public void setup() {
+        ClienteRepository clienteRepository = mock(ClienteRepository.class);
+        when(clienteRepository.findPageAfter(anyLong(), any(Pageable.class))).thenAnswer(invocacao -> {
+            long depoisDe = (Long) invocacao.getArguments()[0];
+            int tamanho = ((Pageable) invocacao.getArguments()[1]).getPageSize();
+            List<ClienteDTO> pagina = new ArrayList<>();
+            for (ClienteDTO cliente : banco) {
+                if (cliente.getId() > depoisDe && pagina.size() < tamanho) {
+                    pagina.add(cliente);
+                }
+            }
+            return pagina;
+        });
+        index = new ClienteBuscaIndex(clienteRepository, transactionManager);
+    }
+
+    @Test
+    public void ordenaPorRelevancia() {
+        banco.add(cliente(1L, "Ana Maria Souza", null));
+        banco.add(cliente(2L, "Mariana Lima", null));
+        banco.add(cliente(3L, "Anabela Reis", null));
+        banco.add(cliente(4L, "Ana Paula", null));
+        banco.add(cliente(5L, "Bruno Costa", "ana@exemplo.com"));
+        banco.add(cliente(6L, "Carlos Dias", null));
+        index.onApplicationEvent(null);
+        // palavra inteira, a mais curta primeiro; início de palavra; início do e-mail; qualquer posição
+        assertEquals(Arrays.asList(4L, 1L, 3L, 5L, 2L), index.buscar("ana", 10));
+        assertEquals(Arrays.asList(4L, 1L), index.buscar("ana", 2));
+        // todos os termos precisam aparecer
+        assertEquals(Collections.singletonList(2L), index.buscar("ana lima", 10));
+    }
+
+    @Test
+    public void ignoraAcentosEPontuacao() {
+        ClienteDTO jose = cliente(1L, "José Conceição", null);
+        jose.setTelefone("(11) 98765-4321");
+        jose.setCpf("123.456.789-09");
+        banco.add(jose);
+        banco.add(cliente(2L, "Joselito Barros", null));
+        index.onApplicationEvent(null);
+        List<Long> soJose = Collections.singletonList(1L);
+        assertEquals(soJose, index.buscar("conceicao", 10));
+        assertEquals(soJose, index.buscar("CONCEIÇÃO", 10));
+        assertEquals(soJose, index.buscar("josé conceicao", 10));
+        assertEquals(soJose, index.buscar("98765-4321", 10));
+        assertEquals(soJose, index.buscar("(11) 98765", 10));
+        assertEquals(soJose, index.buscar("11987654321", 10));
+        assertEquals(soJose, index.buscar("123.456.789-09", 10));
+        assertEquals(soJose, index.buscar("12345678909", 10));
+        assertEquals(Arrays.asList(1L, 2L), index.buscar("JOSE", 10));
+    }
+
+    @Test
+    public void escritasAparecemSoDepoisDoCommit() {
+        index.onApplicationEvent(null);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        transacao.execute(status -> {
+            index.indexarAposCommit(cliente(7L, "Carlos Nogueira", null));
+            assertEquals(Collections.emptyList(), index.buscar("nogueira", 10));
+            return null;
+        });
+        assertEquals(Collections.singletonList(7L), index.buscar("nogueira", 10));
+
+        transacao.execute(status -> {
+            index.indexarAposCommit(cliente(8L, "Carlota Nogueira", null));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(Collections.singletonList(7L), index.buscar("nogueira", 10));
+
+        // a nova versão substitui a anterior
+        transacao.execute(status -> {
+            index.indexarAposCommit(cliente(7L, "Marcos Nogueira", null));
+            return null;
+        });
+        assertEquals(Collections.emptyList(), index.buscar("carlos", 10));
+        assertEquals(Collections.singletonList(7L), index.buscar("marcos", 10));
+
+        transacao.execute(status -> {
+            index.removerAposCommit(7L);
+            assertEquals(Collections.singletonList(7L), index.buscar("nogueira", 10));
+            return null;
+        });
+        assertEquals(Collections.emptyList(), index.buscar("nogueira", 10));
+    }
+
+    @Test
+    public void buscasDuranteANovaBase() throws Exception {
+        List<Long> estaveis = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            banco.add(cliente(id, "Estavel " + Strings.repeat("x", (int) id), null));
+            estaveis.add(id);
+        }
+        for (long id = 21; id <= 1000; id++) {
+            banco.add(cliente(id, "Antigo " + id, null));
+        }
+        index.onApplicationEvent(null);
+        int novos = 10000;
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // sem transação as escritas são aplicadas na hora; a cauda passa do limite e a base é refeita
+            Future<?> escritor = executor.submit(() -> {
+                try {
+                    for (long id = 1001; id <= 1000 + novos; id++) {
+                        index.indexarAposCommit(cliente(id, "Novo " + id, null));
+                        // e os antigos de 101 a 1000 saem da base
+                        if (id % 10 == 0 && id / 10 <= 1000) {
+                            index.removerAposCommit(id / 10);
+                        }
+                    }
+                } finally {
+                    escrevendo.set(false);
+                }
+            });
+            List<Future<?>> leitores = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                leitores.add(executor.submit(() -> {
+                    do {
+                        assertEquals(estaveis, index.buscar("estavel", 100));
+                    } while (escrevendo.get());
+                }));
+            }
+            escritor.get(1, TimeUnit.MINUTES);
+            for (Future<?> leitor : leitores) {
+                leitor.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(estaveis, index.buscar("estavel", 100));
+        assertEquals(novos, index.buscar("novo", novos + 1).size());
+        assertEquals(Collections.singletonList(100L), index.buscar("antigo 100", 10));
+    }
+
+    private static ClienteDTO cliente(Long id, String nome, String email) {
+        return new ClienteDTO(id, 0L, nome, email, null, null, null);
+    }
+
+    /**
+     * Transações sem recurso: só marcam o início e o fim, para que as sincronizações rodem no commit.
+     */
+    private static class SemBanco extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            // nada a abrir
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            // nada a confirmar
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            // nada a desfazer
+        }
+    }
+}
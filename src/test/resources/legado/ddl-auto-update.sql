@@ -0,0 +1,25 @@
+-- O esquema que o ddl-auto=update criava antes do Liquibase, lido de um H2 criado pela versão inicial: sem versao,
+-- ultima_alteracao e slot, sem ocupacao_agenda, e com as restrições únicas do antigo @OneToOne em
+-- agendamento.pet_id e agendamento.usuario_id, que só deixavam um agendamento por pet e por veterinário.
+create table usuario (id bigint auto_increment primary key, data_cadastro timestamp, nome varchar(255),
+    usuario_tipo varchar(255));
+create table cliente (id bigint auto_increment primary key, cpf varchar(255), email varchar(255),
+    endereco varchar(255), nome varchar(255), telefone varchar(255));
+create table pet (id bigint auto_increment primary key, especie_animal varchar(255), nome varchar(255),
+    raca varchar(255), cliente_id bigint);
+create table agendamento (id bigint auto_increment primary key, data timestamp, cliente_id bigint, pet_id bigint,
+    usuario_id bigint);
+alter table agendamento add constraint UK_3E0W5JEFU1ISG2EFP2MIKJV1U unique (usuario_id);
+alter table agendamento add constraint UK_HL6HKSK60G6N9OF35NG3HJ4U2 unique (pet_id);
+alter table pet add constraint FK_6E36JOXEQEFOAMC3IUE8D7PBG foreign key (cliente_id) references cliente (id);
+alter table agendamento add constraint FK_R3JO6XJYGFCO4HGKCSKHKXL3Q foreign key (cliente_id) references cliente (id);
+alter table agendamento add constraint FK_3E0W5JEFU1ISG2EFP2MIKJV1U foreign key (usuario_id) references usuario (id);
+alter table agendamento add constraint FK_HL6HKSK60G6N9OF35NG3HJ4U2 foreign key (pet_id) references pet (id);
+
+insert into usuario (id, nome) values (1, 'Veterinario 1'), (2, 'Veterinario 2');
+insert into cliente (id, nome, cpf) values (1, 'Cliente 1', '00000000001');
+insert into pet (id, nome, cliente_id) values (1, 'Pet 1', 1), (2, 'Pet 2', 1);
+-- amanhã às 10:00 e às 10:40, antes de existir a coluna slot
+insert into agendamento (id, data, cliente_id, pet_id, usuario_id) values
+    (1, dateadd('MINUTE', 34 * 60, current_date), 1, 1, 1),
+    (2, dateadd('MINUTE', 34 * 60 + 40, current_date), 1, 2, 2);